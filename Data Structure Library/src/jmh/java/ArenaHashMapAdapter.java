@@ -0,0 +1,43 @@
+// ArenaHashMapAdapter.java
+import java.util.Iterator;
+
+/**
+ * ArenaHashMapAdapter exposes ArenaHashMap to the benchmarks in the bench package.
+ */
+public class ArenaHashMapAdapter implements bench.MapAdapter {
+    private final ArenaHashMap<Integer> map;
+
+    public ArenaHashMapAdapter(int capacity) {
+        map = new ArenaHashMap<>(capacity, ArenaHashMap.DEFAULT_ARENA_BYTES);
+    }
+
+    @Override
+    public void put(String key, Integer value) {
+        map.put(key, value);
+    }
+
+    @Override
+    public Integer get(String key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return map.contains(key);
+    }
+
+    @Override
+    public Integer replace(String key, Integer value) {
+        return map.replace(key, value);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return map.iterator();
+    }
+}
@@ -0,0 +1,48 @@
+// ArrayQueueAdapter.java
+import java.util.Iterator;
+
+/**
+ * ArrayQueueAdapter exposes ArrayQueue to the benchmarks in the bench package.
+ */
+public class ArrayQueueAdapter implements bench.QueueAdapter {
+    private final ArrayQueue<Integer> queue;
+
+    public ArrayQueueAdapter(int capacity) {
+        queue = new ArrayQueue<>(capacity, false);
+    }
+
+    @Override
+    public void enqueue(Integer value) {
+        queue.enqueue(value);
+    }
+
+    @Override
+    public Integer dequeue() {
+        return queue.dequeue();
+    }
+
+    @Override
+    public Integer get(int index) {
+        return queue.get(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return queue.set(index, value);
+    }
+
+    @Override
+    public int size() {
+        return queue.getLength();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return queue.iterator();
+    }
+
+    @Override
+    public Iterator<Integer> descendingIterator() {
+        return queue.descendingIterator();
+    }
+}
@@ -0,0 +1,45 @@
+// BloomMyHashMapAdapter.java
+import java.util.Iterator;
+
+/**
+ * BloomMyHashMapAdapter exposes a MyHashMap with its Bloom filter on to the benchmarks in
+ * the bench package, so the cost of misses can be compared with and without it.
+ */
+public class BloomMyHashMapAdapter implements bench.MapAdapter {
+    private final MyHashMap<String, Integer> map;
+
+    public BloomMyHashMapAdapter(int capacity) {
+        map = new MyHashMap<>(capacity);
+        map.setBloomFilter(true);
+    }
+
+    @Override
+    public void put(String key, Integer value) {
+        map.put(key, value);
+    }
+
+    @Override
+    public Integer get(String key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return map.contains(key);
+    }
+
+    @Override
+    public Integer replace(String key, Integer value) {
+        return map.replace(key, value);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return map.iterator();
+    }
+}
@@ -0,0 +1,50 @@
+// GenericQueueAdapter.java
+import java.util.Iterator;
+
+/**
+ * GenericQueueAdapter exposes GenericQueue to the benchmarks in the bench package.
+ * Forward iteration goes through GLLIterator and reverse iteration through
+ * ReverseGLLIterator, exactly as library users see them.
+ */
+public class GenericQueueAdapter implements bench.QueueAdapter {
+    private final GenericQueue<Integer> queue;
+
+    public GenericQueueAdapter(int capacity) {
+        queue = new GenericQueue<>();  // GenericQueue has no capacity to reserve
+    }
+
+    @Override
+    public void enqueue(Integer value) {
+        queue.enqueue(value);
+    }
+
+    @Override
+    public Integer dequeue() {
+        return queue.dequeue();
+    }
+
+    @Override
+    public Integer get(int index) {
+        return queue.get(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return queue.set(index, value);
+    }
+
+    @Override
+    public int size() {
+        return queue.getLength();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return queue.iterator();
+    }
+
+    @Override
+    public Iterator<Integer> descendingIterator() {
+        return queue.descendingIterator();
+    }
+}
@@ -0,0 +1,46 @@
+// IncrementalMyHashMapAdapter.java
+import java.util.Iterator;
+
+/**
+ * IncrementalMyHashMapAdapter exposes a MyHashMap with incremental resizing to the
+ * benchmarks in the bench package, so its fill cost can be compared with stop-the-world
+ * resizes.
+ */
+public class IncrementalMyHashMapAdapter implements bench.MapAdapter {
+    private final MyHashMap<String, Integer> map;
+
+    public IncrementalMyHashMapAdapter(int capacity) {
+        map = new MyHashMap<>(capacity);
+        map.setIncrementalResize(true);
+    }
+
+    @Override
+    public void put(String key, Integer value) {
+        map.put(key, value);
+    }
+
+    @Override
+    public Integer get(String key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return map.contains(key);
+    }
+
+    @Override
+    public Integer replace(String key, Integer value) {
+        return map.replace(key, value);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return map.iterator();
+    }
+}
@@ -0,0 +1,50 @@
+// IndexedGenericQueueAdapter.java
+import java.util.Iterator;
+
+/**
+ * IndexedGenericQueueAdapter exposes a GenericQueue in indexed mode to the benchmarks in
+ * the bench package, so positional access can be compared with the plain chain walk.
+ */
+public class IndexedGenericQueueAdapter implements bench.QueueAdapter {
+    private final GenericQueue<Integer> queue;
+
+    public IndexedGenericQueueAdapter(int capacity) {
+        queue = new GenericQueue<>();
+        queue.setIndexed(true);
+    }
+
+    @Override
+    public void enqueue(Integer value) {
+        queue.enqueue(value);
+    }
+
+    @Override
+    public Integer dequeue() {
+        return queue.dequeue();
+    }
+
+    @Override
+    public Integer get(int index) {
+        return queue.get(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return queue.set(index, value);
+    }
+
+    @Override
+    public int size() {
+        return queue.getLength();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return queue.iterator();
+    }
+
+    @Override
+    public Iterator<Integer> descendingIterator() {
+        return queue.descendingIterator();
+    }
+}
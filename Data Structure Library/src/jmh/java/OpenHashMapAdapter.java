@@ -0,0 +1,43 @@
+// OpenHashMapAdapter.java
+import java.util.Iterator;
+
+/**
+ * OpenHashMapAdapter exposes OpenHashMap to the benchmarks in the bench package.
+ */
+public class OpenHashMapAdapter implements bench.MapAdapter {
+    private final OpenHashMap<Integer> map;
+
+    public OpenHashMapAdapter(int capacity) {
+        map = new OpenHashMap<>(capacity);
+    }
+
+    @Override
+    public void put(String key, Integer value) {
+        map.put(key, value);
+    }
+
+    @Override
+    public Integer get(String key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return map.contains(key);
+    }
+
+    @Override
+    public Integer replace(String key, Integer value) {
+        return map.replace(key, value);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return map.iterator();
+    }
+}
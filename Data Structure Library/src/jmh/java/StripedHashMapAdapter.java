@@ -0,0 +1,43 @@
+// StripedHashMapAdapter.java
+import java.util.Iterator;
+
+/**
+ * StripedHashMapAdapter exposes StripedHashMap to the benchmarks in the bench package.
+ */
+public class StripedHashMapAdapter implements bench.MapAdapter {
+    private final StripedHashMap<Integer> map;
+
+    public StripedHashMapAdapter(int capacity) {
+        map = new StripedHashMap<>(capacity);
+    }
+
+    @Override
+    public void put(String key, Integer value) {
+        map.put(key, value);
+    }
+
+    @Override
+    public Integer get(String key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return map.contains(key);
+    }
+
+    @Override
+    public Integer replace(String key, Integer value) {
+        return map.replace(key, value);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return map.iterator();
+    }
+}
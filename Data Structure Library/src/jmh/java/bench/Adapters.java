@@ -0,0 +1,55 @@
+// Adapters.java
+package bench;
+
+/**
+ * Adapters creates the structure under test from a benchmark's impl parameter.
+ * JDK baselines are created directly. Library structures are created by loading the
+ * default-package adapter named impl + "Adapter" (for example MyHashMapAdapter),
+ * since a named package cannot refer to default-package classes at compile time.
+ */
+final class Adapters {
+    private Adapters() {
+    }
+
+    /**
+     * Creates an empty map adapter.
+     *
+     * @param impl The implementation name, such as "MyHashMap" or "HashMap".
+     * @param capacity The initial capacity hint passed to the map.
+     * @return A new, empty map adapter.
+     */
+    static MapAdapter newMap(String impl, int capacity) {
+        if ("HashMap".equals(impl)) {
+            return new JdkHashMapAdapter(capacity);
+        }
+        return (MapAdapter) load(impl, capacity);
+    }
+
+    /**
+     * Creates an empty queue adapter.
+     *
+     * @param impl The implementation name, such as "GenericQueue", "ArrayDeque" or "ArrayList".
+     * @param capacity The initial capacity hint passed to the queue.
+     * @return A new, empty queue adapter.
+     */
+    static QueueAdapter newQueue(String impl, int capacity) {
+        if ("ArrayDeque".equals(impl)) {
+            return new ArrayDequeAdapter(capacity);
+        }
+        if ("ArrayList".equals(impl)) {
+            return new ArrayListAdapter(capacity);
+        }
+        return (QueueAdapter) load(impl, capacity);
+    }
+
+    // Instantiates the default-package adapter for impl through its (int) constructor
+    private static Object load(String impl, int capacity) {
+        try {
+            return Class.forName(impl + "Adapter")
+                    .getDeclaredConstructor(int.class)
+                    .newInstance(capacity);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unknown implementation: " + impl, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+// ArrayDequeAdapter.java
+package bench;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * ArrayDequeAdapter wraps java.util.ArrayDeque as the baseline for the queue benchmarks.
+ * ArrayDeque has no positional access, so get and set are unsupported.
+ */
+final class ArrayDequeAdapter implements QueueAdapter {
+    private final ArrayDeque<Integer> deque;
+
+    ArrayDequeAdapter(int capacity) {
+        deque = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public void enqueue(Integer value) {
+        deque.addLast(value);
+    }
+
+    @Override
+    public Integer dequeue() {
+        return deque.pollFirst();
+    }
+
+    @Override
+    public Integer get(int index) {
+        throw new UnsupportedOperationException("ArrayDeque has no positional access");
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        throw new UnsupportedOperationException("ArrayDeque has no positional access");
+    }
+
+    @Override
+    public int size() {
+        return deque.size();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return deque.iterator();
+    }
+
+    @Override
+    public Iterator<Integer> descendingIterator() {
+        return deque.descendingIterator();
+    }
+}
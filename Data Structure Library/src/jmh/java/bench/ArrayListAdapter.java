@@ -0,0 +1,63 @@
+// ArrayListAdapter.java
+package bench;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.ListIterator;
+
+/**
+ * ArrayListAdapter wraps java.util.ArrayList as the baseline for positional get and set.
+ */
+final class ArrayListAdapter implements QueueAdapter {
+    private final ArrayList<Integer> list;
+
+    ArrayListAdapter(int capacity) {
+        list = new ArrayList<>(capacity);
+    }
+
+    @Override
+    public void enqueue(Integer value) {
+        list.add(value);
+    }
+
+    @Override
+    public Integer dequeue() {
+        return list.isEmpty() ? null : list.remove(0);
+    }
+
+    @Override
+    public Integer get(int index) {
+        return list.get(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return list.set(index, value);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return list.iterator();
+    }
+
+    @Override
+    public Iterator<Integer> descendingIterator() {
+        ListIterator<Integer> it = list.listIterator(list.size());
+        return new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasPrevious();
+            }
+
+            @Override
+            public Integer next() {
+                return it.previous();
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+// JdkHashMapAdapter.java
+package bench;
+
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * JdkHashMapAdapter wraps java.util.HashMap as the baseline for the map benchmarks.
+ */
+final class JdkHashMapAdapter implements MapAdapter {
+    private final HashMap<String, Integer> map;
+
+    JdkHashMapAdapter(int capacity) {
+        map = new HashMap<>(capacity);
+    }
+
+    @Override
+    public void put(String key, Integer value) {
+        map.put(key, value);
+    }
+
+    @Override
+    public Integer get(String key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public Integer replace(String key, Integer value) {
+        return map.replace(key, value);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return map.values().iterator();
+    }
+}
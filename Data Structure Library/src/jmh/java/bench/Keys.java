@@ -0,0 +1,91 @@
+// Keys.java
+package bench;
+
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Keys generates the String key sets used by the map benchmarks.
+ * Supported distributions:
+ *  - "sequential": "key0", "key1", ... (similar prefixes, hash codes close together)
+ *  - "random":     random alphanumeric strings of 8 to 16 characters
+ *  - "colliding":  groups of 8 distinct keys that share one hash code, built from the
+ *                  "Aa"/"BB" blocks (which hash identically), to exercise chain walks
+ */
+final class Keys {
+    private static final String ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private Keys() {
+    }
+
+    /**
+     * Generates distinct keys.
+     *
+     * @param distribution One of "sequential", "random" or "colliding".
+     * @param count The number of keys to generate.
+     * @param seed Seed for the random distribution; use different seeds for disjoint sets.
+     * @param prefix Prefix that keeps sets generated with different prefixes disjoint.
+     * @return An array of count distinct keys.
+     */
+    static String[] generate(String distribution, int count, long seed, String prefix) {
+        String[] keys = new String[count];
+        switch (distribution) {
+            case "sequential":
+                for (int i = 0; i < count; i++) {
+                    keys[i] = prefix + "key" + i;
+                }
+                break;
+            case "random":
+                Random random = new Random(seed);
+                HashSet<String> seen = new HashSet<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    String key;
+                    do {
+                        key = prefix + randomString(random, 8 + random.nextInt(9));
+                    } while (!seen.add(key));
+                    keys[i] = key;
+                }
+                break;
+            case "colliding":
+                for (int i = 0; i < count; i++) {
+                    int member = i & 7;  // Position inside a group of 8 colliding keys
+                    StringBuilder sb = new StringBuilder(prefix);
+                    for (int bit = 0; bit < 3; bit++) {
+                        sb.append((member & (1 << bit)) == 0 ? "Aa" : "BB");
+                    }
+                    keys[i] = sb.append('-').append(i >>> 3).toString();
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown key distribution: " + distribution);
+        }
+        return keys;
+    }
+
+    /**
+     * Generates positions in [0, bound) for benchmarks that access elements in random order.
+     *
+     * @param count The number of positions to generate.
+     * @param bound The exclusive upper bound.
+     * @param seed The random seed.
+     * @return An array of count positions.
+     */
+    static int[] positions(int count, int bound, long seed) {
+        Random random = new Random(seed);
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = random.nextInt(bound);
+        }
+        return positions;
+    }
+
+    // Builds a random alphanumeric string of the given length
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,66 @@
+// ListIndexBenchmark.java
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ListIndexBenchmark measures positional get(int) and set(int) on the GenericList
+ * implementations against
+ * java.util.ArrayList, using a pre-generated sequence of random positions.
+ * IndexedGenericQueue is a GenericQueue with setIndexed(true).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListIndexBenchmark {
+    // Number of pre-generated positions (a power of two so the cursor can be masked)
+    private static final int POSITIONS = 1 << 12;
+
+    @Param({"GenericQueue", "IndexedGenericQueue", "ArrayQueue", "ArrayList"})
+    String impl;
+
+    @Param({"16", "1024", "65536"})
+    int size;
+
+    // List pre-filled with size elements
+    private QueueAdapter list;
+    // Random positions in [0, size)
+    private int[] positions;
+    // Position of the next index to use
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        list = Adapters.newQueue(impl, size);
+        for (int i = 0; i < size; i++) {
+            list.enqueue(i);
+        }
+        positions = Keys.positions(POSITIONS, size, 42);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return list.get(positions[cursor++ & (POSITIONS - 1)]);
+    }
+
+    @Benchmark
+    public Integer set() {
+        int index = positions[cursor++ & (POSITIONS - 1)];
+        return list.set(index, index);
+    }
+}
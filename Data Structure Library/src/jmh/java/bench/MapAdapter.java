@@ -0,0 +1,31 @@
+// MapAdapter.java
+package bench;
+
+import java.util.Iterator;
+
+/**
+ * MapAdapter is the common surface that the map benchmarks drive.
+ * JMH refuses to generate code for benchmark classes in the default package, and the
+ * library classes live there, so every map under test is wrapped in a small adapter that
+ * implements this interface. A fork only ever loads one adapter class, which keeps the
+ * interface calls monomorphic so the JIT inlines them away.
+ */
+public interface MapAdapter {
+    // Adds or updates a key-value pair
+    void put(String key, Integer value);
+
+    // Returns the value for the key, or null if it is absent
+    Integer get(String key);
+
+    // Returns true if the key is present
+    boolean contains(String key);
+
+    // Replaces the value for an existing key and returns the old value
+    Integer replace(String key, Integer value);
+
+    // Returns the number of entries
+    int size();
+
+    // Returns an iterator over the stored values
+    Iterator<Integer> iterator();
+}
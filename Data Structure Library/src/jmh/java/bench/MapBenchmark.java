@@ -0,0 +1,118 @@
+// MapBenchmark.java
+package bench;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * MapBenchmark measures the library maps against java.util.HashMap.
+ * Point operations (get, contains, replace, put on an existing key) cycle through the key
+ * set so every call is a different key. fill measures building a whole map from empty,
+ * so its score is per map (divide by size for a per-put figure), and iterate measures one
+ * full HMIterator traversal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+    @Param({"MyHashMap", "IncrementalMyHashMap", "BloomMyHashMap", "OpenHashMap", "ArenaHashMap", "StripedHashMap", "HashMap"})
+    String impl;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"sequential", "random", "colliding"})
+    String keys;
+
+    // Keys stored in the map
+    private String[] present;
+    // Keys guaranteed not to be in the map
+    private String[] absent;
+    // Map pre-filled with every present key
+    private MapAdapter map;
+    // Position of the next key to use in the point-operation benchmarks
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        present = Keys.generate(keys, size, 42, "");
+        absent = Keys.generate(keys, size, 4242, "miss-");
+        map = Adapters.newMap(impl, 16);
+        for (int i = 0; i < size; i++) {
+            map.put(present[i], i);
+        }
+    }
+
+    // Returns the next key position, wrapping around at the end of the key set
+    private int next() {
+        int i = cursor;
+        cursor = (i + 1 == size) ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        return map.get(present[next()]);
+    }
+
+    @Benchmark
+    public Integer getMiss() {
+        return map.get(absent[next()]);
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return map.contains(present[next()]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return map.contains(absent[next()]);
+    }
+
+    @Benchmark
+    public Integer replace() {
+        int i = next();
+        return map.replace(present[i], i);
+    }
+
+    @Benchmark
+    public int putExisting() {
+        int i = next();
+        map.put(present[i], i);
+        return map.size();
+    }
+
+    @Benchmark
+    public MapAdapter fill() {
+        MapAdapter fresh = Adapters.newMap(impl, 16);
+        for (int i = 0; i < size; i++) {
+            fresh.put(present[i], i);
+        }
+        return fresh;
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        Iterator<Integer> it = map.iterator();
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+// QueueAdapter.java
+package bench;
+
+import java.util.Iterator;
+
+/**
+ * QueueAdapter is the common surface that the queue and list benchmarks drive.
+ * See MapAdapter for why the library classes are reached through adapters.
+ * Baselines that do not support an operation throw UnsupportedOperationException,
+ * and the benchmarks only pair them with the operations they do support.
+ */
+public interface QueueAdapter {
+    // Adds an element to the back
+    void enqueue(Integer value);
+
+    // Removes and returns the element at the front, or null if empty
+    Integer dequeue();
+
+    // Returns the element at the given position
+    Integer get(int index);
+
+    // Replaces the element at the given position and returns the old one
+    Integer set(int index, Integer value);
+
+    // Returns the number of elements
+    int size();
+
+    // Returns an iterator from front to back
+    Iterator<Integer> iterator();
+
+    // Returns an iterator from back to front
+    Iterator<Integer> descendingIterator();
+}
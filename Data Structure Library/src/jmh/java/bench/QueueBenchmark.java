@@ -0,0 +1,79 @@
+// QueueBenchmark.java
+package bench;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * QueueBenchmark measures GenericQueue and ArrayQueue against java.util.ArrayDeque.
+ * enqueueDequeue keeps the queue at a steady depth of size elements, iterate and
+ * iterateReverse walk the whole queue through GLLIterator and ReverseGLLIterator, and
+ * lastElement measures fetching only the first element of the reverse iterator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+    @Param({"GenericQueue", "ArrayQueue", "ArrayDeque"})
+    String impl;
+
+    @Param({"16", "1024", "65536"})
+    int size;
+
+    // Queue pre-filled with size elements
+    private QueueAdapter queue;
+    // Value that is cycled through the queue
+    private Integer value;
+
+    @Setup
+    public void setup() {
+        queue = Adapters.newQueue(impl, size);
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(i);
+        }
+        value = size;
+    }
+
+    @Benchmark
+    public Integer enqueueDequeue() {
+        queue.enqueue(value);
+        return value = queue.dequeue();
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        Iterator<Integer> it = queue.iterator();
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    public void iterateReverse(Blackhole bh) {
+        Iterator<Integer> it = queue.descendingIterator();
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    public Integer lastElement() {
+        return queue.descendingIterator().next();
+    }
+}
@@ -0,0 +1,463 @@
+// ArenaHashMap.java
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * ArenaHashMap class is a String-keyed hash map that stores its keys as UTF-8 bytes in one
+ * shared byte array (the arena) instead of as String objects, with the same
+ * put/get/contains/replace/size/isEmpty/iterator operations as OpenHashMap.
+ *
+ * Each key is appended to the arena once, as a length prefix (seven bits per byte, so one
+ * byte for keys shorter than 128 bytes) followed by its UTF-8 bytes. The slots are open
+ * addressed like OpenHashMap's, but hold the key's arena offset + 1 (0 for an empty slot)
+ * and its cached hash as ints, so a short ASCII key costs its length plus one byte rather
+ * than a String and a byte[] with their headers and padding.
+ *
+ * Keys can be given as any CharSequence, or as a slice of a byte[] holding UTF-8, and are
+ * hashed and compared against the arena directly, so lookups allocate nothing. Both forms
+ * hash the same bytes (see Utf8), so a key added as characters is found by its bytes and
+ * the other way round. The arena grows by doubling and is limited to 2 GB.
+ *
+ * Character keys must be valid UTF-16: a key with an unpaired surrogate has no UTF-8
+ * encoding, and every method given one throws an IllegalArgumentException rather than
+ * storing or looking up a lossy substitute that another key could share (see Utf8).
+ */
+public class ArenaHashMap<V> implements Iterable<V> {
+    // Arena size used when no initial size is given
+    static final int DEFAULT_ARENA_BYTES = 1 << 12;
+    // Largest arena that can be allocated
+    static final int MAXIMUM_ARENA_BYTES = Integer.MAX_VALUE - 8;
+
+    // Length-prefixed UTF-8 bytes of every key, in insertion order
+    private byte[] arena;
+    // ByteBuffer over arena, so the Utf8 helpers can read and write it
+    private ByteBuffer view;
+    // Number of arena bytes written so far (the next key goes here)
+    private int used;
+    // Arena offset + 1 of each slot's key, or 0 for an empty slot
+    private int[] offsets;
+    // Hash codes of the slots' keys, compared before the key bytes
+    private int[] hashes;
+    // Values of the stored entries, at the same index as their key
+    private Object[] values;
+    // Number of key-value pairs stored in the map
+    private int size;
+    // Number of entries at which the slots double
+    private int threshold;
+
+    /**
+     * Constructor initializes an empty map with the default slot count and arena size.
+     */
+    public ArenaHashMap() {
+        this(OpenHashMap.DEFAULT_CAPACITY, DEFAULT_ARENA_BYTES);
+    }
+
+    /**
+     * Constructor initializes an empty map.
+     *
+     * @param initialCapacity The requested number of slots, rounded up to a power of two.
+     * @param arenaBytes The initial size of the key arena in bytes; it doubles when full.
+     * @throws IllegalArgumentException if a size is negative.
+     */
+    public ArenaHashMap(int initialCapacity, int arenaBytes) {
+        if (initialCapacity < 0 || arenaBytes < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        setArena(new byte[Math.max(16, arenaBytes)]);
+        allocate(Math.max(2, MyHashMap.tableSizeFor(initialCapacity)));
+    }
+
+    // Creates empty slot arrays with the given number of slots and updates the threshold
+    private void allocate(int capacity) {
+        offsets = new int[capacity];
+        hashes = new int[capacity];
+        values = new Object[capacity];
+        threshold = Math.min((int) (capacity * OpenHashMap.DEFAULT_LOAD_FACTOR), capacity - 1);
+    }
+
+    // Replaces the arena array and the buffer over it
+    private void setArena(byte[] bytes) {
+        arena = bytes;
+        view = ByteBuffer.wrap(bytes);
+    }
+
+    // Number of bytes in the length prefix of a key of the given length
+    private static int prefixLength(int length) {
+        int n = 1;
+        while ((length >>>= 7) != 0) {
+            n++;
+        }
+        return n;
+    }
+
+    // Returns the byte length of the key stored at an arena offset
+    private int keyLength(int record) {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena[record++];
+            length |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return length;
+    }
+
+    // Returns the arena offset of the first key byte of the key stored at record
+    private int keyStart(int record) {
+        while (arena[record] < 0) {
+            record++;
+        }
+        return record + 1;
+    }
+
+    /**
+     * Returns the slot holding the given key, or the bitwise complement of the empty slot
+     * where it would be inserted if the key is not present.
+     */
+    private int findSlot(CharSequence key, int hashCode) {
+        int mask = offsets.length - 1;
+        int index = hashCode & mask;
+        int stored;
+        while ((stored = offsets[index]) != 0) {
+            int record = stored - 1;
+            if (hashes[index] == hashCode && Utf8.equals(key, view, keyStart(record), keyLength(record))) {
+                return index;
+            }
+            index = (index + 1) & mask;  // Linear probing: try the next slot
+        }
+        return ~index;
+    }
+
+    // Same as findSlot(CharSequence, int), for a key given as UTF-8 bytes
+    private int findSlot(byte[] key, int offset, int length, int hashCode) {
+        int mask = offsets.length - 1;
+        int index = hashCode & mask;
+        int stored;
+        while ((stored = offsets[index]) != 0) {
+            int record = stored - 1;
+            if (hashes[index] == hashCode && keyLength(record) == length
+                    && Utf8.equals(key, offset, view, keyStart(record), length)) {
+                return index;
+            }
+            index = (index + 1) & mask;  // Linear probing: try the next slot
+        }
+        return ~index;
+    }
+
+    // Checks that a byte slice lies inside its array
+    private static void checkSlice(byte[] key, int offset, int length) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+        if (offset < 0 || length < 0 || offset > key.length - length) {
+            throw new IllegalArgumentException("Key slice is out of bounds.");
+        }
+    }
+
+    /**
+     * Makes sure the arena has room for extra more bytes, doubling it as needed.
+     */
+    private void ensureRoom(int extra) {
+        long needed = (long) used + extra;
+        if (needed <= arena.length) {
+            return;
+        }
+        if (needed > MAXIMUM_ARENA_BYTES) {
+            throw new IllegalStateException("ArenaHashMap is full.");
+        }
+        long capacity = arena.length;
+        while (capacity < needed) {
+            capacity = Math.min(MAXIMUM_ARENA_BYTES, capacity * 2);
+        }
+        setArena(Arrays.copyOf(arena, (int) capacity));
+    }
+
+    // Appends a length prefix to the arena and returns the offset just after it
+    private int appendPrefix(int length) {
+        int p = used;
+        while ((length & ~0x7f) != 0) {
+            arena[p++] = (byte) ((length & 0x7f) | 0x80);
+            length >>>= 7;
+        }
+        arena[p++] = (byte) length;
+        return p;
+    }
+
+    // Stores a new entry in an empty slot, given the arena offset of its key
+    private void insert(int slot, int record, int hashCode, V value) {
+        offsets[slot] = record + 1;
+        hashes[slot] = hashCode;
+        values[slot] = value;
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Adds or updates a key-value pair in the map.
+     *
+     * @param key The key associated with the value.
+     * @param value The value to be stored.
+     * @throws IllegalArgumentException if the key is null or contains an unpaired surrogate.
+     * @throws IllegalStateException if the arena would grow past 2 GB.
+     */
+    public void put(CharSequence key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+        int hashCode = Utf8.hash(key);
+        int slot = findSlot(key, hashCode);
+        if (slot >= 0) {
+            values[slot] = value;  // Update the value if the key is found
+            return;
+        }
+        int length = Utf8.encodedLength(key);
+        ensureRoom(prefixLength(length) + length);
+        int record = used;
+        int start = appendPrefix(length);
+        used = start + Utf8.encode(key, view, start);
+        insert(~slot, record, hashCode, value);
+    }
+
+    /**
+     * Adds or updates a key-value pair, with the key given as UTF-8 bytes. The bytes are
+     * copied into the arena; the array can be reused afterwards.
+     *
+     * @param key The array holding the key's UTF-8 bytes.
+     * @param offset The index of the key's first byte.
+     * @param length The number of bytes in the key.
+     * @param value The value to be stored.
+     * @throws IllegalArgumentException if the key is null or the slice is out of bounds.
+     * @throws IllegalStateException if the arena would grow past 2 GB.
+     */
+    public void put(byte[] key, int offset, int length, V value) {
+        checkSlice(key, offset, length);
+        int hashCode = Utf8.hash(key, offset, length);
+        int slot = findSlot(key, offset, length, hashCode);
+        if (slot >= 0) {
+            values[slot] = value;  // Update the value if the key is found
+            return;
+        }
+        ensureRoom(prefixLength(length) + length);
+        int record = used;
+        int start = appendPrefix(length);
+        System.arraycopy(key, offset, arena, start, length);
+        used = start + length;
+        insert(~slot, record, hashCode, value);
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every entry into the new arrays.
+     * Cached hash codes are reused and the arena is not touched.
+     */
+    private void resize() {
+        if (offsets.length >= MyHashMap.MAXIMUM_CAPACITY) {
+            if (size >= offsets.length - 1) {
+                throw new IllegalStateException("ArenaHashMap is full.");
+            }
+            threshold = offsets.length - 1;
+            return;
+        }
+        int[] oldOffsets = offsets;
+        int[] oldHashes = hashes;
+        Object[] oldValues = values;
+        allocate(oldOffsets.length << 1);
+        int mask = offsets.length - 1;
+        for (int i = 0; i < oldOffsets.length; i++) {
+            if (oldOffsets[i] == 0) {
+                continue;
+            }
+            int index = oldHashes[i] & mask;
+            while (offsets[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            offsets[index] = oldOffsets[i];
+            hashes[index] = oldHashes[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key to check for in the map.
+     * @return true if the key exists, false otherwise.
+     */
+    public boolean contains(CharSequence key) {
+        if (key == null) {
+            return false;
+        }
+        return findSlot(key, Utf8.hash(key)) >= 0;
+    }
+
+    /**
+     * Checks if the map contains the key held as UTF-8 bytes in an array slice.
+     *
+     * @param key The array holding the key's UTF-8 bytes.
+     * @param offset The index of the key's first byte.
+     * @param length The number of bytes in the key.
+     * @return true if the key exists, false otherwise.
+     * @throws IllegalArgumentException if the key is null or the slice is out of bounds.
+     */
+    public boolean contains(byte[] key, int offset, int length) {
+        checkSlice(key, offset, length);
+        return findSlot(key, offset, length, Utf8.hash(key, offset, length)) >= 0;
+    }
+
+    /**
+     * Retrieves the value associated with the given key.
+     *
+     * @param key The key to retrieve the value for.
+     * @return The value associated with the key, or null if the key does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(CharSequence key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, Utf8.hash(key));
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    /**
+     * Retrieves the value associated with the key held as UTF-8 bytes in an array slice.
+     *
+     * @param key The array holding the key's UTF-8 bytes.
+     * @param offset The index of the key's first byte.
+     * @param length The number of bytes in the key.
+     * @return The value associated with the key, or null if the key does not exist.
+     * @throws IllegalArgumentException if the key is null or the slice is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(byte[] key, int offset, int length) {
+        checkSlice(key, offset, length);
+        int slot = findSlot(key, offset, length, Utf8.hash(key, offset, length));
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    /**
+     * Replaces the value for the given key, if the key exists.
+     *
+     * @param key The key whose associated value is to be replaced.
+     * @param value The new value to be associated with the key.
+     * @return The previous value associated with the key, or null if the key did not exist.
+     */
+    @SuppressWarnings("unchecked")
+    public V replace(CharSequence key, V value) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, Utf8.hash(key));
+        if (slot < 0) {
+            return null;  // Return null if the key is not found
+        }
+        V oldValue = (V) values[slot];
+        values[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in the map.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty (contains no key-value pairs).
+     *
+     * @return true if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the current number of slots in the table.
+     *
+     * @return The slot count, always a power of two.
+     */
+    public int capacity() {
+        return offsets.length;
+    }
+
+    /**
+     * Returns the number of arena bytes taken by the stored keys, including their length
+     * prefixes.
+     *
+     * @return The bytes used in the arena.
+     */
+    public int arenaBytes() {
+        return used;
+    }
+
+    /**
+     * Returns the keys of the map, decoded into Strings as they are iterated.
+     *
+     * @return An iterable over the keys, in slot order.
+     */
+    public Iterable<String> keys() {
+        return () -> new SlotIterator<String>() {
+            @Override
+            String element(int slot) {
+                int record = offsets[slot] - 1;
+                return Utf8.decode(view, keyStart(record), keyLength(record));
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator to iterate over the values stored in the map.
+     *
+     * @return An iterator for the map.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new SlotIterator<V>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            V element(int slot) {
+                return (V) values[slot];
+            }
+        };
+    }
+
+    /**
+     * SlotIterator walks the occupied slots in order; subclasses choose what each slot yields.
+     */
+    private abstract class SlotIterator<E> implements Iterator<E> {
+        // Index of the next occupied slot, or offsets.length if there is none
+        private int index = nextSlot(0);
+
+        // Returns the first occupied slot at or after from
+        private int nextSlot(int from) {
+            while (from < offsets.length && offsets[from] == 0) {
+                from++;
+            }
+            return from;
+        }
+
+        // Returns the element for an occupied slot
+        abstract E element(int slot);
+
+        @Override
+        public boolean hasNext() {
+            return index < offsets.length;
+        }
+
+        @Override
+        public E next() {
+            if (index >= offsets.length) {
+                throw new NoSuchElementException("No more elements to iterate.");
+            }
+            E element = element(index);
+            index = nextSlot(index + 1);
+            return element;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+// ArrayQueue.java
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * ArrayQueue class is a FIFO queue that implements the GenericList contract with a circular
+ * array (ring buffer) instead of linked nodes.
+ * Elements are written into a power-of-two array between a head and a tail index that wrap
+ * around, so enqueue and dequeue never allocate once the array is large enough. By default
+ * the array doubles when it is full; in bounded mode the queue instead refuses new elements
+ * once it holds its fixed capacity.
+ * Because there are no nodes, getHead() and getTail() always return null for this list.
+ */
+public class ArrayQueue<T> extends GenericList<T> {
+    // Number of slots used when no initial capacity is given
+    static final int DEFAULT_CAPACITY = 16;
+
+    // Ring buffer holding the elements; its length is always a power of two
+    private Object[] elements;
+    // Index of the front element
+    private int headIndex;
+    // Index of the slot the next element will be written to
+    private int tailIndex;
+    // Maximum number of elements in bounded mode, or -1 if the queue grows without limit
+    private final int bound;
+
+    // No-argument constructor for creating an empty, growable queue
+    public ArrayQueue() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Constructor for creating an empty queue.
+     * There is deliberately no single-int constructor, so that new ArrayQueue<>(10) on an
+     * ArrayQueue<Integer> adds the element 10, just like GenericQueue.
+     *
+     * @param capacity The number of elements to reserve room for; in bounded mode also the
+     *                 maximum number of elements.
+     * @param bounded true for a fixed-capacity queue that never grows.
+     * @throws IllegalArgumentException if the capacity is negative, or zero in bounded mode.
+     */
+    public ArrayQueue(int capacity, boolean bounded) {
+        if (capacity < 0 || (bounded && capacity == 0)) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.bound = bounded ? capacity : -1;
+        this.elements = new Object[Math.max(2, MyHashMap.tableSizeFor(capacity))];
+        this.headIndex = 0;
+        this.tailIndex = 0;
+        this.setLength(0);
+    }
+
+    /**
+     * Constructor for initializing a growable queue with one element.
+     *
+     * @param data The first element of the queue.
+     */
+    public ArrayQueue(T data) {
+        this();
+        add(data);
+    }
+
+    /**
+     * Returns true if the queue has a fixed capacity.
+     *
+     * @return true in bounded mode, false if the queue grows on demand.
+     */
+    public boolean isBounded() {
+        return bound >= 0;
+    }
+
+    /**
+     * Returns the number of elements the queue can hold without growing.
+     *
+     * @return The fixed capacity in bounded mode, otherwise the current array size.
+     */
+    public int capacity() {
+        return bound >= 0 ? bound : elements.length;
+    }
+
+    /**
+     * Adds an element to the back of the queue if there is room.
+     * A growable queue always has room; a bounded queue has room until it is full.
+     *
+     * @param data The data to be added.
+     * @return true if the element was added, false if a bounded queue is full.
+     */
+    public boolean offer(T data) {
+        int length = this.getLength();
+        if (length == bound) {
+            return false;  // Bounded mode: never grow past the fixed capacity
+        }
+        if (length == elements.length) {
+            grow();
+        }
+        elements[tailIndex] = data;
+        tailIndex = (tailIndex + 1) & (elements.length - 1);
+        this.setLength(length + 1);
+        return true;
+    }
+
+    /**
+     * Adds a new element to the back of the queue (FIFO).
+     *
+     * @param data The data to be added to the queue.
+     * @throws IllegalStateException if a bounded queue is full.
+     */
+    @Override
+    public void add(T data) {
+        if (!offer(data)) {
+            throw new IllegalStateException("Queue is full.");
+        }
+    }
+
+    // Doubles the ring buffer, unwrapping the elements so the front is at index 0
+    private void grow() {
+        int oldCapacity = elements.length;
+        if (oldCapacity >= MyHashMap.MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Queue is full.");
+        }
+        Object[] grown = new Object[oldCapacity << 1];
+        int frontPart = oldCapacity - headIndex;  // Elements from head to the end of the array
+        System.arraycopy(elements, headIndex, grown, 0, frontPart);
+        System.arraycopy(elements, 0, grown, frontPart, headIndex);
+        elements = grown;
+        headIndex = 0;
+        tailIndex = oldCapacity;
+    }
+
+    /**
+     * Deletes and returns the element from the front of the queue (FIFO).
+     *
+     * @return The data from the front of the queue, or null if the queue is empty.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T delete() {
+        int length = this.getLength();
+        if (length == 0) {
+            return null;  // Return null if the queue is empty
+        }
+        T data = (T) elements[headIndex];
+        elements[headIndex] = null;  // Drop the reference so the element can be collected
+        headIndex = (headIndex + 1) & (elements.length - 1);
+        this.setLength(length - 1);
+        return data;
+    }
+
+    /**
+     * Enqueues (adds) an element to the back of the queue.
+     *
+     * @param data The data to be added.
+     * @throws IllegalStateException if a bounded queue is full.
+     */
+    public void enqueue(T data) {
+        add(data);
+    }
+
+    /**
+     * Dequeues (removes) and returns the element from the front of the queue.
+     *
+     * @return The data from the front of the queue, or null if the queue is empty.
+     */
+    public T dequeue() {
+        return delete();
+    }
+
+    /**
+     * Returns the element at the front of the queue without removing it.
+     *
+     * @return The data at the front of the queue, or null if the queue is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return this.getLength() == 0 ? null : (T) elements[headIndex];
+    }
+
+    /**
+     * Returns the element at the back of the queue without removing it.
+     *
+     * @return The data at the back of the queue, or null if the queue is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T peekLast() {
+        return this.getLength() == 0 ? null : (T) elements[(tailIndex - 1) & (elements.length - 1)];
+    }
+
+    /**
+     * Deletes and returns the element from the back of the queue (the most recently added one).
+     *
+     * @return The data from the back of the queue, or null if the queue is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T pollLast() {
+        int length = this.getLength();
+        if (length == 0) {
+            return null;  // Return null if the queue is empty
+        }
+        tailIndex = (tailIndex - 1) & (elements.length - 1);
+        T data = (T) elements[tailIndex];
+        elements[tailIndex] = null;  // Drop the reference so the element can be collected
+        this.setLength(length - 1);
+        return data;
+    }
+
+    // Converts a position in the queue to an index in the ring buffer
+    private int slot(int index) {
+        return (headIndex + index) & (elements.length - 1);
+    }
+
+    /**
+     * Returns the element at the specified index in the queue, counting from the front.
+     * Unlike the linked GenericList, this takes constant time.
+     *
+     * @param index The index of the element to retrieve.
+     * @return The element at the specified index, or null if out of bounds.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= this.getLength()) {
+            return null;
+        }
+        return (T) elements[slot(index)];
+    }
+
+    /**
+     * Replaces the element at the specified index in the queue with the given element.
+     *
+     * @param index The index of the element to replace.
+     * @param element The new element to place at the specified index.
+     * @return The element previously at the specified index, or null if out of bounds.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        if (index < 0 || index >= this.getLength()) {
+            return null;
+        }
+        int i = slot(index);
+        T oldData = (T) elements[i];
+        elements[i] = element;
+        return oldData;
+    }
+
+    /**
+     * Prints the elements of the queue, one element per line.
+     * If the queue is empty, it prints "Empty List".
+     */
+    @Override
+    public void print() {
+        int length = this.getLength();
+        if (length == 0) {
+            System.out.println("Empty List");
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            System.out.println(elements[slot(i)]);
+        }
+    }
+
+    /**
+     * Dumps all the elements of the queue into an ArrayList and returns it.
+     * This method does not modify the queue.
+     *
+     * @return ArrayList containing all elements of the queue.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ArrayList<T> dumpList() {
+        int length = this.getLength();
+        ArrayList<T> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            list.add((T) elements[slot(i)]);
+        }
+        return list;
+    }
+
+    /**
+     * Returns an iterator from the front to the back of the queue.
+     *
+     * @return An iterator for the queue.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr(false);
+    }
+
+    /**
+     * Returns an iterator from the back to the front of the queue.
+     * It reads the ring buffer directly and does not copy any elements.
+     *
+     * @return A reverse iterator for the queue.
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new Itr(true);
+    }
+
+    /**
+     * Returns a Spliterator over the elements from the front to the back of the queue.
+     * It splits by position range, reading the ring buffer directly.
+     *
+     * @return A spliterator for the queue.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new RangeSpliterator(0, getLength());
+    }
+
+    // Spliterator over the queue positions [position, fence)
+    private final class RangeSpliterator implements Spliterator<T> {
+        private int position;     // Queue position of the next element to hand out
+        private final int fence;  // Queue position one past the last element of this part
+
+        RangeSpliterator(int position, int fence) {
+            this.position = position;
+            this.fence = fence;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (position >= fence) {
+                return false;
+            }
+            action.accept((T) elements[slot(position++)]);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (; position < fence; position++) {
+                action.accept((T) elements[slot(position)]);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int lo = position;
+            int mid = (lo + fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            position = mid;
+            return new RangeSpliterator(lo, mid);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    // Iterator over a snapshot of the head position and length, in either direction
+    private final class Itr implements Iterator<T> {
+        private final boolean reverse;  // true to walk from the back to the front
+        private int remaining;          // Number of elements not yet returned
+        private int position;           // Queue position of the next element to return
+
+        Itr(boolean reverse) {
+            this.reverse = reverse;
+            this.remaining = getLength();
+            this.position = reverse ? remaining - 1 : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException("No more elements to iterate.");
+            }
+            T data = (T) elements[slot(position)];
+            position += reverse ? -1 : 1;
+            remaining--;
+            return data;
+        }
+    }
+}
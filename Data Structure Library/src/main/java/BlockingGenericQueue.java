@@ -0,0 +1,497 @@
+// BlockingGenericQueue.java
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * BlockingGenericQueue class is a thread-safe, optionally bounded FIFO queue whose consumers
+ * can wait for elements and whose producers can wait for room, instead of busy-polling.
+ *
+ * It is a two-lock linked queue: producers only take the put lock (guarding the tail) and
+ * consumers only take the take lock (guarding the head), so one producer and one consumer
+ * never contend with each other. As in ConcurrentGenericQueue, the head is a dummy node
+ * whose successor holds the first element, and the element count is kept in an atomic
+ * integer shared by both sides.
+ *
+ * Waiting is done with ReentrantLock conditions rather than synchronized/wait, so on JDKs
+ * with virtual threads a blocked virtual thread parks and releases its carrier thread.
+ * Null elements are not allowed, since poll uses null to report an empty queue.
+ */
+public class BlockingGenericQueue<T> implements Iterable<T> {
+    // Maximum number of elements, or Integer.MAX_VALUE for an unbounded queue
+    private final int capacity;
+    // Number of elements, shared by producers and consumers
+    private final AtomicInteger count = new AtomicInteger();
+    // Dummy node in front of the first element (guarded by takeLock)
+    private BNode<T> head;
+    // Last node (guarded by putLock)
+    private BNode<T> last;
+
+    // Lock held by take, poll and drainTo
+    private final ReentrantLock takeLock = new ReentrantLock();
+    // Signaled when an element is added to an empty queue
+    private final Condition notEmpty = takeLock.newCondition();
+    // Lock held by put and offer
+    private final ReentrantLock putLock = new ReentrantLock();
+    // Signaled when an element is removed from a full queue
+    private final Condition notFull = putLock.newCondition();
+
+    /**
+     * Node class for the blocking queue. Unlike GenericList.Node it has no key or code,
+     * and it is only ever read or written while holding one of the queue's locks.
+     */
+    static final class BNode<E> {
+        E item;         // Element, or null for the dummy node
+        BNode<E> next;  // Next node, or null for the last node
+
+        BNode(E item) {
+            this.item = item;
+        }
+    }
+
+    // No-argument constructor for creating an empty, unbounded queue
+    public BlockingGenericQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor for creating an empty queue with a fixed capacity.
+     *
+     * @param capacity The maximum number of elements.
+     * @throws IllegalArgumentException if capacity is not positive.
+     */
+    public BlockingGenericQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.capacity = capacity;
+        head = new BNode<>(null);
+        last = head;
+    }
+
+    // Rejects null elements
+    private static void checkElement(Object data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Element cannot be null.");
+        }
+    }
+
+    // Links a node at the end of the queue (caller holds putLock)
+    private void linkLast(BNode<T> node) {
+        last.next = node;
+        last = node;
+    }
+
+    // Removes the first element (caller holds takeLock and the queue is not empty)
+    private T unlinkFirst() {
+        BNode<T> dummy = head;
+        BNode<T> first = dummy.next;
+        dummy.next = dummy;  // Self-link the old dummy to help the garbage collector
+        head = first;
+        T data = first.item;
+        first.item = null;   // first becomes the new dummy
+        return data;
+    }
+
+    // Wakes a waiting consumer; called by producers after adding to an empty queue
+    private void signalNotEmpty() {
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    // Wakes a waiting producer; called by consumers after removing from a full queue
+    private void signalNotFull() {
+        putLock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+    /**
+     * Adds an element to the back of the queue, waiting for room if the queue is full.
+     *
+     * @param data The data to be added.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     * @throws IllegalArgumentException if data is null.
+     */
+    public void put(T data) throws InterruptedException {
+        checkElement(data);
+        BNode<T> node = new BNode<>(data);
+        int before;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == capacity) {
+                notFull.await();
+            }
+            linkLast(node);
+            before = count.getAndIncrement();
+            if (before + 1 < capacity) {
+                notFull.signal();  // Still room: let the next waiting producer in
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (before == 0) {
+            signalNotEmpty();
+        }
+    }
+
+    /**
+     * Adds an element to the back of the queue if there is room, without waiting.
+     *
+     * @param data The data to be added.
+     * @return true if the element was added, false if the queue is full.
+     * @throws IllegalArgumentException if data is null.
+     */
+    public boolean offer(T data) {
+        checkElement(data);
+        if (count.get() == capacity) {
+            return false;
+        }
+        BNode<T> node = new BNode<>(data);
+        int before = -1;
+        putLock.lock();
+        try {
+            if (count.get() < capacity) {
+                linkLast(node);
+                before = count.getAndIncrement();
+                if (before + 1 < capacity) {
+                    notFull.signal();
+                }
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (before == 0) {
+            signalNotEmpty();
+        }
+        return before >= 0;
+    }
+
+    /**
+     * Adds an element to the back of the queue, waiting up to the given time for room.
+     *
+     * @param data The data to be added.
+     * @param timeout How long to wait, in units of unit.
+     * @param unit The unit of the timeout.
+     * @return true if the element was added, false if the time ran out first.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     * @throws IllegalArgumentException if data is null.
+     */
+    public boolean offer(T data, long timeout, TimeUnit unit) throws InterruptedException {
+        checkElement(data);
+        long nanos = unit.toNanos(timeout);
+        BNode<T> node = new BNode<>(data);
+        int before;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            linkLast(node);
+            before = count.getAndIncrement();
+            if (before + 1 < capacity) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (before == 0) {
+            signalNotEmpty();
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns the element at the front of the queue, waiting for one if the
+     * queue is empty.
+     *
+     * @return The data from the front of the queue.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public T take() throws InterruptedException {
+        T data;
+        int before;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                notEmpty.await();
+            }
+            data = unlinkFirst();
+            before = count.getAndDecrement();
+            if (before > 1) {
+                notEmpty.signal();  // More elements left: let the next waiting consumer in
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (before == capacity) {
+            signalNotFull();
+        }
+        return data;
+    }
+
+    /**
+     * Removes and returns the element at the front of the queue, without waiting.
+     *
+     * @return The data from the front of the queue, or null if the queue is empty.
+     */
+    public T poll() {
+        if (count.get() == 0) {
+            return null;
+        }
+        T data = null;
+        int before = -1;
+        takeLock.lock();
+        try {
+            if (count.get() > 0) {
+                data = unlinkFirst();
+                before = count.getAndDecrement();
+                if (before > 1) {
+                    notEmpty.signal();
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (before == capacity) {
+            signalNotFull();
+        }
+        return data;
+    }
+
+    /**
+     * Removes and returns the element at the front of the queue, waiting up to the given
+     * time for one to arrive.
+     *
+     * @param timeout How long to wait, in units of unit.
+     * @param unit The unit of the timeout.
+     * @return The data from the front of the queue, or null if the time ran out first.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        T data;
+        int before;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            data = unlinkFirst();
+            before = count.getAndDecrement();
+            if (before > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (before == capacity) {
+            signalNotFull();
+        }
+        return data;
+    }
+
+    /**
+     * Returns the element at the front of the queue without removing it.
+     *
+     * @return The data at the front of the queue, or null if the queue is empty.
+     */
+    public T peek() {
+        if (count.get() == 0) {
+            return null;
+        }
+        takeLock.lock();
+        try {
+            BNode<T> first = head.next;
+            return first == null ? null : first.item;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every available element and adds them to the given collection, front first.
+     *
+     * @param target The collection to transfer the elements to.
+     * @return The number of elements transferred.
+     * @throws IllegalArgumentException if target is null or is this queue.
+     */
+    public int drainTo(Collection<? super T> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes up to maxElements available elements and adds them to the given collection,
+     * in queue order, taking the take lock once for the whole batch. Never waits.
+     * If adding to the collection throws, the elements already transferred are still removed.
+     *
+     * @param target The collection to transfer the elements to.
+     * @param maxElements The maximum number of elements to transfer.
+     * @return The number of elements transferred.
+     * @throws IllegalArgumentException if target is null or is this queue.
+     */
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        if (target == null || target == this) {
+            throw new IllegalArgumentException("Cannot drain to a null collection or to the queue itself.");
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        boolean wasFull = false;
+        int transferred = 0;
+        takeLock.lock();
+        try {
+            int n = Math.min(maxElements, count.get());
+            BNode<T> dummy = head;
+            try {
+                while (transferred < n) {
+                    BNode<T> first = dummy.next;
+                    target.add(first.item);
+                    first.item = null;
+                    dummy.next = dummy;
+                    dummy = first;
+                    transferred++;
+                }
+            } finally {
+                if (transferred > 0) {
+                    head = dummy;
+                    wasFull = count.getAndAdd(-transferred) == capacity;
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (wasFull) {
+            signalNotFull();
+        }
+        return transferred;
+    }
+
+    /**
+     * Waits up to the given time for at least one element, then removes up to maxElements
+     * elements and adds them to the given collection. This lets a consumer handle elements in
+     * batches without busy-polling.
+     *
+     * @param target The collection to transfer the elements to.
+     * @param maxElements The maximum number of elements to transfer.
+     * @param timeout How long to wait for the first element, in units of unit.
+     * @param unit The unit of the timeout.
+     * @return The number of elements transferred (0 if the time ran out).
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     * @throws IllegalArgumentException if target is null or is this queue.
+     */
+    public int drainTo(Collection<? super T> target, int maxElements, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (target == null || target == this) {
+            throw new IllegalArgumentException("Cannot drain to a null collection or to the queue itself.");
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        T first = poll(timeout, unit);
+        if (first == null) {
+            return 0;
+        }
+        target.add(first);
+        return 1 + drainTo(target, maxElements - 1);
+    }
+
+    /**
+     * Adds an element to the back of the queue (as in GenericQueue), without waiting.
+     *
+     * @param data The data to be added.
+     * @throws IllegalStateException if the queue is full.
+     * @throws IllegalArgumentException if data is null.
+     */
+    public void enqueue(T data) {
+        if (!offer(data)) {
+            throw new IllegalStateException("Queue is full.");
+        }
+    }
+
+    /**
+     * Removes the element at the front of the queue (as in GenericQueue), without waiting.
+     *
+     * @return The data from the front of the queue, or null if the queue is empty.
+     */
+    public T dequeue() {
+        return poll();
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     *
+     * @return The number of elements.
+     */
+    public int getLength() {
+        return count.get();
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return true if the queue had no elements at the moment of the check.
+     */
+    public boolean isEmpty() {
+        return count.get() == 0;
+    }
+
+    /**
+     * Returns the maximum number of elements the queue can hold.
+     *
+     * @return The capacity, or Integer.MAX_VALUE for an unbounded queue.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns how many more elements can be added without waiting.
+     *
+     * @return The remaining capacity.
+     */
+    public int remainingCapacity() {
+        return capacity - count.get();
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the queue, from front to back.
+     * The snapshot is taken while holding both locks, so it is consistent, and later
+     * changes to the queue do not affect it.
+     *
+     * @return An iterator for the queue.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        ArrayList<T> snapshot;
+        putLock.lock();
+        takeLock.lock();
+        try {
+            snapshot = new ArrayList<>(count.get());
+            for (BNode<T> node = head.next; node != null; node = node.next) {
+                snapshot.add(node.item);
+            }
+        } finally {
+            takeLock.unlock();
+            putLock.unlock();
+        }
+        return snapshot.iterator();
+    }
+}
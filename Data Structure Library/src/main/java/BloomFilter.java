@@ -0,0 +1,108 @@
+// BloomFilter.java
+
+/**
+ * BloomFilter class is the blocked Bloom filter MyHashMap can keep in front of its table, so
+ * that most lookups of absent keys are answered without reading a bucket.
+ *
+ * The filter records the spread hash codes MyHashMap caches in its nodes. Its bits are split
+ * into 512-bit blocks, each the size of a typical 64-byte cache line: one part of a mixed
+ * hash picks the block, and all PROBES bits of the key are set and tested inside that block,
+ * so a lookup touches one cache line. With BITS_PER_KEY bits per expected key, the
+ * false-positive rate is about 1 to 2 percent when full.
+ *
+ * Like any Bloom filter it can say "maybe present" for an absent key but never "absent" for
+ * a present one. Keys cannot be taken out, so MyHashMap rebuilds the filter on every resize,
+ * which also drops the bits of removed keys.
+ */
+final class BloomFilter {
+    // Bits set per key
+    static final int PROBES = 6;
+    // Filter bits reserved per expected key
+    static final int BITS_PER_KEY = 10;
+    // Number of longs in one block (8 * 64 bits = 512 bits = 64 bytes)
+    private static final int BLOCK_LONGS = 8;
+    // Mask selecting a bit inside a block
+    private static final int BLOCK_BIT_MASK = BLOCK_LONGS * Long.SIZE - 1;
+    // Largest number of blocks (keeps the bit array under the Java array limit)
+    private static final int MAXIMUM_BLOCKS = 1 << 27;
+
+    // Filter bits, BLOCK_LONGS longs per block
+    private final long[] bits;
+    // Number of blocks minus one; the block count is a power of two
+    private final int blockMask;
+
+    /**
+     * Constructor creates an empty filter sized for the given number of keys.
+     *
+     * @param expectedKeys The number of keys the filter should hold at its target rate.
+     */
+    BloomFilter(int expectedKeys) {
+        long wanted = ((long) Math.max(1, expectedKeys) * BITS_PER_KEY + BLOCK_BIT_MASK) / (BLOCK_BIT_MASK + 1);
+        int blocks = MyHashMap.tableSizeFor((int) Math.min(MAXIMUM_BLOCKS, wanted));
+        bits = new long[blocks * BLOCK_LONGS];
+        blockMask = blocks - 1;
+    }
+
+    // Mixes a 32-bit hash code into 64 well-distributed bits (the SplitMix64 finalizer)
+    private static long mix(int hashCode) {
+        long z = hashCode * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Records a key.
+     *
+     * @param hashCode The spread hash code of the key.
+     */
+    void add(int hashCode) {
+        long z = mix(hashCode);
+        int base = ((int) (z >>> 32) & blockMask) * BLOCK_LONGS;  // The upper half picks the block
+        int a = (int) z;
+        int b = (a >>> 16) | 1;  // Odd step, so the probes differ
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (a + i * b) & BLOCK_BIT_MASK;
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks whether a key may have been recorded.
+     *
+     * @param hashCode The spread hash code of the key.
+     * @return false if the key was certainly never added, true if it may have been.
+     */
+    boolean mightContain(int hashCode) {
+        long z = mix(hashCode);
+        int base = ((int) (z >>> 32) & blockMask) * BLOCK_LONGS;
+        int a = (int) z;
+        int b = (a >>> 16) | 1;
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (a + i * b) & BLOCK_BIT_MASK;
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the fraction of filter bits that are set. The false-positive rate for a random
+     * absent key is roughly this fraction raised to the power PROBES.
+     *
+     * @return The fill ratio between 0 and 1.
+     */
+    double fill() {
+        long set = 0;
+        for (long word : bits) {
+            set += Long.bitCount(word);
+        }
+        return (double) set / ((long) bits.length * Long.SIZE);
+    }
+
+    // Returns the size of the filter in bytes
+    int sizeInBytes() {
+        return bits.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,395 @@
+// BoundedCache.java
+import java.util.Iterator;
+
+/**
+ * BoundedCache class is a size-bounded cache built from a MyHashMap and intrusive
+ * access-order lists.
+ * Every entry is a CacheNode (a GenericList.Node that also records its weight and queue)
+ * that sits in a GenericQueue ordered from least to most recently used; the MyHashMap maps
+ * each key to its node. A hit moves the node to the back of
+ * its queue and an eviction removes the node at the front, both in constant time.
+ *
+ * The cache is bounded either by its number of entries or, with a Weigher, by the total
+ * weight of its entries. Two eviction policies are available:
+ * - LRU evicts the least recently used entry.
+ * - TINY_LFU (W-TinyLFU) puts new entries in a small LRU window (1% of the capacity). An
+ *   entry that leaves the window is admitted to the main LRU area only if a FrequencySketch
+ *   says it is requested more often than the main area's eviction victim. This keeps
+ *   one-off scans from flushing popular entries. Every get and put of a key counts as a
+ *   request. The sketch is sized for the number of entries, and a weight-bounded cache
+ *   grows it as the number of entries it holds grows.
+ *
+ * Hits, misses and evictions are counted. Like MyHashMap, the cache is not thread-safe.
+ */
+public class BoundedCache<K, V> implements Iterable<V> {
+    /**
+     * Policy used to choose which entry to evict.
+     */
+    public enum Policy {
+        /** Evict the least recently used entry. */
+        LRU,
+        /** Admit entries through a small window and a frequency sketch (W-TinyLFU). */
+        TINY_LFU
+    }
+
+    // Weigher used when the cache is bounded by number of entries
+    private static final Weigher<Object, Object> SINGLETON_WEIGHER = (key, value) -> 1;
+
+    /**
+     * CacheNode class is a queue node that also records the entry's weight and whether it is
+     * in the admission window, so both can be read without searching the queues.
+     */
+    private static final class CacheNode<V> extends GenericList<V>.Node<V> {
+        int weight;        // Weight the weigher gave the entry
+        boolean inWindow;  // true while the node is in the admission window
+
+        CacheNode(GenericList<V> list, Object key, V data, int weight, boolean inWindow) {
+            list.super(key, data, 0);
+            this.weight = weight;
+            this.inWindow = inWindow;
+        }
+    }
+
+    // Maps each key to its node in one of the access-order queues
+    private final MyHashMap<K, CacheNode<V>> index;
+    // Main access-order queue, least recently used first
+    private GenericQueue<V> main;
+    // Admission window, least recently used first (TINY_LFU only)
+    private GenericQueue<V> window;
+    // Frequency estimates for admission (TINY_LFU only, null for LRU)
+    private final FrequencySketch sketch;
+    // Computes the weight of each entry
+    private final Weigher<? super K, ? super V> weigher;
+    // Eviction policy
+    private final Policy policy;
+    // Largest total weight the cache may hold
+    private final long maximumWeight;
+    // Largest total weight of the admission window
+    private final long windowMaximum;
+    // Total weight of the entries in the main queue
+    private long mainWeight;
+    // Total weight of the entries in the window queue
+    private long windowWeight;
+
+    // Number of lookups that found their key
+    private long hitCount;
+    // Number of lookups that did not find their key
+    private long missCount;
+    // Number of entries removed to respect the bound
+    private long evictionCount;
+
+    /**
+     * Constructor creates an LRU cache holding at most the given number of entries.
+     *
+     * @param maximumSize The maximum number of entries.
+     * @throws IllegalArgumentException if maximumSize is not positive.
+     */
+    public BoundedCache(long maximumSize) {
+        this(maximumSize, Policy.LRU);
+    }
+
+    /**
+     * Constructor creates a cache holding at most the given number of entries.
+     *
+     * @param maximumSize The maximum number of entries.
+     * @param policy The eviction policy.
+     * @throws IllegalArgumentException if maximumSize is not positive or policy is null.
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(long maximumSize, Policy policy) {
+        this(maximumSize, (Weigher<? super K, ? super V>) (Weigher<?, ?>) SINGLETON_WEIGHER, policy);
+    }
+
+    /**
+     * Constructor creates a cache bounded by the total weight of its entries.
+     *
+     * @param maximumWeight The maximum total weight.
+     * @param weigher Computes the weight of each entry.
+     * @param policy The eviction policy.
+     * @throws IllegalArgumentException if maximumWeight is not positive, or weigher or policy is null.
+     */
+    public BoundedCache(long maximumWeight, Weigher<? super K, ? super V> weigher, Policy policy) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive.");
+        }
+        if (weigher == null || policy == null) {
+            throw new IllegalArgumentException("Weigher and policy cannot be null.");
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.policy = policy;
+        this.index = new MyHashMap<>();
+        this.main = new GenericQueue<>();
+        if (policy == Policy.TINY_LFU) {
+            this.window = new GenericQueue<>();
+            this.windowMaximum = Math.max(1, maximumWeight / 100);
+            // A weight bound says little about the entry count, so start small and grow (see put)
+            this.sketch = new FrequencySketch(weigher == SINGLETON_WEIGHER ? maximumWeight : 0);
+        } else {
+            this.window = null;
+            this.windowMaximum = 0;
+            this.sketch = null;
+        }
+    }
+
+    // Computes and checks the weight of a new entry
+    private int weigh(K key, V value) {
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative.");
+        }
+        return weight;
+    }
+
+    /**
+     * Retrieves the value for the given key and marks the entry as most recently used.
+     *
+     * @param key The key to retrieve the value for.
+     * @return The value associated with the key, or null if the key is not cached.
+     */
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        CacheNode<V> node = index.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        touch(node);
+        return node.data;
+    }
+
+    // Moves a node to the most recently used end of its queue
+    private void touch(CacheNode<V> node) {
+        GenericQueue<V> queue = node.inWindow ? window : main;
+        if (queue.getTail() != node) {
+            queue.unlink(node);
+            queue.linkLast(node);
+        }
+    }
+
+    /**
+     * Adds or updates an entry and marks it as most recently used, evicting other entries
+     * if the cache grows past its bound. An entry heavier than the whole cache is not stored.
+     *
+     * @param key The key associated with the value.
+     * @param value The value to be stored.
+     * @throws IllegalArgumentException if the key is null or the weigher returns a negative weight.
+     */
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+        int weight = weigh(key, value);
+        if (sketch != null) {
+            sketch.increment(key);  // Updates are requests too
+        }
+        CacheNode<V> node = index.get(key);
+        if (node != null) {
+            // Update in place, adjusting the weight of the queue the node is in
+            if (node.inWindow) {
+                windowWeight += weight - node.weight;
+            } else {
+                mainWeight += weight - node.weight;
+            }
+            node.weight = weight;
+            node.data = value;
+            touch(node);
+        } else {
+            if (weight > maximumWeight) {
+                evictionCount++;  // Could never fit: treat it as evicted right away
+                return;
+            }
+            GenericQueue<V> queue = window != null ? window : main;
+            node = new CacheNode<>(queue, key, value, weight, window != null);
+            queue.linkLast(node);
+            if (window != null) {
+                windowWeight += weight;
+            } else {
+                mainWeight += weight;
+            }
+            index.put(key, node);
+            if (sketch != null) {
+                sketch.ensureCapacity(index.size());  // No-op unless a weighted cache outgrew it
+            }
+        }
+        evict();
+    }
+
+    // Removes entries until the cache is within its bound
+    private void evict() {
+        if (window == null) {
+            while (mainWeight > maximumWeight) {
+                evictNode(main, (CacheNode<V>) main.getHead());
+            }
+            return;
+        }
+        long mainMaximum = maximumWeight - windowMaximum;
+        while (windowWeight > windowMaximum) {
+            // The window's oldest entry becomes a candidate for the main area
+            CacheNode<V> candidate = (CacheNode<V>) window.getHead();
+            unlinkNode(window, candidate);
+            candidate.inWindow = false;
+            main.linkLast(candidate);
+            mainWeight += candidate.weight;
+            while (mainWeight > mainMaximum) {
+                CacheNode<V> victim = (CacheNode<V>) main.getHead();
+                if (victim == candidate
+                        || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                    evictNode(main, candidate);  // The candidate is not popular enough to displace the victim
+                    break;
+                }
+                evictNode(main, victim);
+            }
+        }
+        while (mainWeight > mainMaximum) {
+            evictNode(main, (CacheNode<V>) main.getHead());  // An update made a main entry heavier
+        }
+    }
+
+    // Removes an entry from its queue and from the index, counting it as an eviction
+    @SuppressWarnings("unchecked")
+    private void evictNode(GenericQueue<V> queue, CacheNode<V> node) {
+        unlinkNode(queue, node);
+        index.remove((K) node.key);
+        evictionCount++;
+    }
+
+    // Removes a node from a queue and subtracts its weight
+    private void unlinkNode(GenericQueue<V> queue, CacheNode<V> node) {
+        queue.unlink(node);
+        if (queue == window) {
+            windowWeight -= node.weight;
+        } else {
+            mainWeight -= node.weight;
+        }
+    }
+
+    /**
+     * Checks if the cache holds the given key, without counting a hit or miss and without
+     * changing the access order.
+     *
+     * @param key The key to check for.
+     * @return true if the key is cached, false otherwise.
+     */
+    public boolean contains(K key) {
+        return index.contains(key);
+    }
+
+    /**
+     * Removes the entry for the given key, if it is cached.
+     *
+     * @param key The key whose entry is to be removed.
+     * @return The value that was associated with the key, or null if the key was not cached.
+     */
+    public V remove(K key) {
+        CacheNode<V> node = index.remove(key);
+        if (node == null) {
+            return null;
+        }
+        unlinkNode(node.inWindow ? window : main, node);
+        return node.data;
+    }
+
+    /**
+     * Removes every entry from the cache. The statistics are kept.
+     */
+    public void clear() {
+        index.clear();
+        main = new GenericQueue<>();  // The old nodes are dropped together with their queues
+        if (window != null) {
+            window = new GenericQueue<>();
+        }
+        mainWeight = 0;
+        windowWeight = 0;
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     *
+     * @return The size of the cache.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the total weight of the entries in the cache. For a cache bounded by number of
+     * entries, this equals size().
+     *
+     * @return The total weight.
+     */
+    public long weightedSize() {
+        return mainWeight + windowWeight;
+    }
+
+    /**
+     * Returns the maximum total weight (or number of entries) the cache holds.
+     *
+     * @return The bound of the cache.
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Returns the eviction policy of the cache.
+     *
+     * @return The policy given at construction.
+     */
+    public Policy policy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of get calls that found their key.
+     *
+     * @return The hit count.
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of get calls that did not find their key.
+     *
+     * @return The miss count.
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries removed to keep the cache within its bound.
+     *
+     * @return The eviction count.
+     */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the fraction of get calls that found their key.
+     *
+     * @return The hit rate between 0 and 1, or 0 if get has not been called.
+     */
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * Returns an iterator over the cached values. Iterating does not change the access order.
+     *
+     * @return An iterator for the cache.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return index.stream().map(node -> node.data).iterator();
+    }
+}
@@ -0,0 +1,250 @@
+// ConcurrentGenericQueue.java
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentGenericQueue class is a thread-safe FIFO queue with the same enqueue/dequeue/
+ * iterator API as GenericQueue, built as a lock-free Michael-Scott linked queue.
+ * The head always points at a dummy node whose successor holds the first element.
+ * Producers append with a compare-and-set on the tail's next reference, and consumers
+ * remove with a compare-and-set on head, so no thread ever blocks another.
+ * Null elements are not allowed, since dequeue uses null to report an empty queue.
+ */
+public class ConcurrentGenericQueue<T> implements Iterable<T> {
+    // Dummy node in front of the first element
+    private volatile QNode<T> head;
+    // Last node, or a node close to the end when a producer has not yet swung it
+    private volatile QNode<T> tail;
+    // Approximate element count, updated without locks after each enqueue and dequeue
+    private final LongAdder length = new LongAdder();
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+    private static final VarHandle ITEM;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(ConcurrentGenericQueue.class, "head", QNode.class);
+            TAIL = lookup.findVarHandle(ConcurrentGenericQueue.class, "tail", QNode.class);
+            NEXT = lookup.findVarHandle(QNode.class, "next", QNode.class);
+            ITEM = lookup.findVarHandle(QNode.class, "item", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Node class for the concurrent queue. Unlike GenericList.Node it has no key or code,
+     * and its links are accessed through VarHandles so they can be updated atomically.
+     */
+    static final class QNode<E> {
+        volatile E item;        // Element, or null for the dummy node
+        volatile QNode<E> next; // Next node, or the node itself once it has been dequeued
+
+        QNode(E item) {
+            ITEM.set(this, item);  // Plain write; published by the CAS that links the node
+        }
+    }
+
+    // No-argument constructor for creating an empty queue
+    public ConcurrentGenericQueue() {
+        QNode<T> dummy = new QNode<>(null);
+        head = dummy;
+        tail = dummy;
+    }
+
+    /**
+     * Constructor for initializing a queue with one element.
+     *
+     * @param data The first element of the queue.
+     */
+    public ConcurrentGenericQueue(T data) {
+        this();
+        enqueue(data);
+    }
+
+    /**
+     * Enqueues (adds) an element to the back of the queue. Never blocks.
+     *
+     * @param data The data to be added.
+     * @throws IllegalArgumentException if data is null.
+     */
+    public void enqueue(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Element cannot be null.");
+        }
+        QNode<T> newNode = new QNode<>(data);
+        while (true) {
+            QNode<T> last = tail;
+            QNode<T> next = last.next;
+            if (last != tail) {
+                continue;  // Tail moved while reading it; start over
+            }
+            if (next == null) {
+                // Tail is the real last node: try to link the new node after it
+                if (NEXT.compareAndSet(last, null, newNode)) {
+                    TAIL.compareAndSet(this, last, newNode);  // Swing tail; others will fix it if this fails
+                    length.increment();
+                    return;
+                }
+            } else {
+                // Another producer linked a node but has not moved tail yet; help it along
+                TAIL.compareAndSet(this, last, next);
+            }
+        }
+    }
+
+    /**
+     * Dequeues (removes) and returns the element from the front of the queue. Never blocks.
+     *
+     * @return The data from the front of the queue, or null if the queue is empty.
+     */
+    public T dequeue() {
+        while (true) {
+            QNode<T> first = head;
+            QNode<T> last = tail;
+            QNode<T> next = first.next;
+            if (first != head) {
+                continue;  // Head moved while reading it; start over
+            }
+            if (first == last) {
+                if (next == null) {
+                    return null;  // Queue is empty
+                }
+                TAIL.compareAndSet(this, last, next);  // Tail is lagging behind; help it along
+            } else {
+                T data = next.item;
+                if (HEAD.compareAndSet(this, first, next)) {
+                    // next is the new dummy: drop its element and self-link the old dummy,
+                    // so neither keeps garbage reachable from nodes still in the queue
+                    ITEM.setRelease(next, null);
+                    NEXT.setRelease(first, first);
+                    length.decrement();
+                    return data;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the element at the front of the queue without removing it.
+     *
+     * @return The data at the front of the queue, or null if the queue is empty.
+     */
+    public T peek() {
+        while (true) {
+            QNode<T> first = head;
+            QNode<T> next = first.next;
+            if (next == null) {
+                return null;
+            }
+            T data = next.item;
+            if (first == head && data != null) {
+                return data;
+            }
+        }
+    }
+
+    /**
+     * Adds an element to the back of the queue (alias for enqueue, as in GenericQueue).
+     *
+     * @param data The data to be added.
+     */
+    public void add(T data) {
+        enqueue(data);
+    }
+
+    /**
+     * Removes the element at the front of the queue (alias for dequeue, as in GenericQueue).
+     *
+     * @return The data from the front of the queue, or null if the queue is empty.
+     */
+    public T delete() {
+        return dequeue();
+    }
+
+    /**
+     * Returns an estimate of the number of elements in the queue.
+     * The count is exact when no other thread is modifying the queue.
+     *
+     * @return The approximate number of elements, never negative.
+     */
+    public int getLength() {
+        long n = length.sum();
+        return n <= 0 ? 0 : (n >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n);
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return true if the queue had no elements at the moment of the check.
+     */
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+
+    /**
+     * Returns a weakly consistent iterator from head to tail.
+     * It never throws ConcurrentModificationException, returns each element at most once,
+     * and may or may not reflect elements added or removed after it was created.
+     *
+     * @return An iterator for the queue.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    // Weakly consistent iterator that restarts from head if it lands on a dequeued node
+    private final class Itr implements Iterator<T> {
+        private QNode<T> nextNode;  // Node holding the element returned by the next call to next()
+        private T nextItem;         // Element of nextNode, read once so it cannot change under us
+
+        Itr() {
+            advance(head);
+        }
+
+        // Moves to the first node after p that still holds an element
+        private void advance(QNode<T> p) {
+            while (true) {
+                QNode<T> q = p.next;
+                if (q == null) {
+                    nextNode = null;
+                    nextItem = null;
+                    return;
+                }
+                if (q == p) {
+                    p = head;  // p was dequeued and self-linked; continue from the current head
+                    continue;
+                }
+                T item = q.item;
+                if (item != null) {
+                    nextNode = q;
+                    nextItem = item;
+                    return;
+                }
+                p = q;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public T next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException("No more elements to iterate.");
+            }
+            T data = nextItem;
+            advance(nextNode);
+            return data;
+        }
+    }
+}
@@ -0,0 +1,464 @@
+// DurableQueue.java
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * DurableQueue class is a FIFO queue whose elements survive a crash or restart.
+ * Enqueued elements are encoded with a ValueCodec and appended to memory-mapped segment
+ * files in a directory; the consumer position is kept in a small memory-mapped checkpoint
+ * file. Reopening the directory restores every element that was not dequeued.
+ *
+ * Appending is a memory copy into the mapped segment, with no system call. Durability comes
+ * from sync, which forces the written pages and the checkpoint to disk. With a sync batch of
+ * n, sync runs automatically after every n enqueues (group commit), so the cost of one
+ * fsync is shared by a whole batch. Elements enqueued after the last sync may be lost in a
+ * crash, and elements dequeued after it are delivered again after a restart.
+ *
+ * Segment file layout:
+ *   header:  [int magic][long sequence]
+ *   records: [int length][int checksum][payload bytes]
+ * The checksum is a CRC32 of the segment's sequence number and the payload, so a torn
+ * record, or a stale record left by the file's previous use, ends the queue on recovery.
+ * A length of -1 marks the end of a segment whose remaining space was too small.
+ * A fully consumed segment stays on disk, untouched, until the next sync has forced a
+ * checkpoint past it: until then a crash restarts from the old checkpoint, which still
+ * needs the segment's records. After that sync it becomes a spare and is reused for a new
+ * segment instead of deleting and re-creating a file.
+ *
+ * Segment and checkpoint files are accessed through MappedByteBuffers, and Java offers no
+ * supported way to unmap one. close drops every reference the queue holds, but each
+ * mapping is only released once its buffer is garbage collected; until then the files stay
+ * mapped, and on Windows they cannot be deleted or truncated.
+ *
+ * Like GenericQueue, the queue is not thread-safe.
+ */
+public class DurableQueue<T> implements Closeable {
+    // Segment size used when none is given
+    static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    // First int of every segment file
+    static final int MAGIC = 0x44515347;
+    // Bytes before the first record of a segment (magic, sequence)
+    static final int SEGMENT_HEADER = 12;
+    // Bytes before the payload of a record (length, checksum)
+    static final int RECORD_HEADER = 8;
+    // Length marking the end of a segment's records
+    private static final int END_OF_SEGMENT = -1;
+    // Number of consumed segments kept for reuse
+    private static final int MAX_SPARES = 2;
+    // Name of the checkpoint file
+    private static final String CHECKPOINT = "checkpoint";
+    // Extension of segment files
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * Segment class is one mapped segment file.
+     */
+    private static final class Segment {
+        final long sequence;          // Position of the segment in the queue's history
+        final Path path;              // File backing the segment
+        final MappedByteBuffer data;  // Mapping of the whole file
+
+        Segment(long sequence, Path path, MappedByteBuffer data) {
+            this.sequence = sequence;
+            this.path = path;
+            this.data = data;
+        }
+    }
+
+    // Directory holding the segment and checkpoint files
+    private final Path directory;
+    // Encodes and decodes elements
+    private final ValueCodec<T> codec;
+    // Size of each segment file in bytes
+    private final int segmentBytes;
+    // Number of enqueues after which sync runs automatically (0 for manual sync only)
+    private final int syncBatch;
+    // Segments holding unconsumed elements, oldest first; the last one is being written
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    // Consumed segment files the durable checkpoint may still point into, kept until the next sync
+    private final ArrayDeque<Path> consumed = new ArrayDeque<>();
+    // Consumed segment files waiting to be reused
+    private final ArrayDeque<Path> spares = new ArrayDeque<>();
+    // Mapped checkpoint: [long read sequence][int read offset]; null once closed
+    private MappedByteBuffer checkpoint;
+    // Reused for record checksums
+    private final CRC32 crc = new CRC32();
+    // Offset of the next record to read in the first segment
+    private int readOffset;
+    // Offset of the next record to write in the last segment
+    private int writeOffset;
+    // Number of elements in the queue
+    private int length;
+    // Number of enqueues since the last sync
+    private long unsynced;
+    // Set once close has been called
+    private boolean closed;
+
+    /**
+     * Constructor opens (or creates) a queue in the given directory with the default segment
+     * size, syncing only when sync or close is called.
+     *
+     * @param directory The directory holding the queue's files; created if missing.
+     * @param codec Encodes and decodes the elements.
+     * @throws IOException if the files cannot be created or read.
+     */
+    public DurableQueue(Path directory, ValueCodec<T> codec) throws IOException {
+        this(directory, codec, DEFAULT_SEGMENT_BYTES, 0);
+    }
+
+    /**
+     * Constructor opens (or creates) a queue in the given directory. Elements left by a
+     * previous run are recovered up to the first torn or missing record.
+     *
+     * @param directory The directory holding the queue's files; created if missing.
+     * @param codec Encodes and decodes the elements.
+     * @param segmentBytes The size of each segment file; must be the same as when the queue was created.
+     * @param syncBatch The number of enqueues after which sync runs automatically, or 0 to sync manually.
+     * @throws IOException if the files cannot be created or read.
+     * @throws IllegalArgumentException if an argument is null or out of range.
+     */
+    public DurableQueue(Path directory, ValueCodec<T> codec, int segmentBytes, int syncBatch) throws IOException {
+        if (directory == null || codec == null) {
+            throw new IllegalArgumentException("Directory and codec cannot be null.");
+        }
+        if (segmentBytes <= SEGMENT_HEADER + RECORD_HEADER || syncBatch < 0) {
+            throw new IllegalArgumentException("Segment size or sync batch out of range.");
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.segmentBytes = segmentBytes;
+        this.syncBatch = syncBatch;
+        Files.createDirectories(directory);
+        this.checkpoint = map(directory.resolve(CHECKPOINT), Long.BYTES + Integer.BYTES);
+        recover();
+    }
+
+    // Maps a file of the given size for reading and writing, creating or extending it as needed
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);  // Stays valid after the channel closes
+        }
+    }
+
+    // Returns the path of the segment file with the given sequence number
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Rebuilds the in-memory state from the files: segments before the checkpoint become
+     * spares, the rest are mapped, and their records are counted until the first invalid one.
+     */
+    private void recover() throws IOException {
+        long readSequence = checkpoint.getLong(0);
+        readOffset = Math.max(SEGMENT_HEADER, checkpoint.getInt(Long.BYTES));
+        List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                sequences.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        Collections.sort(sequences);
+        for (long sequence : sequences) {
+            Path path = segmentPath(sequence);
+            if (Files.size(path) != segmentBytes) {
+                Files.delete(path);  // Written with another segment size: cannot be reused
+                continue;
+            }
+            if (sequence < readSequence) {
+                recycle(path);
+                continue;
+            }
+            MappedByteBuffer data = map(path, segmentBytes);
+            if (data.getInt(0) != MAGIC || data.getLong(4) != sequence) {
+                recycle(path);  // Never initialized, or left over from an earlier use
+                continue;
+            }
+            if (!segments.isEmpty() && segments.peekLast().sequence != sequence - 1) {
+                recycle(path);  // Not contiguous with the queue: cannot hold live records
+                continue;
+            }
+            segments.addLast(new Segment(sequence, path, data));
+        }
+        if (segments.isEmpty() || segments.peekFirst().sequence != readSequence) {
+            readOffset = SEGMENT_HEADER;  // The checkpointed segment is gone: nothing was left to read
+        }
+        // Count the records from the read position to the first invalid one
+        writeOffset = SEGMENT_HEADER;
+        int offset = readOffset;
+        Segment last = null;
+        for (Segment segment : segments) {
+            while (true) {
+                int recordEnd = validRecordEnd(segment, offset);
+                if (recordEnd < 0) {
+                    break;
+                }
+                length++;
+                offset = recordEnd;
+            }
+            last = segment;
+            writeOffset = offset;
+            if (!endsSegment(segment, offset)) {
+                break;  // The queue ends inside this segment; later ones are unreachable
+            }
+            offset = SEGMENT_HEADER;
+        }
+        while (!segments.isEmpty() && segments.peekLast() != last) {
+            recycle(segments.pollLast().path);
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(newSegment(readSequence));
+            readOffset = SEGMENT_HEADER;
+            writeOffset = SEGMENT_HEADER;
+        } else if (endsSegment(last, writeOffset)) {
+            segments.addLast(newSegment(last.sequence + 1));  // Writing resumes in a fresh segment
+            writeOffset = SEGMENT_HEADER;
+        }
+        saveCheckpoint();
+    }
+
+    // Returns the end of a valid record at offset, or -1 if there is none
+    private int validRecordEnd(Segment segment, int offset) {
+        ByteBuffer data = segment.data;
+        if (offset + RECORD_HEADER > segmentBytes) {
+            return -1;
+        }
+        int size = data.getInt(offset);
+        if (size < 0 || offset + RECORD_HEADER + (long) size > segmentBytes) {
+            return -1;
+        }
+        if (data.getInt(offset + 4) != checksum(segment, offset + RECORD_HEADER, size)) {
+            return -1;
+        }
+        return offset + RECORD_HEADER + size;
+    }
+
+    // Checks whether a segment's records end at offset because the writer moved to the next segment
+    private boolean endsSegment(Segment segment, int offset) {
+        return offset + RECORD_HEADER > segmentBytes || segment.data.getInt(offset) == END_OF_SEGMENT;
+    }
+
+    // CRC32 of a segment's sequence number followed by a payload
+    private int checksum(Segment segment, int offset, int size) {
+        crc.reset();
+        long sequence = segment.sequence;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (sequence >>> shift));
+        }
+        ByteBuffer payload = segment.data.duplicate();
+        payload.limit(offset + size).position(offset);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    // Keeps a consumed segment file for reuse, or deletes it if enough spares are kept
+    private void recycle(Path path) throws IOException {
+        if (spares.size() < MAX_SPARES) {
+            spares.addLast(path);
+        } else {
+            Files.delete(path);
+        }
+    }
+
+    // Creates the segment with the given sequence number, reusing a spare file if there is one
+    private Segment newSegment(long sequence) throws IOException {
+        Path path = segmentPath(sequence);
+        if (!spares.remove(path)) {
+            Path spare = spares.pollFirst();
+            if (spare != null) {
+                Files.move(spare, path);
+            }
+        }
+        MappedByteBuffer data = map(path, segmentBytes);
+        data.putInt(SEGMENT_HEADER, 0);  // A stale record here would fail its checksum, but be tidy
+        data.putLong(4, sequence);
+        data.putInt(0, MAGIC);
+        return new Segment(sequence, path, data);
+    }
+
+    // Records the read position in the mapped checkpoint file (made durable by sync)
+    private void saveCheckpoint() {
+        checkpoint.putLong(0, segments.peekFirst().sequence);
+        checkpoint.putInt(Long.BYTES, readOffset);
+    }
+
+    // Throws if the queue has been closed
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Queue is closed.");
+        }
+    }
+
+    /**
+     * Appends an element to the end of the queue.
+     *
+     * @param data The element to add.
+     * @throws IllegalArgumentException if data is null or its encoding does not fit in a segment.
+     * @throws IllegalStateException if the queue has been closed.
+     * @throws UncheckedIOException if a new segment file cannot be created or a sync fails.
+     */
+    public void enqueue(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null.");
+        }
+        ensureOpen();
+        int size = codec.size(data);
+        if ((long) SEGMENT_HEADER + RECORD_HEADER + size > segmentBytes) {
+            throw new IllegalArgumentException("Element is larger than a segment.");
+        }
+        try {
+            Segment segment = segments.peekLast();
+            if ((long) writeOffset + RECORD_HEADER + size > segmentBytes) {
+                if (writeOffset + RECORD_HEADER <= segmentBytes) {
+                    segment.data.putInt(writeOffset, END_OF_SEGMENT);
+                }
+                // Always force: sync only forces the last segment, and without a durable end
+                // marker recovery would stop here and drop the segments written after it
+                segment.data.force();
+                segment = newSegment(segment.sequence + 1);
+                segments.addLast(segment);
+                writeOffset = SEGMENT_HEADER;
+            }
+            codec.write(data, segment.data, writeOffset + RECORD_HEADER);
+            segment.data.putInt(writeOffset + 4, checksum(segment, writeOffset + RECORD_HEADER, size));
+            segment.data.putInt(writeOffset, size);
+            writeOffset += RECORD_HEADER + size;
+            if (writeOffset + RECORD_HEADER <= segmentBytes) {
+                segment.data.putInt(writeOffset, 0);  // Keep a stale record from following this one
+            }
+            length++;
+            unsynced++;
+            if (syncBatch > 0 && unsynced >= syncBatch) {
+                sync();  // Group commit: one force for the whole batch
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the element at the front of the queue without removing it.
+     *
+     * @return The first element, or null if the queue is empty.
+     * @throws IllegalStateException if the queue has been closed.
+     */
+    public T peek() {
+        ensureOpen();
+        if (length == 0) {
+            return null;
+        }
+        skipFinishedSegment();
+        Segment segment = segments.peekFirst();
+        return codec.read(segment.data, readOffset + RECORD_HEADER, segment.data.getInt(readOffset));
+    }
+
+    /**
+     * Removes and returns the element at the front of the queue. The new read position is
+     * recorded in the checkpoint and becomes durable at the next sync.
+     *
+     * @return The first element, or null if the queue is empty.
+     * @throws IllegalStateException if the queue has been closed.
+     */
+    public T dequeue() {
+        T data = peek();
+        if (data == null) {
+            return null;
+        }
+        readOffset += RECORD_HEADER + segments.peekFirst().data.getInt(readOffset);
+        length--;
+        saveCheckpoint();
+        return data;
+    }
+
+    // Moves the read position to the next segment once the first one has no more records
+    private void skipFinishedSegment() {
+        while (segments.size() > 1 && endsSegment(segments.peekFirst(), readOffset)) {
+            consumed.addLast(segments.pollFirst().path);  // Recycled by the next sync, not before
+            readOffset = SEGMENT_HEADER;
+            saveCheckpoint();
+        }
+    }
+
+    /**
+     * Forces every enqueued element and the consumer checkpoint to disk. Segments consumed
+     * since the previous sync are recycled only after the checkpoint has been forced.
+     *
+     * @throws IllegalStateException if the queue has been closed.
+     * @throws UncheckedIOException if a consumed segment file cannot be recycled.
+     */
+    public void sync() {
+        ensureOpen();
+        segments.peekLast().data.force();
+        checkpoint.force();
+        unsynced = 0;
+        try {
+            while (!consumed.isEmpty()) {
+                recycle(consumed.peekFirst());
+                consumed.pollFirst();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     *
+     * @return The length of the queue.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return true if the queue has no elements, false otherwise.
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns the number of segment files currently holding elements.
+     *
+     * @return The number of live segments (at least one while open).
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Syncs the queue and releases it. Later calls have no effect. The queue drops its
+     * references to the mapped files, which are unmapped when the buffers are garbage
+     * collected (see the class comment).
+     *
+     * @throws UncheckedIOException if a consumed segment file cannot be recycled.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        sync();
+        closed = true;
+        segments.clear();
+        spares.clear();
+        checkpoint = null;
+    }
+}
@@ -0,0 +1,132 @@
+// FrequencySketch.java
+
+/**
+ * FrequencySketch class estimates how often keys have been seen, using a count-min sketch
+ * of 4-bit counters. BoundedCache uses it for TinyLFU admission: a new entry only displaces
+ * an old one if it has been requested more often.
+ *
+ * Each key maps to four counters, one in each quarter of a 64-bit word, and its frequency
+ * is the smallest of the four, so collisions can only overestimate it. Counters stop at 15.
+ * After a sample of 10 increments per counter word, every counter is halved, so the sketch
+ * forgets old popularity and follows changes in the workload.
+ *
+ * A sketch can grow with its cache (see ensureCapacity). Word indexes are the low bits of a
+ * hash, so doubling the table copies every word into both of its new positions, and every
+ * key keeps the estimate it had before.
+ */
+final class FrequencySketch {
+    // Seeds for the four hash functions (large odd constants)
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    // Mask that clears the bit shifted in from the neighboring counter when halving
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    // Largest number of counter words
+    private static final int MAXIMUM_WORDS = 1 << 24;
+
+    // Counter words; each holds sixteen 4-bit counters
+    private long[] table;
+    // Number of increments after which every counter is halved
+    private int sampleSize;
+    // Increments since the last halving
+    private int additions;
+
+    /**
+     * Constructor creates a sketch sized for a cache of the given number of entries.
+     *
+     * @param expectedEntries The number of entries the cache is expected to hold.
+     */
+    FrequencySketch(long expectedEntries) {
+        table = new long[wordsFor(expectedEntries)];
+        sampleSize = 10 * table.length;
+    }
+
+    // Returns the number of counter words for the given number of entries (a power of two)
+    private static int wordsFor(long expectedEntries) {
+        return MyHashMap.tableSizeFor((int) Math.max(16, Math.min(expectedEntries, MAXIMUM_WORDS)));
+    }
+
+    /**
+     * Grows the sketch, if needed, to suit a cache of the given number of entries. Estimates
+     * are kept: each doubling copies every counter word into both halves of the new table.
+     *
+     * @param expectedEntries The number of entries the cache now holds or expects.
+     */
+    void ensureCapacity(long expectedEntries) {
+        int words = wordsFor(expectedEntries);
+        if (words <= table.length) {
+            return;
+        }
+        long[] grown = new long[words];
+        for (int i = 0; i < words; i += table.length) {
+            System.arraycopy(table, 0, grown, i, table.length);
+        }
+        table = grown;
+        sampleSize = 10 * words;
+    }
+
+    /**
+     * Returns the number of counter words, which bounds how many keys can be told apart.
+     *
+     * @return The table size, a power of two.
+     */
+    int capacity() {
+        return table.length;
+    }
+
+    // Computes the word index for one of the four hash functions
+    private int indexOf(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h += h >>> 32;
+        return (int) h & (table.length - 1);
+    }
+
+    /**
+     * Returns the estimated number of times the key has been recorded (at most 15).
+     *
+     * @param key The key to look up.
+     * @return The estimated frequency.
+     */
+    int frequency(Object key) {
+        int hash = MyHashMap.hash(key);
+        int start = (hash & 3) << 2;  // Which group of four counters within each word
+        int frequency = Integer.MAX_VALUE;
+        for (int depth = 0; depth < 4; depth++) {
+            int offset = (start + depth) << 2;
+            int count = (int) ((table[indexOf(hash, depth)] >>> offset) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records one occurrence of the key.
+     *
+     * @param key The key to record.
+     */
+    void increment(Object key) {
+        int hash = MyHashMap.hash(key);
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int depth = 0; depth < 4; depth++) {
+            int index = indexOf(hash, depth);
+            int offset = (start + depth) << 2;
+            if (((table[index] >>> offset) & 0xfL) != 0xfL) {
+                table[index] += 1L << offset;  // Saturate at 15 instead of overflowing
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    // Halves every counter so that old popularity fades
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+}
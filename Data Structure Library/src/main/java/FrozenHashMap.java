@@ -0,0 +1,231 @@
+// FrozenHashMap.java
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * FrozenHashMap class is an immutable, read-optimized copy of a MyHashMap, created with
+ * MyHashMap.freeze. It is meant for data that is loaded once and then only looked up.
+ *
+ * Entries are sorted by bucket into three dense parallel arrays (keys, values and cached
+ * hash codes), and an offsets array gives the range of each bucket, so there are no nodes,
+ * no queues and no empty slots. A lookup reads one offset pair and scans at most
+ * maxProbes() consecutive entries. While freezing, the bucket count is doubled (up to
+ * MAX_BUCKET_FACTOR times the entry count) while some bucket is longer than TARGET_PROBES.
+ *
+ * TARGET_PROBES is a goal, not a guarantee. Keys whose full hash codes are equal always
+ * share a bucket, however many buckets there are, and a badly distributed hash can keep
+ * buckets long until the doubling stops. maxProbes() reports the bound actually measured
+ * for this copy, and callers that need a hard limit should check it after freezing.
+ *
+ * All fields are final and never change after construction, so a FrozenHashMap can be
+ * read by any number of threads without synchronization.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public final class FrozenHashMap<K, V> implements Iterable<V> {
+    // Longest bucket the bucket count tries to stay within (a goal, not a guarantee)
+    static final int TARGET_PROBES = 8;
+    // Largest number of buckets per entry tried while looking for a short longest bucket
+    static final int MAX_BUCKET_FACTOR = 8;
+
+    // Number of buckets minus one; the bucket count is a power of two
+    private final int mask;
+    // Entries of bucket b are at indexes offsets[b] (inclusive) to offsets[b + 1] (exclusive)
+    private final int[] offsets;
+    // Spread hash codes of the keys, compared before calling equals
+    private final int[] hashes;
+    // Keys of the entries, grouped by bucket
+    private final Object[] keys;
+    // Values of the entries, at the same index as their key
+    private final Object[] values;
+    // Strategy the source map hashed and compared keys with, or null for their own methods
+    private final HashingStrategy<? super K> strategy;
+    // Number of entries in the longest bucket
+    private final int maxProbes;
+
+    /**
+     * Constructor copies every entry of a map, reusing the hash codes it cached.
+     * Used by MyHashMap.freeze, which completes any incremental resize first.
+     *
+     * @param source The map to copy.
+     */
+    FrozenHashMap(MyHashMap<K, V> source) {
+        int size = source.size();
+        strategy = source.strategy();
+        hashes = new int[size];
+        keys = new Object[size];
+        values = new Object[size];
+
+        // Gather the entries in table order
+        int[] codes = new int[size];
+        Object[] sourceKeys = new Object[size];
+        Object[] sourceValues = new Object[size];
+        int n = 0;
+        for (int i = 0; i < source.capacity(); i++) {
+            GenericQueue<V> queue = source.bucketAt(i);
+            if (queue == null) {
+                continue;
+            }
+            for (GenericList<V>.Node<V> node = queue.getHead(); node != null; node = node.next) {
+                codes[n] = node.code;
+                sourceKeys[n] = node.key;
+                sourceValues[n] = node.data;
+                n++;
+            }
+        }
+
+        // Double the bucket count until the longest bucket is short enough
+        int buckets = MyHashMap.tableSizeFor(Math.max(1, size));
+        int limit = MyHashMap.tableSizeFor((int) Math.min(MyHashMap.MAXIMUM_CAPACITY, (long) size * MAX_BUCKET_FACTOR));
+        int[] counts = countBuckets(codes, buckets);
+        while (longest(counts) > TARGET_PROBES && buckets < limit) {
+            buckets <<= 1;
+            counts = countBuckets(codes, buckets);
+        }
+        mask = buckets - 1;
+        maxProbes = longest(counts);
+
+        // Counting sort: turn the bucket counts into offsets, then place each entry
+        offsets = new int[buckets + 1];
+        for (int b = 0; b < buckets; b++) {
+            offsets[b + 1] = offsets[b] + counts[b];
+        }
+        int[] next = new int[buckets];
+        System.arraycopy(offsets, 0, next, 0, buckets);
+        for (int i = 0; i < size; i++) {
+            int slot = next[codes[i] & mask]++;
+            hashes[slot] = codes[i];
+            keys[slot] = sourceKeys[i];
+            values[slot] = sourceValues[i];
+        }
+    }
+
+    // Counts the entries that fall into each of the given number of buckets
+    private static int[] countBuckets(int[] codes, int buckets) {
+        int[] counts = new int[buckets];
+        for (int code : codes) {
+            counts[code & (buckets - 1)]++;
+        }
+        return counts;
+    }
+
+    // Returns the largest bucket count
+    private static int longest(int[] counts) {
+        int max = 0;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    // Returns the spread hash code of a key, hashing it the way the source map did
+    private int hashOf(K key) {
+        return MyHashMap.spread(strategy == null ? key.hashCode() : strategy.hashCode(key));
+    }
+
+    // Returns the index of the entry holding the given key, or -1 if it is not in the map
+    @SuppressWarnings("unchecked")
+    private int indexOf(K key) {
+        if (key == null) {
+            return -1;
+        }
+        int hashCode = hashOf(key);
+        int bucket = hashCode & mask;
+        for (int i = offsets[bucket], end = offsets[bucket + 1]; i < end; i++) {
+            if (hashes[i] == hashCode
+                    && (strategy == null ? key.equals(keys[i]) : strategy.equals(key, (K) keys[i]))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key to check.
+     * @return true if the key exists, false otherwise.
+     */
+    public boolean contains(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Retrieves the value associated with the given key.
+     *
+     * @param key The key whose value is to be retrieved.
+     * @return The value associated with the key, or null if the key does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Checks if the map is empty (contains no key-value pairs).
+     *
+     * @return true if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Returns the number of buckets chosen when the map was frozen.
+     *
+     * @return The bucket count, a power of two.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the worst-case number of entries a lookup compares against in this copy: the
+     * length of its longest bucket, measured when the map was frozen. It is usually at most
+     * TARGET_PROBES, but can be larger when many keys share a hash code.
+     *
+     * @return The largest number of probes any get or contains makes.
+     */
+    public int maxProbes() {
+        return maxProbes;
+    }
+
+    /**
+     * Returns an iterator over the values stored in the map, in bucket order.
+     * The map cannot change, so the iterator does not support remove.
+     *
+     * @return An iterator for the map.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            // Index of the next value to return
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < values.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (next >= values.length) {
+                    throw new NoSuchElementException("No more elements to iterate.");
+                }
+                return (V) values[next++];
+            }
+        };
+    }
+}
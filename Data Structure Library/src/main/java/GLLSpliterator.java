@@ -0,0 +1,121 @@
+// GLLSpliterator.java
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * GLLSpliterator class provides a Spliterator over a generic linked list, so the list can
+ * back sequential and parallel streams.
+ * It covers a run of consecutive nodes whose length is known, and splits that run in half by
+ * walking to its middle node (or, in indexed mode, by looking the middle node up in the
+ * index). No elements are copied, and every part reports its exact size.
+ */
+public class GLLSpliterator<T> implements Spliterator<T> {
+    // List being split, used to find middle nodes through its index
+    private final GenericList<T> list;
+    // Next node to hand out
+    private GenericList<T>.Node<T> current;
+    // Position of current in the list
+    private int position;
+    // Number of nodes left in this part
+    private int remaining;
+
+    /**
+     * Constructor creates a spliterator over the whole list.
+     *
+     * @param list The list to split.
+     */
+    public GLLSpliterator(GenericList<T> list) {
+        this(list, list.getHead(), 0, list.getLength());
+    }
+
+    // Creates a spliterator over remaining nodes starting at current
+    private GLLSpliterator(GenericList<T> list, GenericList<T>.Node<T> current, int position, int remaining) {
+        this.list = list;
+        this.current = current;
+        this.position = position;
+        this.remaining = remaining;
+    }
+
+    /**
+     * Hands the next element to the action, if there is one.
+     *
+     * @param action The action to perform on the element.
+     * @return true if an element was processed, false if this part is exhausted.
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (remaining <= 0) {
+            return false;
+        }
+        T data = current.data;
+        current = current.next;
+        position++;
+        remaining--;
+        action.accept(data);
+        return true;
+    }
+
+    /**
+     * Hands every remaining element of this part to the action.
+     *
+     * @param action The action to perform on each element.
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        GenericList<T>.Node<T> node = current;
+        for (int i = remaining; i > 0; i--) {
+            action.accept(node.data);
+            node = node.next;
+        }
+        current = node;
+        position += remaining;
+        remaining = 0;
+    }
+
+    /**
+     * Splits off the first half of this part into a new spliterator.
+     *
+     * @return A spliterator over the first half, or null if fewer than two elements remain.
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+        int half = remaining >>> 1;
+        if (half == 0) {
+            return null;
+        }
+        GenericList<T>.Node<T> middle;
+        if (list.isIndexed()) {
+            middle = list.nodeAt(position + half);
+        } else {
+            middle = current;
+            for (int i = 0; i < half; i++) {
+                middle = middle.next;
+            }
+        }
+        GLLSpliterator<T> prefix = new GLLSpliterator<>(list, current, position, half);
+        current = middle;
+        position += half;
+        remaining -= half;
+        return prefix;
+    }
+
+    /**
+     * Returns the exact number of elements left in this part.
+     *
+     * @return The number of remaining elements.
+     */
+    @Override
+    public long estimateSize() {
+        return remaining;
+    }
+
+    /**
+     * Lists are ordered and every part knows its exact size. Elements may be null or repeated.
+     *
+     * @return ORDERED, SIZED and SUBSIZED.
+     */
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+}
@@ -1,20 +1,42 @@
 // GenericList.java
 import java.util.Iterator;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Abstract generic class representing a generic linked list structure.
  * It implements Iterable<T> to allow iteration over the elements.
- * The list has a head (first element) and a length (number of elements).
+ * The list has a head (first element), a tail (last element) and a length (number of elements).
+ * Nodes are doubly linked, so the list can be walked from either end.
+ *
+ * By default get and set walk the chain from the nearer end. In indexed mode (see setIndexed)
+ * the list also keeps a ring buffer of node references in list order, which makes positional
+ * access O(1). Adding or removing at either end keeps the index up to date in O(1); removing a
+ * node from the middle marks it stale, and the next positional access rebuilds it.
  */
 public abstract class GenericList<T> implements Iterable<T> {
-    // Private data members for the head of the list and the length of the list
+    // Private data members for the head and tail of the list and the length of the list
     private Node<T> head;
+    private Node<T> tail;
     private int length;
 
+    // Whether positional access goes through the node index
+    private boolean indexed;
+    // Ring buffer of node references in list order (indexed mode only, null otherwise)
+    private Object[] index;
+    // Position of the head node in the index ring buffer
+    private int indexHead;
+    // Whether the index matches the chain; cleared when a node is removed from the middle
+    private boolean indexValid;
+
     // Constructor initializes an empty list with no elements
     public GenericList() {
         this.head = null;
+        this.tail = null;
         this.length = 0;
     }
 
@@ -28,6 +50,16 @@ public abstract class GenericList<T> implements Iterable<T> {
         this.head = head;
     }
 
+    // Getter for the tail of the list
+    public Node<T> getTail() {
+        return tail;
+    }
+
+    // Setter for the tail of the list
+    public void setTail(Node<T> tail) {
+        this.tail = tail;
+    }
+
     // Getter for the length of the list
     public int getLength() {
         return length;
@@ -76,6 +108,172 @@ public abstract class GenericList<T> implements Iterable<T> {
         return list;
     }    
 
+    /**
+     * Turns indexed mode on or off. Indexed mode costs one array slot per element and makes
+     * get and set O(1); the index is built on the first positional access.
+     * Lists that are not linked (such as ArrayQueue) already have O(1) access and ignore it.
+     * 
+     * @param indexed true to keep a node index, false to drop it.
+     */
+    public void setIndexed(boolean indexed) {
+        this.indexed = indexed;
+        this.index = null;
+        this.indexValid = false;
+    }
+
+    // Checks whether the list is in indexed mode
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Records a node that was just linked at the back of the list.
+     * Called by subclasses after they append a node.
+     * 
+     * @param node The new tail node.
+     */
+    void indexAddLast(Node<T> node) {
+        if (!indexValid) {
+            return;  // Nothing to maintain: the index is off or will be rebuilt anyway
+        }
+        int count = length - 1;  // The length already includes the new node
+        if (count == index.length) {
+            growIndex(count);
+        }
+        index[(indexHead + count) & (index.length - 1)] = node;
+    }
+
+    /**
+     * Records a run of nodes that was just linked at the back of the list.
+     * Called by subclasses after they append several nodes at once.
+     * 
+     * @param first The first node of the run.
+     * @param count The number of nodes in the run.
+     */
+    void indexAddRun(Node<T> first, int count) {
+        if (!indexValid) {
+            return;
+        }
+        int start = length - count;  // The length already includes the run
+        while (length > index.length) {
+            growIndex(start);
+        }
+        int mask = index.length - 1;
+        Node<T> current = first;
+        for (int i = start; i < length; i++) {
+            index[(indexHead + i) & mask] = current;
+            current = current.next;
+        }
+    }
+
+    /**
+     * Forgets the first node of the index. Called by subclasses after they remove the head.
+     */
+    void indexRemoveFirst() {
+        indexRemoveFirst(1);
+    }
+
+    /**
+     * Forgets the first nodes of the index. Called by subclasses after they remove a run of
+     * nodes from the front.
+     * 
+     * @param count The number of nodes removed.
+     */
+    void indexRemoveFirst(int count) {
+        if (!indexValid) {
+            return;
+        }
+        int mask = index.length - 1;
+        for (int i = 0; i < count; i++) {
+            index[indexHead] = null;
+            indexHead = (indexHead + 1) & mask;
+        }
+    }
+
+    /**
+     * Forgets the last node of the index. Called by subclasses after they remove the tail.
+     */
+    void indexRemoveLast() {
+        if (!indexValid) {
+            return;
+        }
+        index[(indexHead + length) & (index.length - 1)] = null;  // The length no longer includes it
+    }
+
+    /**
+     * Marks the index as stale. Called by subclasses after they remove a node from the middle.
+     */
+    void invalidateIndex() {
+        if (indexValid) {
+            index = null;
+            indexValid = false;
+        }
+    }
+
+    // Doubles the index ring buffer, unwrapping it so the head is at slot 0
+    private void growIndex(int count) {
+        Object[] grown = new Object[index.length << 1];
+        int frontPart = index.length - indexHead;  // Slots from the head to the end of the array
+        System.arraycopy(index, indexHead, grown, 0, Math.min(frontPart, count));
+        if (count > frontPart) {
+            System.arraycopy(index, 0, grown, frontPart, count - frontPart);
+        }
+        index = grown;
+        indexHead = 0;
+    }
+
+    // Returns the node at a valid position, using the index in indexed mode (also used by GLLSpliterator)
+    @SuppressWarnings("unchecked")
+    Node<T> nodeAt(int position) {
+        if (indexed) {
+            if (!indexValid) {
+                rebuildIndex();
+            }
+            return (Node<T>) index[(indexHead + position) & (index.length - 1)];
+        }
+        Node<T> current;
+        if (position < (length >> 1)) {
+            current = head;  // Closer to the front: walk forward from the head
+            for (int i = 0; i < position; i++) {
+                current = current.next;
+            }
+        } else {
+            current = tail;  // Closer to the back: walk backward from the tail
+            for (int i = length - 1; i > position; i--) {
+                current = current.prev;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns the smallest power of two that is at least n, capped at 2^30.
+     * Shared by the structures that size rings and tables in powers of two.
+     *
+     * @param n The requested size.
+     * @return A power of two between 1 and 2^30.
+     */
+    static int powerOfTwoAtLeast(int n) {
+        if (n <= 1) {
+            return 1;
+        }
+        if (n >= 1 << 30) {
+            return 1 << 30;
+        }
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    // Walks the chain once and records every node in a fresh index
+    private void rebuildIndex() {
+        index = new Object[Math.max(16, powerOfTwoAtLeast(length + 1))];
+        indexHead = 0;
+        int i = 0;
+        for (Node<T> current = head; current != null; current = current.next) {
+            index[i++] = current;
+        }
+        indexValid = true;
+    }
+
     /**
      * Returns the element at the specified index in the list.
      * 
@@ -86,13 +284,7 @@ public abstract class GenericList<T> implements Iterable<T> {
         if (index < 0 || index >= length) {
             return null;
         }
-        Node<T> current = head;
-        int i = 0;
-        while (i < index) {
-            current = current.next;
-            i++;
-        }
-        return current.data;
+        return nodeAt(index).data;
     }
 
     /**
@@ -106,12 +298,7 @@ public abstract class GenericList<T> implements Iterable<T> {
         if (index < 0 || index >= length) {
             return null;
         }
-        Node<T> current = head;
-        int i = 0;
-        while (i < index) {
-            current = current.next;
-            i++;
-        }
+        Node<T> current = nodeAt(index);
         T oldData = current.data;
         current.data = element;
         return oldData;
@@ -128,36 +315,112 @@ public abstract class GenericList<T> implements Iterable<T> {
 
     /**
      * Returns an iterator to iterate over the elements of the list in reverse order.
-     * This iterator goes from the tail to the head.
+     * This iterator goes from the tail to the head, following the prev references,
+     * so it does not copy the list.
      */
     public Iterator<T> descendingIterator() {
-        return new ReverseGLLIterator<>(head);
+        return new ReverseGLLIterator<>(tail);
+    }
+
+    /**
+     * Returns a Spliterator over the elements of the list, from the head to the tail.
+     * It splits the list into halves of known size without copying any elements.
+     * 
+     * @return A spliterator for the list.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new GLLSpliterator<>(this);
+    }
+
+    /**
+     * Returns a sequential stream over the elements of the list.
+     * 
+     * @return A stream of the list's elements, from head to tail.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream over the elements of the list.
+     * The list must not be modified while the stream is running.
+     * 
+     * @return A parallel stream of the list's elements.
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 
     /**
      * Inner class representing a node in the linked list.
-     * Each node holds the data, a code, and a reference to the next node.
+     * Each node holds the data, a code, and references to the next and previous nodes.
+     * A node is also the Map.Entry of its key and data, so MyHashMap can hand its nodes out
+     * as entries without allocating; equals and hashCode follow the Map.Entry contract.
      */
-    public class Node<E> {
-        String key;      // Optional key field (used in MyHashMap implementation)
+    public class Node<E> implements Map.Entry<Object, E> {
+        Object key;      // Optional key field (used in MyHashMap implementation)
         E data;          // Data stored in the node
         int code;        // Optional code field
         Node<E> next;    // Reference to the next node in the list
+        Node<E> prev;    // Reference to the previous node in the list
 
         // Constructor for nodes without keys (used in GenericQueue)
         public Node(E data) {
             this.key = null; // Initialize key as null for non-keyed nodes
             this.data = data;
             this.next = null;
+            this.prev = null;
             this.code = 0;
         }
 
         // Constructor for nodes with keys (used in MyHashMap)
-        public Node(String key, E data, int code) {
+        public Node(Object key, E data, int code) {
             this.key = key;
             this.data = data;
             this.next = null;
+            this.prev = null;
             this.code = code;
         }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public E getValue() {
+            return data;
+        }
+
+        // Replaces the data in place; for a MyHashMap node this writes through to the map
+        @Override
+        public E setValue(E value) {
+            E oldValue = data;
+            data = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, other.getKey()) && Objects.equals(data, other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(data);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + data;
+        }
     }
 }
@@ -1,19 +1,22 @@
 // GenericQueue.java
+import java.util.Collection;
 import java.util.Iterator;
 
 /**
  * GenericQueue class that represents a queue (FIFO - First In, First Out) data structure.
- * This class extends the abstract class GenericList<T> and uses linked nodes.
+ * This class extends the abstract class GenericList<T> and uses doubly linked nodes.
  * It supports generic data types and includes special methods for MyHashMap usage.
+ * Both ends of the queue can be read and removed in constant time.
+ * enableMetrics switches on optional QueueMetrics, which can be exported via JMX and JFR.
  */
 public class GenericQueue<T> extends GenericList<T> {
-    // Reference to the tail (end) of the queue
-    private Node<T> tail;
+    // Statistics collected while metrics are enabled, or null when they are off
+    private QueueMetrics metrics;
 
     // No-argument constructor for creating an empty queue
     public GenericQueue() {
         this.setHead(null);
-        this.tail = null;
+        this.setTail(null);
         this.setLength(0);
     }
 
@@ -25,7 +28,7 @@ public class GenericQueue<T> extends GenericList<T> {
     public GenericQueue(T data) {
         Node<T> newNode = new Node<>(data);  // Create a new node with the provided data
         this.setHead(newNode);               // Set the new node as the head (and tail, since it's the only element)
-        this.tail = newNode;
+        this.setTail(newNode);
         this.setLength(1);                   // Queue length is 1 after initialization
     }
 
@@ -37,18 +40,13 @@ public class GenericQueue<T> extends GenericList<T> {
      * @param data The data to be stored in the node.
      * @param code The hash code associated with the key.
      */
-    public GenericQueue(String key, T data, int code) {
+    public GenericQueue(Object key, T data, int code) {
         Node<T> newNode = new Node<>(key, data, code);  // Create a new node with key, data, and code
         this.setHead(newNode);                          // Set the new node as the head and tail
-        this.tail = newNode;
+        this.setTail(newNode);
         this.setLength(1);                              // Queue length is 1 after initialization
     }
 
-    // Getter for the tail of the queue
-    public Node<T> getTail() {
-        return tail;
-    }
-
     /**
      * Adds a new element to the back of the queue (FIFO).
      * 
@@ -59,12 +57,17 @@ public class GenericQueue<T> extends GenericList<T> {
         Node<T> newNode = new Node<>(data);  // Create a new node with the provided data
         if (this.getHead() == null) {
             this.setHead(newNode);           // If the queue is empty, set the new node as both head and tail
-            tail = newNode;
+            this.setTail(newNode);
         } else {
-            tail.next = newNode;             // Otherwise, add the new node to the end and update the tail
-            tail = newNode;
+            newNode.prev = this.getTail();   // Otherwise, add the new node to the end and update the tail
+            this.getTail().next = newNode;
+            this.setTail(newNode);
         }
         this.setLength(this.getLength() + 1);  // Increment the length of the queue
+        indexAddLast(this.getTail());
+        if (metrics != null) {
+            metrics.recordEnqueue(1, this.getLength());
+        }
     }
 
     /**
@@ -75,16 +78,175 @@ public class GenericQueue<T> extends GenericList<T> {
      * @param data The data to be added to the queue.
      * @param code The hash code associated with the key.
      */
-    public void add(String key, T data, int code) {
+    public void add(Object key, T data, int code) {
         Node<T> newNode = new Node<>(key, data, code);  // Create a new node with key, data, and code
         if (this.getHead() == null) {
             this.setHead(newNode);                      // If the queue is empty, set the new node as both head and tail
-            tail = newNode;
+            this.setTail(newNode);
         } else {
-            tail.next = newNode;                        // Otherwise, add the new node to the end and update the tail
-            tail = newNode;
+            newNode.prev = this.getTail();              // Otherwise, add the new node to the end and update the tail
+            this.getTail().next = newNode;
+            this.setTail(newNode);
         }
         this.setLength(this.getLength() + 1);  // Increment the length of the queue
+        indexAddLast(this.getTail());
+        if (metrics != null) {
+            metrics.recordEnqueue(1, this.getLength());
+        }
+    }
+
+    /**
+     * Adds every element of the given source to the back of the queue, in iteration order.
+     * The new nodes are first linked into a chain of their own, which is then attached to
+     * the tail in one step.
+     * 
+     * @param elements The elements to be added.
+     * @return The number of elements added.
+     * @throws IllegalArgumentException if elements is null or is this queue.
+     */
+    public int addAll(Iterable<? extends T> elements) {
+        if (elements == null || elements == this) {
+            throw new IllegalArgumentException("Cannot add elements from a null source or from the queue itself.");
+        }
+        Node<T> first = null;
+        Node<T> last = null;
+        int count = 0;
+        for (T data : elements) {
+            Node<T> newNode = new Node<>(data);
+            if (first == null) {
+                first = newNode;
+            } else {
+                newNode.prev = last;
+                last.next = newNode;
+            }
+            last = newNode;
+            count++;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        if (this.getHead() == null) {
+            this.setHead(first);           // If the queue is empty, the chain becomes the whole queue
+        } else {
+            first.prev = this.getTail();   // Otherwise, attach the chain after the current tail
+            this.getTail().next = first;
+        }
+        this.setTail(last);
+        this.setLength(this.getLength() + count);
+        indexAddRun(first, count);
+        if (metrics != null) {
+            metrics.recordEnqueue(count, this.getLength());
+        }
+        return count;
+    }
+
+    /**
+     * Removes every element of the queue and adds them to the given collection, front first.
+     * 
+     * @param target The collection to transfer the elements to.
+     * @return The number of elements transferred.
+     * @throws IllegalArgumentException if target is null or is this queue.
+     */
+    public int drainTo(Collection<? super T> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes up to maxElements elements from the front of the queue and adds them to the
+     * given collection, in queue order. The transferred nodes are detached from the queue as
+     * one run rather than dequeued one at a time.
+     * If adding to the collection throws, the elements already transferred are still removed.
+     * 
+     * @param target The collection to transfer the elements to.
+     * @param maxElements The maximum number of elements to transfer.
+     * @return The number of elements transferred.
+     * @throws IllegalArgumentException if target is null or is this queue.
+     */
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        if (target == null || target == this) {
+            throw new IllegalArgumentException("Cannot drain to a null collection or to the queue itself.");
+        }
+        Node<T> current = this.getHead();
+        int count = 0;
+        try {
+            while (current != null && count < maxElements) {
+                target.add(current.data);
+                current = current.next;
+                count++;
+            }
+        } finally {
+            if (count > 0) {
+                detachFirst(current, count);
+            }
+        }
+        return count;
+    }
+
+    // Cuts the first count nodes off the queue; rest is the node that becomes the new head
+    private void detachFirst(Node<T> rest, int count) {
+        this.setHead(rest);
+        if (rest == null) {
+            this.setTail(null);   // Everything was detached
+        } else {
+            rest.prev.next = null;  // End the detached run so it does not reach into the queue
+            rest.prev = null;
+        }
+        this.setLength(this.getLength() - count);
+        indexRemoveFirst(count);
+        if (metrics != null) {
+            metrics.recordDequeue(count);
+        }
+    }
+
+    /**
+     * Appends an existing node to the back of the queue without allocating a new one.
+     * This method is used by MyHashMap to move entries between buckets when it resizes.
+     * 
+     * @param node The node to append; its links are reset.
+     */
+    void linkLast(Node<T> node) {
+        node.next = null;
+        node.prev = this.getTail();
+        if (this.getHead() == null) {
+            this.setHead(node);          // If the queue is empty, the node becomes both head and tail
+        } else {
+            this.getTail().next = node;  // Otherwise, link it after the current tail
+        }
+        this.setTail(node);
+        this.setLength(this.getLength() + 1);  // Increment the length of the queue
+        indexAddLast(this.getTail());
+    }
+
+    /**
+     * Removes a node from anywhere in the queue in constant time.
+     * This method is used by MyHashMap to remove an entry from its bucket.
+     * 
+     * @param node The node to remove; it must belong to this queue.
+     */
+    void unlink(Node<T> node) {
+        Node<T> prev = node.prev;
+        Node<T> next = node.next;
+        if (prev != null && next != null) {
+            invalidateIndex();    // The index cannot close a gap in the middle in constant time
+        }
+        if (prev == null) {
+            this.setHead(next);   // Removing the head: the next node becomes the head
+        } else {
+            prev.next = next;     // Otherwise, bypass the node going forward
+        }
+        if (next == null) {
+            this.setTail(prev);   // Removing the tail: the previous node becomes the tail
+        } else {
+            next.prev = prev;     // Otherwise, bypass the node going backward
+        }
+        node.next = null;
+        node.prev = null;
+        this.setLength(this.getLength() - 1);  // Decrement the length of the queue
+        if (prev == null) {
+            indexRemoveFirst();
+        } else if (next == null) {
+            indexRemoveLast();
+        }
     }
 
     /**
@@ -101,12 +263,45 @@ public class GenericQueue<T> extends GenericList<T> {
         T deletedData = this.getHead().data;      // Get the data from the head (first node)
         this.setHead(this.getHead().next);        // Move the head to the next node
         if (this.getHead() == null) {
-            tail = null;  // If the queue is now empty, set the tail to null
+            this.setTail(null);          // If the queue is now empty, set the tail to null
+        } else {
+            this.getHead().prev = null;  // Otherwise, the new head has nothing before it
         }
         this.setLength(this.getLength() - 1);     // Decrement the length of the queue
+        indexRemoveFirst();
+        if (metrics != null) {
+            metrics.recordDequeue(1);
+        }
         return deletedData;                       // Return the deleted data
     }
 
+    /**
+     * Returns the element at the back of the queue without removing it.
+     * 
+     * @return The data at the back of the queue, or null if the queue is empty.
+     */
+    public T peekLast() {
+        Node<T> tail = this.getTail();
+        return tail == null ? null : tail.data;
+    }
+
+    /**
+     * Deletes and returns the element from the back of the queue (the most recently added one).
+     * 
+     * @return The data from the back of the queue, or null if the queue is empty.
+     */
+    public T pollLast() {
+        Node<T> tail = this.getTail();
+        if (tail == null) {
+            return null;  // Return null if the queue is empty
+        }
+        unlink(tail);
+        if (metrics != null) {
+            metrics.recordDequeue(1);
+        }
+        return tail.data;
+    }
+
     /**
      * Enqueues (adds) an element to the back of the queue.
      * 
@@ -125,6 +320,53 @@ public class GenericQueue<T> extends GenericList<T> {
         return delete();  // Dequeue is simply an alias for deleting from the front of the queue
     }
 
+    /**
+     * Starts collecting metrics for this queue: depth, high-water mark, and enqueue and
+     * dequeue counts and rates. If metrics are already enabled, the existing metrics are
+     * returned.
+     * 
+     * @param name The name identifying the queue in JMX and JFR.
+     * @return The queue's metrics.
+     * @throws IllegalArgumentException if the name is null.
+     */
+    public QueueMetrics enableMetrics(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null.");
+        }
+        if (metrics == null) {
+            metrics = new QueueMetrics(name, this);
+        }
+        return metrics;
+    }
+
+    /**
+     * Starts collecting metrics for this queue under a name made from its identity hash code.
+     * 
+     * @return The queue's metrics.
+     */
+    public QueueMetrics enableMetrics() {
+        return enableMetrics("GenericQueue@" + Integer.toHexString(System.identityHashCode(this)));
+    }
+
+    /**
+     * Stops collecting metrics, unregistering them from JMX and JFR.
+     */
+    public void disableMetrics() {
+        if (metrics != null) {
+            metrics.close();
+            metrics = null;
+        }
+    }
+
+    /**
+     * Returns the queue's metrics.
+     * 
+     * @return The metrics, or null if they are not enabled.
+     */
+    public QueueMetrics metrics() {
+        return metrics;
+    }
+
     /**
      * Returns an iterator to iterate over the elements of the queue.
      * This iterator goes from head to tail.
@@ -138,12 +380,12 @@ public class GenericQueue<T> extends GenericList<T> {
 
     /**
      * Returns an iterator to iterate over the elements of the queue in reverse order.
-     * This iterator goes from tail to head.
+     * This iterator goes from tail to head without copying the queue.
      * 
      * @return A reverse iterator for the queue.
      */
     @Override
     public Iterator<T> descendingIterator() {
-        return new ReverseGLLIterator<>(this.getHead());
+        return new ReverseGLLIterator<>(this.getTail());
     }
 }
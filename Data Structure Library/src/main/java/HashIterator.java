@@ -0,0 +1,109 @@
+// HashIterator.java
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * HashIterator class is the shared base of the MyHashMap iterators.
+ * It walks the bucket table node by node (following each bucket's chain of
+ * GenericList.Node objects), and subclasses decide what to return for each node:
+ * the value, the key, or an entry view. When created by a MyHashMap it also supports
+ * Iterator.remove, which unlinks the last returned node from its bucket.
+ *
+ * @param <V> The value type stored in the nodes.
+ * @param <E> The type of element returned by the iterator.
+ */
+abstract class HashIterator<V, E> implements Iterator<E> {
+    // The map (ArrayList of GenericQueues) being iterated over
+    private final ArrayList<GenericQueue<V>> table;
+    // Map that owns the table, used by remove; null if removal is not supported
+    private final MyHashMap<?, V> owner;
+    // Index of the bucket after the one holding nextNode
+    private int index;
+    // Node that the next call to next() returns
+    private GenericList<V>.Node<V> nextNode;
+    // Node most recently returned by next(), or null if it was removed or next() was not called
+    private GenericList<V>.Node<V> current;
+
+    /**
+     * Constructor initializes the iterator at the first entry of the table.
+     *
+     * @param table The bucket table to iterate over.
+     * @param owner The map that owns the table, or null to leave remove unsupported.
+     */
+    HashIterator(ArrayList<GenericQueue<V>> table, MyHashMap<?, V> owner) {
+        this.table = table;
+        this.owner = owner;
+        this.index = 0;
+        advanceBucket();
+    }
+
+    // Moves nextNode to the head of the next non-empty bucket, or null if there is none
+    private void advanceBucket() {
+        nextNode = null;
+        while (index < table.size()) {
+            GenericQueue<V> queue = table.get(index++);
+            if (queue != null && queue.getHead() != null) {
+                nextNode = queue.getHead();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the element to hand out for a node.
+     *
+     * @param node The node being returned by next().
+     * @return The element for that node.
+     */
+    abstract E element(GenericList<V>.Node<V> node);
+
+    /**
+     * Checks if there is another entry in the map to iterate over.
+     *
+     * @return true if there is a next element, false otherwise.
+     */
+    @Override
+    public boolean hasNext() {
+        return nextNode != null;
+    }
+
+    /**
+     * Returns the element for the next entry in the map and advances the iterator.
+     *
+     * @return The next element.
+     * @throws NoSuchElementException if there are no more elements to iterate over.
+     */
+    @Override
+    public E next() {
+        GenericList<V>.Node<V> node = nextNode;
+        if (node == null) {
+            throw new NoSuchElementException("No more elements to iterate.");
+        }
+        current = node;
+        nextNode = node.next;
+        if (nextNode == null) {
+            advanceBucket();
+        }
+        return element(node);
+    }
+
+    /**
+     * Removes the entry most recently returned by next() from the map.
+     *
+     * @throws UnsupportedOperationException if the iterator was not created by a MyHashMap.
+     * @throws IllegalStateException if next() has not been called, or remove() was already
+     *                               called after the last call to next().
+     */
+    @Override
+    public void remove() {
+        if (owner == null) {
+            throw new UnsupportedOperationException("remove");
+        }
+        if (current == null) {
+            throw new IllegalStateException("next() must be called before remove().");
+        }
+        owner.removeNode(current);
+        current = null;
+    }
+}
@@ -0,0 +1,157 @@
+// HashSpliterator.java
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * HashSpliterator class is the shared base of the MyHashMap spliterators, which back the
+ * map's sequential and parallel streams.
+ * Each spliterator covers a range of buckets and splits by handing off the first half of the
+ * range that it has not started yet, so splitting never touches the entries themselves.
+ * Only a spliterator over the whole table knows its exact size; after a split, each half
+ * estimates its size as half of its parent's.
+ *
+ * @param <V> The value type stored in the nodes.
+ * @param <E> The type of element handed out.
+ */
+abstract class HashSpliterator<V, E> implements Spliterator<E> {
+    // The bucket table being split
+    final ArrayList<GenericQueue<V>> table;
+    // Index of the next bucket to start
+    private int index;
+    // Index one past the last bucket of this part
+    private final int fence;
+    // Estimated number of entries in this part (exact until the first split)
+    private int estimate;
+    // Whether estimate is exact
+    private boolean sized;
+    // Next node to hand out within the bucket being walked, or null between buckets
+    private GenericList<V>.Node<V> current;
+
+    /**
+     * Constructor creates a spliterator over a range of buckets.
+     *
+     * @param table The bucket table.
+     * @param origin Index of the first bucket.
+     * @param fence Index one past the last bucket.
+     * @param estimate Number of entries expected in the range.
+     * @param sized true if estimate is the exact number of entries.
+     */
+    HashSpliterator(ArrayList<GenericQueue<V>> table, int origin, int fence, int estimate, boolean sized) {
+        this.table = table;
+        this.index = origin;
+        this.fence = fence;
+        this.estimate = estimate;
+        this.sized = sized;
+    }
+
+    /**
+     * Returns the element to hand out for a node.
+     *
+     * @param node The node being handed out.
+     * @return The element for that node.
+     */
+    abstract E element(GenericList<V>.Node<V> node);
+
+    /**
+     * Creates a spliterator of the same kind over another range of buckets.
+     *
+     * @param origin Index of the first bucket.
+     * @param fence Index one past the last bucket.
+     * @param estimate Number of entries expected in the range.
+     * @return A new, unsized spliterator over the range.
+     */
+    abstract HashSpliterator<V, E> newSpliterator(int origin, int fence, int estimate);
+
+    /**
+     * Hands the next element to the action, if there is one.
+     *
+     * @param action The action to perform on the element.
+     * @return true if an element was processed, false if this part is exhausted.
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        while (current == null) {
+            if (index >= fence) {
+                return false;
+            }
+            GenericQueue<V> queue = table.get(index++);
+            if (queue != null) {
+                current = queue.getHead();
+            }
+        }
+        GenericList<V>.Node<V> node = current;
+        current = node.next;
+        action.accept(element(node));
+        return true;
+    }
+
+    /**
+     * Hands every remaining element of this part to the action.
+     *
+     * @param action The action to perform on each element.
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        GenericList<V>.Node<V> node = current;
+        current = null;
+        while (true) {
+            for (; node != null; node = node.next) {
+                action.accept(element(node));
+            }
+            if (index >= fence) {
+                return;
+            }
+            GenericQueue<V> queue = table.get(index++);
+            node = queue == null ? null : queue.getHead();
+        }
+    }
+
+    /**
+     * Splits off the first half of the buckets that have not been started yet.
+     *
+     * @return A spliterator over those buckets, or null if there are too few to split.
+     */
+    @Override
+    public Spliterator<E> trySplit() {
+        int lo = index;
+        int mid = (lo + fence) >>> 1;
+        if (lo >= mid || current != null) {
+            return null;
+        }
+        index = mid;
+        estimate >>>= 1;
+        sized = false;
+        return newSpliterator(lo, mid, estimate);
+    }
+
+    /**
+     * Returns the number of entries left in this part: exact before the first split,
+     * an estimate afterwards.
+     *
+     * @return The estimated number of remaining elements.
+     */
+    @Override
+    public long estimateSize() {
+        return estimate;
+    }
+
+    /**
+     * Reports SIZED while the spliterator still covers the whole table, on top of the
+     * characteristics of the element kind.
+     *
+     * @return The characteristics of this spliterator.
+     */
+    @Override
+    public int characteristics() {
+        return elementCharacteristics() | (sized ? SIZED : 0);
+    }
+
+    /**
+     * Returns the characteristics that follow from the element kind (keys are DISTINCT and
+     * NONNULL, values are neither).
+     *
+     * @return The element characteristics.
+     */
+    abstract int elementCharacteristics();
+}
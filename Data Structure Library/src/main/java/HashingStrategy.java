@@ -0,0 +1,30 @@
+// HashingStrategy.java
+
+/**
+ * HashingStrategy interface lets a MyHashMap hash and compare keys with something other
+ * than the keys' own hashCode and equals methods.
+ * This is useful when a key type's hashCode is expensive or poorly distributed, or when
+ * keys should match by a different notion of equality (for example ignoring case).
+ * The two methods must be consistent: keys that are equal must have the same hash code.
+ *
+ * @param <K> The key type the strategy applies to.
+ */
+public interface HashingStrategy<K> {
+    /**
+     * Computes the hash code of a key. MyHashMap spreads the result further, so the
+     * strategy does not need to mix its bits itself.
+     *
+     * @param key The key to hash (never null).
+     * @return The hash code of the key.
+     */
+    int hashCode(K key);
+
+    /**
+     * Checks whether two keys are equal under this strategy.
+     *
+     * @param a The key being looked up (never null).
+     * @param b A key stored in the map (never null).
+     * @return true if the keys should be treated as the same key.
+     */
+    boolean equals(K a, K b);
+}
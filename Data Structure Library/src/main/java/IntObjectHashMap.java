@@ -0,0 +1,263 @@
+// IntObjectHashMap.java
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * IntObjectHashMap class is a hash map keyed by primitive ints, with the same
+ * put/get/contains/replace/size/isEmpty/iterator operations as MyHashMap.
+ * Keys are kept in an int[] and values in a parallel Object[], using linear probing as in
+ * OpenHashMap, so lookups never box the key or convert it to a String.
+ * Key 0 is used to mark empty slots, so an entry for key 0 is stored in a separate field.
+ */
+public class IntObjectHashMap<T> implements Iterable<T> {
+    // Keys of the stored entries; 0 marks an empty slot
+    private int[] keys;
+    // Values of the stored entries, at the same index as their key
+    private Object[] values;
+    // Whether an entry for key 0 exists (it cannot live in the key array)
+    private boolean hasZeroKey;
+    // Value of the entry for key 0
+    private T zeroValue;
+    // Number of key-value pairs stored in the map, including key 0
+    private int size;
+    // Number of entries stored in the arrays, excluding key 0
+    private int used;
+    // Ratio of entries to slots at which the table is resized
+    private final float loadFactor;
+    // Number of array entries at which the next resize happens
+    private int threshold;
+
+    /**
+     * Constructor initializes an empty map with the default capacity and load factor.
+     */
+    public IntObjectHashMap() {
+        this(OpenHashMap.DEFAULT_CAPACITY, OpenHashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor initializes an empty map with room for the given number of slots.
+     *
+     * @param initialCapacity The requested number of slots, rounded up to a power of two.
+     */
+    public IntObjectHashMap(int initialCapacity) {
+        this(initialCapacity, OpenHashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor initializes an empty map with the given capacity and load factor.
+     *
+     * @param initialCapacity The requested number of slots, rounded up to a power of two.
+     * @param loadFactor The ratio of entries to slots at which the table doubles (0 to 1, exclusive).
+     * @throws IllegalArgumentException if the capacity is negative or the load factor is out of range.
+     */
+    public IntObjectHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative.");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1.");
+        }
+        this.loadFactor = loadFactor;
+        allocate(Math.max(2, MyHashMap.tableSizeFor(initialCapacity)));
+    }
+
+    /**
+     * Scrambles the key so that sequential ids spread across the whole table.
+     *
+     * @param key The key to hash.
+     * @return The mixed hash code.
+     */
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;  // Fibonacci multiplier moves low-bit differences upward
+        return h ^ (h >>> 16);
+    }
+
+    // Creates empty arrays with the given number of slots and updates the threshold
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    // Returns the slot holding key, or the complement of the empty slot where it would go
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        int current;
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return ~index;
+    }
+
+    /**
+     * Adds or updates a key-value pair in the map.
+     *
+     * @param key The key associated with the value.
+     * @param value The value to be stored.
+     */
+    public void put(int key, T value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            values[slot] = value;  // Update the value if the key is found
+            return;
+        }
+        slot = ~slot;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (++used > threshold) {
+            resize();
+        }
+    }
+
+    // Doubles the number of slots and reinserts every array entry
+    private void resize() {
+        if (keys.length >= MyHashMap.MAXIMUM_CAPACITY) {
+            if (used >= keys.length - 1) {
+                throw new IllegalStateException("IntObjectHashMap is full.");
+            }
+            threshold = keys.length - 1;
+            return;
+        }
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key == 0) {
+                continue;
+            }
+            int index = hash(key) & mask;
+            while (keys[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = oldValues[i];
+        }
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key to check for in the map.
+     * @return true if the key exists, false otherwise.
+     */
+    public boolean contains(int key) {
+        return key == 0 ? hasZeroKey : findSlot(key) >= 0;
+    }
+
+    /**
+     * Retrieves the value associated with the given key.
+     *
+     * @param key The key to retrieve the value for.
+     * @return The value associated with the key, or null if the key does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int slot = findSlot(key);
+        return slot >= 0 ? (T) values[slot] : null;
+    }
+
+    /**
+     * Replaces the value for the given key, if the key exists.
+     *
+     * @param key The key whose associated value is to be replaced.
+     * @param value The new value to be associated with the key.
+     * @return The previous value associated with the key, or null if the key did not exist.
+     */
+    @SuppressWarnings("unchecked")
+    public T replace(int key, T value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return null;
+            }
+            T oldValue = zeroValue;
+            zeroValue = value;
+            return oldValue;
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;  // Return null if the key is not found
+        }
+        T oldValue = (T) values[slot];
+        values[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in the map.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty (contains no key-value pairs).
+     *
+     * @return true if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns an iterator to iterate over the values stored in the map.
+     *
+     * @return An iterator for the map.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final int[] slotKeys = keys;       // Arrays at the time the iterator was created
+            private final Object[] slotValues = values;
+            private boolean zeroPending = hasZeroKey;  // Value for key 0 is returned first
+            private int index = nextSlot(0);
+
+            // Returns the first occupied slot at or after from
+            private int nextSlot(int from) {
+                while (from < slotKeys.length && slotKeys[from] == 0) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return zeroPending || index < slotKeys.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (zeroPending) {
+                    zeroPending = false;
+                    return zeroValue;
+                }
+                if (index >= slotKeys.length) {
+                    throw new NoSuchElementException("No more elements to iterate.");
+                }
+                T value = (T) slotValues[index];
+                index = nextSlot(index + 1);
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,278 @@
+// LongLongHashMap.java
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * LongLongHashMap class is a hash map from primitive longs to primitive longs, with the
+ * same put/get/contains/replace/size/isEmpty/iterator operations as MyHashMap.
+ * Keys and values are kept in two parallel long[] arrays with linear probing, so neither
+ * keys nor values are ever boxed.
+ * Since a long cannot be null, lookups of missing keys return a configurable
+ * "no entry" value (0 by default); use contains to tell a stored value from a missing key.
+ * Key 0 is used to mark empty slots, so an entry for key 0 is stored in separate fields.
+ */
+public class LongLongHashMap implements Iterable<Long> {
+    // Keys of the stored entries; 0 marks an empty slot
+    private long[] keys;
+    // Values of the stored entries, at the same index as their key
+    private long[] values;
+    // Whether an entry for key 0 exists (it cannot live in the key array)
+    private boolean hasZeroKey;
+    // Value of the entry for key 0
+    private long zeroValue;
+    // Value returned by get and replace when the key does not exist
+    private final long noEntryValue;
+    // Number of key-value pairs stored in the map, including key 0
+    private int size;
+    // Number of entries stored in the arrays, excluding key 0
+    private int used;
+    // Ratio of entries to slots at which the table is resized
+    private final float loadFactor;
+    // Number of array entries at which the next resize happens
+    private int threshold;
+
+    /**
+     * Constructor initializes an empty map with the default capacity and load factor,
+     * returning 0 for missing keys.
+     */
+    public LongLongHashMap() {
+        this(OpenHashMap.DEFAULT_CAPACITY, OpenHashMap.DEFAULT_LOAD_FACTOR, 0L);
+    }
+
+    /**
+     * Constructor initializes an empty map with room for the given number of slots,
+     * returning 0 for missing keys.
+     *
+     * @param initialCapacity The requested number of slots, rounded up to a power of two.
+     */
+    public LongLongHashMap(int initialCapacity) {
+        this(initialCapacity, OpenHashMap.DEFAULT_LOAD_FACTOR, 0L);
+    }
+
+    /**
+     * Constructor initializes an empty map.
+     *
+     * @param initialCapacity The requested number of slots, rounded up to a power of two.
+     * @param loadFactor The ratio of entries to slots at which the table doubles (0 to 1, exclusive).
+     * @param noEntryValue The value returned by get and replace for missing keys.
+     * @throws IllegalArgumentException if the capacity is negative or the load factor is out of range.
+     */
+    public LongLongHashMap(int initialCapacity, float loadFactor, long noEntryValue) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative.");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1.");
+        }
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        allocate(Math.max(2, MyHashMap.tableSizeFor(initialCapacity)));
+    }
+
+    /**
+     * Scrambles the key so that sequential ids spread across the whole table.
+     *
+     * @param key The key to hash.
+     * @return The mixed hash code.
+     */
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;  // 64-bit Fibonacci multiplier
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // Creates empty arrays with the given number of slots and updates the threshold
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    // Returns the slot holding key, or the complement of the empty slot where it would go
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        long current;
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return ~index;
+    }
+
+    /**
+     * Returns the value reported for missing keys.
+     *
+     * @return The "no entry" value given at construction.
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Adds or updates a key-value pair in the map.
+     *
+     * @param key The key associated with the value.
+     * @param value The value to be stored.
+     */
+    public void put(long key, long value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            values[slot] = value;  // Update the value if the key is found
+            return;
+        }
+        slot = ~slot;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (++used > threshold) {
+            resize();
+        }
+    }
+
+    // Doubles the number of slots and reinserts every array entry
+    private void resize() {
+        if (keys.length >= MyHashMap.MAXIMUM_CAPACITY) {
+            if (used >= keys.length - 1) {
+                throw new IllegalStateException("LongLongHashMap is full.");
+            }
+            threshold = keys.length - 1;
+            return;
+        }
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0) {
+                continue;
+            }
+            int index = hash(key) & mask;
+            while (keys[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = oldValues[i];
+        }
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key to check for in the map.
+     * @return true if the key exists, false otherwise.
+     */
+    public boolean contains(long key) {
+        return key == 0 ? hasZeroKey : findSlot(key) >= 0;
+    }
+
+    /**
+     * Retrieves the value associated with the given key.
+     *
+     * @param key The key to retrieve the value for.
+     * @return The value associated with the key, or the "no entry" value if the key does not exist.
+     */
+    public long get(long key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : noEntryValue;
+        }
+        int slot = findSlot(key);
+        return slot >= 0 ? values[slot] : noEntryValue;
+    }
+
+    /**
+     * Replaces the value for the given key, if the key exists.
+     *
+     * @param key The key whose associated value is to be replaced.
+     * @param value The new value to be associated with the key.
+     * @return The previous value associated with the key, or the "no entry" value if the key did not exist.
+     */
+    public long replace(long key, long value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return noEntryValue;
+            }
+            long oldValue = zeroValue;
+            zeroValue = value;
+            return oldValue;
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return noEntryValue;  // Report a missing key with the "no entry" value
+        }
+        long oldValue = values[slot];
+        values[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in the map.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty (contains no key-value pairs).
+     *
+     * @return true if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns an iterator over the values stored in the map.
+     * Use nextLong() to read values without boxing them.
+     *
+     * @return A primitive iterator for the map.
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private final long[] slotKeys = keys;      // Arrays at the time the iterator was created
+            private final long[] slotValues = values;
+            private boolean zeroPending = hasZeroKey;  // Value for key 0 is returned first
+            private int index = nextSlot(0);
+
+            // Returns the first occupied slot at or after from
+            private int nextSlot(int from) {
+                while (from < slotKeys.length && slotKeys[from] == 0) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return zeroPending || index < slotKeys.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (zeroPending) {
+                    zeroPending = false;
+                    return zeroValue;
+                }
+                if (index >= slotKeys.length) {
+                    throw new NoSuchElementException("No more elements to iterate.");
+                }
+                long value = slotValues[index];
+                index = nextSlot(index + 1);
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,265 @@
+// MapMetrics.java
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * MapMetrics class collects statistics about one MyHashMap. Metrics are off by default and
+ * are switched on with MyHashMap.enableMetrics; a map without metrics pays only a null check
+ * on its lookup and resize paths.
+ *
+ * Counters (hits, misses, resizes, resize time) are LongAdders, so they are cheap to update
+ * and can be read from another thread, for example by JMX. The table figures (size, load,
+ * chain-length histogram) are computed from the map when they are read; while the map is
+ * being modified by another thread they are approximate.
+ *
+ * The metrics can be published as an MXBean with register, and are reported to Java Flight
+ * Recorder as resize events and periodic statistics events (see MetricsEvents).
+ * For a map with incremental resizing, a resize is counted when its last bucket has been
+ * moved, and its time spans the whole move, including the operations in between.
+ * For a map with a Bloom filter, lookups of absent keys are split into those the filter
+ * rejected and those it let through (false positives).
+ */
+public class MapMetrics implements MapMetricsMXBean {
+    // Name identifying the map in JMX and JFR
+    private final String name;
+    // The map being measured
+    private final MyHashMap<?, ?> map;
+    // Number of lookups that found their key
+    private final LongAdder hits = new LongAdder();
+    // Number of lookups that did not find their key
+    private final LongAdder misses = new LongAdder();
+    // Number of table resizes
+    private final LongAdder resizes = new LongAdder();
+    // Total time spent in resizes
+    private final LongAdder resizeNanos = new LongAdder();
+    // Number of lookups the Bloom filter answered as certainly absent
+    private final LongAdder filterRejections = new LongAdder();
+    // Number of lookups the Bloom filter let through for a key that was absent
+    private final LongAdder filterFalsePositives = new LongAdder();
+    // Start time of the resize in progress
+    private long resizeStart;
+    // JFR event of the resize in progress
+    private MetricsEvents.MapResizeEvent resizeEvent;
+    // Name the MXBean is registered under, or null if it is not registered
+    private ObjectName objectName;
+
+    // Constructor used by MyHashMap.enableMetrics
+    MapMetrics(String name, MyHashMap<?, ?> map) {
+        this.name = name;
+        this.map = map;
+        MetricsEvents.track(this);
+    }
+
+    // Counts a lookup that found its key
+    void recordHit() {
+        hits.increment();
+    }
+
+    // Counts a lookup that did not find its key
+    void recordMiss() {
+        misses.increment();
+    }
+
+    // Counts a lookup the Bloom filter rejected without reading a bucket
+    void recordFilterRejection() {
+        filterRejections.increment();
+    }
+
+    // Counts a lookup of an absent key that the Bloom filter did not reject
+    void recordFilterFalsePositive() {
+        filterFalsePositives.increment();
+    }
+
+    // Called by MyHashMap just before it resizes its table
+    void resizeStarted() {
+        resizeEvent = new MetricsEvents.MapResizeEvent();
+        resizeEvent.begin();
+        resizeStart = System.nanoTime();
+    }
+
+    // Called by MyHashMap once the resize has finished
+    void resizeFinished(int oldCapacity, int newCapacity) {
+        resizeNanos.add(System.nanoTime() - resizeStart);
+        resizes.increment();
+        MetricsEvents.MapResizeEvent event = resizeEvent;
+        resizeEvent = null;
+        if (event != null && event.shouldCommit()) {
+            event.map = name;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.size = map.size();
+            event.commit();
+        }
+    }
+
+    // Stops reporting to JFR and JMX; called when the map's metrics are disabled
+    void close() {
+        MetricsEvents.untrack(this);
+        unregister();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getSize() {
+        return map.size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return map.capacity();
+    }
+
+    @Override
+    public double getLoad() {
+        return (double) map.size() / map.capacity();
+    }
+
+    // During an incremental resize, the buckets not yet moved out of the old table count too
+    @Override
+    public long[] getChainLengthHistogram() {
+        int capacity = map.capacity();
+        long[] histogram = new long[getMaxChainLength() + 1];
+        for (int i = 0; i < capacity; i++) {
+            GenericQueue<?> queue = map.bucketAt(i);
+            count(histogram, queue == null ? 0 : queue.getLength());
+        }
+        List<? extends GenericQueue<?>> old = map.oldTable();
+        if (old != null) {
+            for (GenericQueue<?> queue : old) {
+                if (queue != null) {
+                    count(histogram, queue.getLength());
+                }
+            }
+        }
+        return histogram;
+    }
+
+    // Adds one bucket of the given length to a histogram
+    private static void count(long[] histogram, int length) {
+        if (length < histogram.length) {  // The map may have changed since the maximum was taken
+            histogram[length]++;
+        }
+    }
+
+    @Override
+    public int getMaxChainLength() {
+        int capacity = map.capacity();
+        int max = 0;
+        for (int i = 0; i < capacity; i++) {
+            GenericQueue<?> queue = map.bucketAt(i);
+            if (queue != null) {
+                max = Math.max(max, queue.getLength());
+            }
+        }
+        List<? extends GenericQueue<?>> old = map.oldTable();
+        if (old != null) {
+            for (GenericQueue<?> queue : old) {
+                if (queue != null) {
+                    max = Math.max(max, queue.getLength());
+                }
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public long getResizeCount() {
+        return resizes.sum();
+    }
+
+    @Override
+    public long getResizeTimeNanos() {
+        return resizeNanos.sum();
+    }
+
+    @Override
+    public long getBloomFilterRejectionCount() {
+        return filterRejections.sum();
+    }
+
+    @Override
+    public long getBloomFilterFalsePositiveCount() {
+        return filterFalsePositives.sum();
+    }
+
+    @Override
+    public double getBloomFilterFalsePositiveRate() {
+        long falsePositives = filterFalsePositives.sum();
+        long absent = falsePositives + filterRejections.sum();
+        return absent == 0 ? 0.0 : (double) falsePositives / absent;
+    }
+
+    @Override
+    public double getBloomFilterFill() {
+        BloomFilter filter = map.filter();
+        return filter == null ? 0.0 : filter.fill();
+    }
+
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        resizes.reset();
+        resizeNanos.reset();
+        filterRejections.reset();
+        filterFalsePositives.reset();
+    }
+
+    /**
+     * Publishes the metrics on the platform MBean server as
+     * "DataStructureLibrary:type=MyHashMap,name=(name)". Calling it again has no effect.
+     *
+     * @return The name the MXBean is registered under.
+     * @throws IllegalStateException if another MXBean is already registered under that name.
+     */
+    public synchronized ObjectName register() {
+        if (objectName == null) {
+            try {
+                ObjectName target = new ObjectName("DataStructureLibrary:type=MyHashMap,name=" + ObjectName.quote(name));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, target);
+                objectName = target;
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot register metrics for " + name + ".", e);
+            }
+        }
+        return objectName;
+    }
+
+    /**
+     * Removes the MXBean published by register, if any.
+     */
+    public synchronized void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                // Already unregistered by someone else: nothing left to do
+            }
+            objectName = null;
+        }
+    }
+}
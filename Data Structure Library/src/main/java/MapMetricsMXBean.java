@@ -0,0 +1,122 @@
+// MapMetricsMXBean.java
+
+/**
+ * MapMetricsMXBean interface is the JMX view of a MapMetrics object.
+ * MapMetrics.register publishes it on the platform MBean server, where tools such as
+ * JConsole and VisualVM can read it.
+ */
+public interface MapMetricsMXBean {
+    /**
+     * Returns the name the metrics were enabled with.
+     *
+     * @return The map's name.
+     */
+    String getName();
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return The size of the map.
+     */
+    int getSize();
+
+    /**
+     * Returns the number of buckets in the map's table.
+     *
+     * @return The capacity of the map.
+     */
+    int getCapacity();
+
+    /**
+     * Returns the current ratio of entries to buckets.
+     *
+     * @return The size divided by the capacity.
+     */
+    double getLoad();
+
+    /**
+     * Returns how many buckets hold each number of entries: element i is the number of
+     * buckets whose chain is i entries long, so element 0 counts the empty buckets.
+     * Every bucket is visited, so each call takes time proportional to the capacity.
+     *
+     * @return The chain-length histogram.
+     */
+    long[] getChainLengthHistogram();
+
+    /**
+     * Returns the length of the longest chain. Every bucket is visited, so each call takes
+     * time proportional to the capacity.
+     *
+     * @return The largest number of entries in one bucket.
+     */
+    int getMaxChainLength();
+
+    /**
+     * Returns the number of lookups (get and contains) that found their key.
+     *
+     * @return The hit count.
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of lookups (get and contains) that did not find their key.
+     *
+     * @return The miss count.
+     */
+    long getMissCount();
+
+    /**
+     * Returns the fraction of lookups that found their key.
+     *
+     * @return The hit rate between 0 and 1, or 0 if there were no lookups.
+     */
+    double getHitRate();
+
+    /**
+     * Returns the number of times the table has doubled.
+     *
+     * @return The resize count.
+     */
+    long getResizeCount();
+
+    /**
+     * Returns the total time spent resizing the table.
+     *
+     * @return The resize time in nanoseconds.
+     */
+    long getResizeTimeNanos();
+
+    /**
+     * Returns the number of lookups and removes the Bloom filter answered without reading a bucket.
+     *
+     * @return The rejection count, or 0 if the map has no Bloom filter.
+     */
+    long getBloomFilterRejectionCount();
+
+    /**
+     * Returns the number of lookups and removes of absent keys that the Bloom filter did not reject.
+     *
+     * @return The false-positive count, or 0 if the map has no Bloom filter.
+     */
+    long getBloomFilterFalsePositiveCount();
+
+    /**
+     * Returns the fraction of lookups of absent keys that the Bloom filter did not reject.
+     *
+     * @return The measured false-positive rate between 0 and 1, or 0 if there were none.
+     */
+    double getBloomFilterFalsePositiveRate();
+
+    /**
+     * Returns the fraction of the Bloom filter's bits that are set; the expected
+     * false-positive rate grows with it.
+     *
+     * @return The fill ratio between 0 and 1, or 0 if the map has no Bloom filter.
+     */
+    double getBloomFilterFill();
+
+    /**
+     * Sets every counter back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,352 @@
+// MappedSnapshot.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+
+/**
+ * MappedSnapshot class reads and writes the binary snapshot format of MyHashMap, and is
+ * also the lazy view returned by open.
+ *
+ * A snapshot file mirrors the map's bucket table:
+ *   header:    [int magic][int version][int flags][float load factor][int capacity][int size]
+ *   directory: capacity + 1 ints; bucket i's records run from entry i to entry i + 1
+ *   records:   [int hash][int key length][int value length][key bytes][value bytes]
+ * Records are grouped by bucket in chain order and keep the map's cached hash codes, so
+ * loading never hashes a key again: every record is appended straight onto its bucket in a
+ * table that already has the final size. A value length of -1 stands for a null value.
+ * Keys and values are turned into bytes by ValueCodecs.
+ *
+ * Files are written and read through a MappedByteBuffer, so a snapshot is limited to 2 GB.
+ * open maps the file and checks its header and bucket directory without decoding anything;
+ * the first lookup that lands in a bucket decodes just that bucket into an on-heap
+ * MyHashMap, and toMap decodes the rest. A record that does not fit its bucket, or that a
+ * codec cannot decode, is reported as an IOException by the call that decodes it.
+ *
+ * The NATURAL_HASH flag marks snapshots whose stored codes are the keys' own hashCode
+ * values, which are trusted as they are when loading. That is only correct for keys whose
+ * hashCode is computed from their contents in a way that does not change between runs,
+ * such as String, Integer or Long (which is what the built-in codecs produce). Keys that
+ * inherit Object.hashCode, or hash an enum or identity-hashed field, get different codes
+ * in another JVM, and a snapshot of them must not be loaded outside the JVM that wrote it.
+ */
+public class MappedSnapshot<K, V> {
+    // First int of every snapshot file ("MHMS")
+    static final int MAGIC = 0x4d484d53;
+    // Format version written by this class
+    static final int VERSION = 1;
+    // Flag set when the stored hash codes come from the keys' own hashCode
+    static final int NATURAL_HASH = 1;
+    // Size of the header in bytes; the bucket directory follows it
+    static final int HEADER = 24;
+    // Size of a record's fixed part (hash, key length, value length)
+    static final int RECORD_HEADER = 12;
+    // Value length recorded for a null value
+    private static final int NULL_LENGTH = -1;
+
+    // The mapped snapshot file
+    private final ByteBuffer buffer;
+    // Path of the snapshot file, for error messages
+    private final Path path;
+    // Decodes keys
+    private final ValueCodec<K> keyCodec;
+    // Decodes values
+    private final ValueCodec<V> valueCodec;
+    // Number of buckets in the snapshot's table
+    private final int capacity;
+    // Number of entries in the snapshot
+    private final int size;
+    // On-heap map receiving the decoded buckets
+    private final MyHashMap<K, V> map;
+    // Buckets that have already been decoded into map
+    private final BitSet loaded;
+    // Number of buckets decoded so far
+    private int loadedBuckets;
+
+    // Constructor for a view over a validated snapshot buffer
+    private MappedSnapshot(ByteBuffer buffer, Path path, ValueCodec<K> keyCodec, ValueCodec<V> valueCodec) {
+        this.buffer = buffer;
+        this.path = path;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.capacity = buffer.getInt(16);
+        this.size = buffer.getInt(20);
+        this.map = new MyHashMap<>(capacity, buffer.getFloat(12));
+        this.loaded = new BitSet(capacity);
+    }
+
+    /**
+     * Writes a snapshot of a map to a file, replacing the file if it exists.
+     * The snapshot is written to a temporary file next to the target, forced to disk and
+     * then moved into place, so a crash never leaves a half-written snapshot behind.
+     *
+     * @param source The map to save.
+     * @param path The file to write.
+     * @param keyCodec Encodes the keys.
+     * @param valueCodec Encodes the values.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if an argument is null.
+     * @throws IllegalStateException if the snapshot would be larger than 2 GB.
+     */
+    static <K, V> void write(MyHashMap<K, V> source, Path path, ValueCodec<? super K> keyCodec,
+                             ValueCodec<? super V> valueCodec) throws IOException {
+        if (path == null || keyCodec == null || valueCodec == null) {
+            throw new IllegalArgumentException("Path and codecs cannot be null.");
+        }
+        int capacity = source.capacity();
+        int directory = HEADER + 4 * (capacity + 1);
+        long total = directory;
+        for (int i = 0; i < capacity; i++) {
+            GenericQueue<V> queue = source.bucketAt(i);
+            for (GenericList<V>.Node<V> node = queue == null ? null : queue.getHead(); node != null; node = node.next) {
+                total += recordSize(node, keyCodec, valueCodec);
+            }
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Snapshot cannot be larger than 2 GB.");
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            out.putInt(0, MAGIC);
+            out.putInt(4, VERSION);
+            out.putInt(8, source.hasStrategy() ? 0 : NATURAL_HASH);
+            out.putFloat(12, source.loadFactor());
+            out.putInt(16, capacity);
+            out.putInt(20, source.size());
+            int position = directory;
+            for (int i = 0; i < capacity; i++) {
+                out.putInt(HEADER + 4 * i, position);
+                GenericQueue<V> queue = source.bucketAt(i);
+                for (GenericList<V>.Node<V> node = queue == null ? null : queue.getHead(); node != null; node = node.next) {
+                    position = writeRecord(out, position, node, keyCodec, valueCodec);
+                }
+            }
+            out.putInt(HEADER + 4 * capacity, position);
+            out.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Returns the number of bytes a node's record takes
+    @SuppressWarnings("unchecked")
+    private static <K, V> long recordSize(GenericList<V>.Node<V> node, ValueCodec<? super K> keyCodec,
+                                          ValueCodec<? super V> valueCodec) {
+        long size = RECORD_HEADER + keyCodec.size((K) node.key);
+        return node.data == null ? size : size + valueCodec.size(node.data);
+    }
+
+    // Writes a node's record at the given position and returns the position after it
+    @SuppressWarnings("unchecked")
+    private static <K, V> int writeRecord(ByteBuffer out, int position, GenericList<V>.Node<V> node,
+                                          ValueCodec<? super K> keyCodec, ValueCodec<? super V> valueCodec) {
+        K key = (K) node.key;
+        int keyLength = keyCodec.size(key);
+        int valueLength = node.data == null ? NULL_LENGTH : valueCodec.size(node.data);
+        out.putInt(position, node.code);
+        out.putInt(position + 4, keyLength);
+        out.putInt(position + 8, valueLength);
+        keyCodec.write(key, out, position + RECORD_HEADER);
+        if (node.data != null) {
+            valueCodec.write(node.data, out, position + RECORD_HEADER + keyLength);
+        }
+        return position + RECORD_HEADER + keyLength + Math.max(0, valueLength);
+    }
+
+    /**
+     * Maps a snapshot file without decoding any entries.
+     *
+     * @param path The snapshot file.
+     * @param keyCodec Decodes the keys; must match the codec used to save.
+     * @param valueCodec Decodes the values; must match the codec used to save.
+     * @return A lazy view of the snapshot.
+     * @throws IOException if the file cannot be read or is not a valid snapshot.
+     * @throws IllegalArgumentException if an argument is null.
+     */
+    public static <K, V> MappedSnapshot<K, V> open(Path path, ValueCodec<K> keyCodec, ValueCodec<V> valueCodec)
+            throws IOException {
+        if (path == null || keyCodec == null || valueCodec == null) {
+            throw new IllegalArgumentException("Path and codecs cannot be null.");
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a MyHashMap snapshot: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);  // Stays valid after the channel closes
+        }
+        validate(buffer, path);
+        return new MappedSnapshot<>(buffer, path, keyCodec, valueCodec);
+    }
+
+    // Checks the header and bucket directory of a mapped snapshot
+    private static void validate(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a MyHashMap snapshot: " + path);
+        }
+        int capacity = buffer.getInt(16);
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1 || capacity > MyHashMap.MAXIMUM_CAPACITY
+                || buffer.getInt(20) < 0 || !(buffer.getFloat(12) > 0)
+                || HEADER + 4L * (capacity + 1) > buffer.capacity()) {
+            throw new IOException("Corrupt MyHashMap snapshot: " + path);
+        }
+        // Bucket ranges must start right after the directory, never go backwards and end at
+        // the end of the file, so every range lies inside the records area
+        int previous = HEADER + 4 * (capacity + 1);
+        for (int i = 0; i <= capacity; i++) {
+            int offset = buffer.getInt(HEADER + 4 * i);
+            if (i == 0 ? offset != previous : offset < previous) {
+                throw new IOException("Corrupt MyHashMap snapshot directory at bucket " + i + ": " + path);
+            }
+            previous = offset;
+        }
+        if (previous != buffer.capacity()) {
+            throw new IOException("Corrupt MyHashMap snapshot directory: " + path);
+        }
+    }
+
+    /**
+     * Decodes every record of a bucket into map, once. The whole bucket is decoded before
+     * anything is added, so a corrupt record leaves the map and the view unchanged.
+     *
+     * @throws IOException if a record does not fit inside the bucket or cannot be decoded.
+     */
+    @SuppressWarnings("unchecked")
+    private void materialize(int bucket) throws IOException {
+        if (loaded.get(bucket)) {
+            return;
+        }
+        int position = buffer.getInt(HEADER + 4 * bucket);
+        int end = buffer.getInt(HEADER + 4 * (bucket + 1));
+        ArrayList<Object> decoded = new ArrayList<>();  // code, key and value of each record
+        while (position < end) {
+            if (end - position < RECORD_HEADER) {
+                throw corrupt(bucket, position, null);
+            }
+            int code = buffer.getInt(position);
+            int keyLength = buffer.getInt(position + 4);
+            int valueLength = buffer.getInt(position + 8);
+            long next = (long) position + RECORD_HEADER + keyLength + Math.max(0, valueLength);
+            if (keyLength < 0 || valueLength < NULL_LENGTH || next > end) {
+                throw corrupt(bucket, position, null);
+            }
+            try {
+                decoded.add(code);
+                decoded.add(keyCodec.read(buffer, position + RECORD_HEADER, keyLength));
+                decoded.add(valueLength == NULL_LENGTH ? null
+                        : valueCodec.read(buffer, position + RECORD_HEADER + keyLength, valueLength));
+            } catch (RuntimeException e) {
+                throw corrupt(bucket, position, e);
+            }
+            position = (int) next;
+        }
+        boolean natural = (buffer.getInt(8) & NATURAL_HASH) != 0;
+        for (int i = 0; i < decoded.size(); i += 3) {
+            K key = (K) decoded.get(i + 1);
+            V value = (V) decoded.get(i + 2);
+            if (natural) {
+                map.appendHashed(key, (Integer) decoded.get(i), value);  // Keys are known to be distinct: no search needed
+            } else {
+                map.put(key, value);  // Codes came from a HashingStrategy: hash the keys' own way
+            }
+        }
+        loaded.set(bucket);
+        loadedBuckets++;
+    }
+
+    // Builds the exception reported for an unreadable record
+    private IOException corrupt(int bucket, int position, RuntimeException cause) {
+        return new IOException("Corrupt MyHashMap snapshot record at offset " + position
+                + " in bucket " + bucket + ": " + path, cause);
+    }
+
+    // Decodes the bucket a key belongs to, if it has not been decoded yet
+    private void materialize(K key) throws IOException {
+        if ((buffer.getInt(8) & NATURAL_HASH) == 0) {
+            toMap();  // Buckets are not addressable by the keys' own hash: decode everything
+        } else {
+            materialize(MyHashMap.hash(key) & (capacity - 1));
+        }
+    }
+
+    /**
+     * Retrieves the value associated with the given key, decoding its bucket on first access.
+     *
+     * @param key The key to retrieve the value for.
+     * @return The value associated with the key, or null if the key does not exist.
+     * @throws IOException if the key's bucket is corrupt.
+     */
+    public V get(K key) throws IOException {
+        if (key == null) {
+            return null;
+        }
+        materialize(key);
+        return map.get(key);
+    }
+
+    /**
+     * Checks if the snapshot contains the given key, decoding its bucket on first access.
+     *
+     * @param key The key to check for.
+     * @return true if the key exists, false otherwise.
+     * @throws IOException if the key's bucket is corrupt.
+     */
+    public boolean contains(K key) throws IOException {
+        if (key == null) {
+            return false;
+        }
+        materialize(key);
+        return map.contains(key);
+    }
+
+    /**
+     * Returns the number of entries in the snapshot.
+     *
+     * @return The size recorded in the snapshot.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the snapshot is empty.
+     *
+     * @return true if the snapshot holds no entries, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the fraction of buckets decoded so far.
+     *
+     * @return A number between 0 and 1.
+     */
+    public double loadedFraction() {
+        return (double) loadedBuckets / capacity;
+    }
+
+    /**
+     * Decodes every bucket not yet decoded and returns the resulting map.
+     * The map is the one lookups on this view read from, and it is returned again by later
+     * calls; once it has been handed out, changes to it are visible through the view.
+     *
+     * @return A MyHashMap holding every entry of the snapshot.
+     * @throws IOException if a bucket is corrupt.
+     */
+    public MyHashMap<K, V> toMap() throws IOException {
+        for (int i = 0; i < capacity && loadedBuckets < capacity; i++) {
+            materialize(i);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,162 @@
+// MetricsEvents.java
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * MetricsEvents class holds the Java Flight Recorder events emitted by MapMetrics and
+ * QueueMetrics.
+ * A resize event is committed for every table resize of a map with metrics enabled. The
+ * statistics events are periodic: once a second (or at the period set in the recording's
+ * settings), JFR asks for the current figures of every map and queue with metrics enabled.
+ * The periodic hook runs on a JFR thread, so it only reads counters and fields the
+ * structures already keep up to date; chain lengths would need a scan of every bucket
+ * racing with the map's writers, and are left to explicit MapMetrics (or JMX) calls.
+ * Events cost almost nothing while no recording is running.
+ */
+final class MetricsEvents {
+    // Category shown for these events in JDK Mission Control
+    private static final String CATEGORY = "Data Structure Library";
+
+    // Metrics reported by the periodic events; weakly held so unused structures can be collected
+    private static final Set<MapMetrics> MAPS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final Set<QueueMetrics> QUEUES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        FlightRecorder.addPeriodicEvent(MapStatisticsEvent.class, MetricsEvents::emitMapStatistics);
+        FlightRecorder.addPeriodicEvent(QueueStatisticsEvent.class, MetricsEvents::emitQueueStatistics);
+    }
+
+    private MetricsEvents() {
+    }
+
+    /**
+     * MapResizeEvent records one doubling of a MyHashMap's table and how long it took.
+     */
+    @Name("datastructures.MapResize")
+    @Label("Map Resize")
+    @Category(CATEGORY)
+    @Description("A MyHashMap doubled its bucket table")
+    static final class MapResizeEvent extends Event {
+        @Label("Map")
+        String map;
+        @Label("Old Capacity")
+        int oldCapacity;
+        @Label("New Capacity")
+        int newCapacity;
+        @Label("Size")
+        int size;
+    }
+
+    /**
+     * MapStatisticsEvent is a periodic sample of a map's metrics.
+     */
+    @Name("datastructures.MapStatistics")
+    @Label("Map Statistics")
+    @Category(CATEGORY)
+    @Period("1 s")
+    @StackTrace(false)
+    static final class MapStatisticsEvent extends Event {
+        @Label("Map")
+        String map;
+        @Label("Size")
+        int size;
+        @Label("Capacity")
+        int capacity;
+        @Label("Load")
+        double load;
+        @Label("Hits")
+        long hits;
+        @Label("Misses")
+        long misses;
+        @Label("Resizes")
+        long resizes;
+        @Label("Bloom Filter False-Positive Rate")
+        double bloomFalsePositiveRate;
+    }
+
+    /**
+     * QueueStatisticsEvent is a periodic sample of a queue's metrics.
+     */
+    @Name("datastructures.QueueStatistics")
+    @Label("Queue Statistics")
+    @Category(CATEGORY)
+    @Period("1 s")
+    @StackTrace(false)
+    static final class QueueStatisticsEvent extends Event {
+        @Label("Queue")
+        String queue;
+        @Label("Depth")
+        int depth;
+        @Label("High-Water Mark")
+        long highWaterMark;
+        @Label("Enqueued")
+        long enqueued;
+        @Label("Dequeued")
+        long dequeued;
+    }
+
+    // Adds map metrics to the periodic statistics events
+    static void track(MapMetrics metrics) {
+        MAPS.add(metrics);
+    }
+
+    // Adds queue metrics to the periodic statistics events
+    static void track(QueueMetrics metrics) {
+        QUEUES.add(metrics);
+    }
+
+    // Removes map metrics from the periodic statistics events
+    static void untrack(MapMetrics metrics) {
+        MAPS.remove(metrics);
+    }
+
+    // Removes queue metrics from the periodic statistics events
+    static void untrack(QueueMetrics metrics) {
+        QUEUES.remove(metrics);
+    }
+
+    // Copies a registry so the periodic hooks do not hold its lock while emitting
+    private static <T> List<T> copyOf(Set<T> set) {
+        synchronized (set) {
+            return new ArrayList<>(set);
+        }
+    }
+
+    private static void emitMapStatistics() {
+        for (MapMetrics metrics : copyOf(MAPS)) {
+            MapStatisticsEvent event = new MapStatisticsEvent();
+            event.map = metrics.getName();
+            event.size = metrics.getSize();
+            event.capacity = metrics.getCapacity();
+            event.load = metrics.getLoad();
+            event.hits = metrics.getHitCount();
+            event.misses = metrics.getMissCount();
+            event.resizes = metrics.getResizeCount();
+            event.bloomFalsePositiveRate = metrics.getBloomFilterFalsePositiveRate();
+            event.commit();
+        }
+    }
+
+    private static void emitQueueStatistics() {
+        for (QueueMetrics metrics : copyOf(QUEUES)) {
+            QueueStatisticsEvent event = new QueueStatisticsEvent();
+            event.queue = metrics.getName();
+            event.depth = metrics.getDepth();
+            event.highWaterMark = metrics.getHighWaterMark();
+            event.enqueued = metrics.getEnqueueCount();
+            event.dequeued = metrics.getDequeueCount();
+            event.commit();
+        }
+    }
+}
@@ -1,138 +1,911 @@
 // MyHashMap.java
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * MyHashMap class represents a simplified implementation of a hash map data structure.
  * This class stores key-value pairs using an ArrayList of GenericQueue objects to handle collisions.
+ * Keys may be of any type; they are hashed and compared with their own hashCode and equals
+ * methods, or with a HashingStrategy supplied at construction.
  * The key is hashed to determine the index in the map, and collisions are resolved by adding
  * entries to a queue (GenericQueue) at that index.
+ *
+ * The number of buckets is always a power of two so the index can be computed with a mask,
+ * and the table doubles in size once the number of entries exceeds capacity * loadFactor.
+ * Each node caches its key's hash code, and chain walks compare it before calling equals.
+ * A bucket whose chain grows past TREEIFY_THRESHOLD entries is turned into a TreeBucket,
+ * which keeps lookups logarithmic when many keys collide.
+ *
+ * Entries can be removed with remove, clear, or the remove method of any iterator.
+ * keySet() and entries() walk the existing nodes directly and allocate nothing per
+ * element: every node is its own Map.Entry, so the entry iterator hands out the nodes.
+ *
+ * save and load write and restore the map as a memory-mapped binary snapshot, and
+ * MappedSnapshot.open gives a lazy view that decodes buckets as they are looked up.
+ * enableMetrics switches on optional MapMetrics, which can be exported via JMX and JFR.
+ * setIncrementalResize(true) spreads each resize over the puts and removes that follow it.
+ * freeze returns an immutable FrozenHashMap copy optimized for concurrent lookups.
+ * setBloomFilter(true) answers most lookups of absent keys without reading a bucket.
  */
-public class MyHashMap<T> implements Iterable<T> {
+public class MyHashMap<K, V> implements Iterable<V> {
+    // Number of buckets used when no initial capacity is given
+    static final int DEFAULT_CAPACITY = 16;
+    // Largest number of buckets the table can grow to (must be a power of two)
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+    // Ratio of entries to buckets used when no load factor is given
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    // Chain length at which a bucket is converted into a TreeBucket
+    static final int TREEIFY_THRESHOLD = 8;
+    // Size at or below which a TreeBucket split by a resize goes back to a plain chain
+    static final int UNTREEIFY_THRESHOLD = 6;
+    // Smallest table for which buckets are treeified; smaller tables are resized instead
+    static final int MIN_TREEIFY_CAPACITY = 64;
+    // Fewest old buckets moved per operation during an incremental resize
+    static final int MIN_MIGRATION_STEP = 4;
+
     // ArrayList of GenericQueues used to store key-value pairs and handle collisions
-    private ArrayList<GenericQueue<T>> map;
+    private ArrayList<GenericQueue<V>> map;
     // Number of key-value pairs stored in the hash map
     private int size;
+    // Ratio of entries to buckets at which the table is resized
+    private final float loadFactor;
+    // Number of entries at which the next resize happens (capacity * loadFactor)
+    private int threshold;
+    // Strategy used to hash and compare keys, or null to use the keys' own hashCode and equals
+    private final HashingStrategy<? super K> strategy;
+    // Statistics collected while metrics are enabled, or null when they are off
+    private MapMetrics metrics;
+    // Whether resizes are spread over later operations instead of done at once
+    private boolean incremental;
+    // Table being moved into map by an incremental resize, or null when none is in progress
+    private ArrayList<GenericQueue<V>> oldMap;
+    // Number of oldMap buckets already moved into map
+    private int migrated;
+    // Number of oldMap buckets moved by each put, get or remove
+    private int migrationStep;
+    // Filter of the hash codes in map, or null when the Bloom filter is off
+    private BloomFilter bloom;
+    // Filter of the hash codes in oldMap during an incremental resize, or null
+    private BloomFilter oldBloom;
+
+    /**
+     * Constructor initializes an empty hash map with the default capacity and load factor.
+     */
+    public MyHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor initializes an empty hash map with room for the given number of buckets.
+     *
+     * @param initialCapacity The requested number of buckets, rounded up to a power of two.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public MyHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor initializes an empty hash map with the given capacity and load factor.
+     *
+     * @param initialCapacity The requested number of buckets, rounded up to a power of two.
+     * @param loadFactor The ratio of entries to buckets at which the table doubles.
+     * @throws IllegalArgumentException if the capacity is negative or the load factor is not positive.
+     */
+    public MyHashMap(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, null);
+    }
+
+    /**
+     * Constructor initializes an empty hash map that hashes and compares keys with the given
+     * strategy instead of the keys' own hashCode and equals methods.
+     *
+     * @param strategy The hashing strategy for keys.
+     */
+    public MyHashMap(HashingStrategy<? super K> strategy) {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, strategy);
+    }
 
     /**
-     * Constructor initializes the hash map with a default size of 10.
+     * Constructor initializes an empty hash map with the given capacity, load factor and
+     * hashing strategy.
+     *
+     * @param initialCapacity The requested number of buckets, rounded up to a power of two.
+     * @param loadFactor The ratio of entries to buckets at which the table doubles.
+     * @param strategy The hashing strategy for keys, or null to use the keys' own hashCode and equals.
+     * @throws IllegalArgumentException if the capacity is negative or the load factor is not positive.
+     */
+    public MyHashMap(int initialCapacity, float loadFactor, HashingStrategy<? super K> strategy) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative.");
+        }
+        if (!(loadFactor > 0)) {  // Also rejects NaN
+            throw new IllegalArgumentException("Load factor must be positive.");
+        }
+        this.loadFactor = loadFactor;
+        this.strategy = strategy;
+        int capacity = tableSizeFor(initialCapacity);
+        map = newTable(capacity);
+        threshold = thresholdFor(capacity);
+        size = 0;
+    }
+
+    /**
+     * Constructor initializes the hash map with the default capacity.
      * The first key-value pair is added using the put method.
-     * 
+     *
      * @param key The key of the first key-value pair.
      * @param value The value associated with the key.
      */
-    public MyHashMap(String key, T value) {
-        map = new ArrayList<>(10);
-        // Initialize the ArrayList with null values
-        for (int i = 0; i < 10; i++) {
-            map.add(null);
-        }
-        size = 0;
+    public MyHashMap(K key, V value) {
+        this();
         put(key, value);  // Add the first key-value pair
     }
 
+    /**
+     * Spreads the higher bits of a hash code into the lower bits.
+     * Since the index is taken from the low bits only, this keeps keys whose hash codes
+     * differ only in the upper bits from landing in the same bucket.
+     *
+     * @param h The hash code to spread.
+     * @return The spread hash code.
+     */
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the spread hash code of a key using the key's own hashCode method.
+     *
+     * @param key The key to hash.
+     * @return The spread hash code.
+     */
+    static int hash(Object key) {
+        return spread(key.hashCode());
+    }
+
+    // Returns the spread hash code of a key, using the map's strategy if it has one
+    private int hashOf(K key) {
+        return spread(strategy == null ? key.hashCode() : strategy.hashCode(key));
+    }
+
+    // Checks whether a lookup key matches a stored key, using the map's strategy if it has one
+    @SuppressWarnings("unchecked")
+    private boolean keysEqual(K key, Object stored) {
+        return strategy == null ? key.equals(stored) : strategy.equals(key, (K) stored);
+    }
+
+    /**
+     * Returns the smallest power of two that is at least the requested capacity.
+     *
+     * @param capacity The requested number of buckets.
+     * @return A power of two between 1 and MAXIMUM_CAPACITY.
+     */
+    static int tableSizeFor(int capacity) {
+        return GenericList.powerOfTwoAtLeast(capacity);  // MAXIMUM_CAPACITY is the same 2^30 cap
+    }
+
+    // Creates a bucket table with every slot set to null
+    private static <V> ArrayList<GenericQueue<V>> newTable(int capacity) {
+        return new ArrayList<>(Collections.<GenericQueue<V>>nCopies(capacity, null));
+    }
+
+    // Computes the resize threshold for a table with the given number of buckets
+    private int thresholdFor(int capacity) {
+        if (capacity >= MAXIMUM_CAPACITY) {
+            return Integer.MAX_VALUE;
+        }
+        float limit = capacity * loadFactor;
+        return limit < Integer.MAX_VALUE ? (int) limit : Integer.MAX_VALUE;
+    }
+
     /**
      * Adds or updates a key-value pair in the hash map.
      * If the key already exists, the value is updated. If there is a collision (same index),
      * the key-value pair is added to the queue at that index.
-     * 
+     *
      * @param key The key associated with the value.
      * @param value The value to be stored.
      * @throws IllegalArgumentException if the key is null.
      */
-    public void put(String key, T value) {
+    public void put(K key, V value) {
         if (key == null) {
             throw new IllegalArgumentException("Key cannot be null.");
         }
-        int hashCode = key.hashCode();         // Generate the hash code for the key
-        int hashValue = hashCode & 9;          // Use bitwise AND to limit the index range (0-9)
-        GenericQueue<T> queue = map.get(hashValue);
+        putVal(key, hashOf(key), value);                 // Generate the spread hash code for the key
+    }
+
+    // Adds or updates a key-value pair whose spread hash code is already known
+    private void putVal(K key, int hashCode, V value) {
+        migrateStep();
+        ArrayList<GenericQueue<V>> table = tableFor(hashCode);
+        int hashValue = hashCode & (table.size() - 1);   // Mask the hash down to a bucket index
+        GenericQueue<V> queue = table.get(hashValue);
+        if (bloom != null) {
+            filterFor(table).add(hashCode);  // Adding an existing key again leaves the filter unchanged
+        }
 
         if (queue == null) {
             // If no queue exists at the index, create a new queue with the key, value, and hash code
             queue = new GenericQueue<>(key, value, hashCode);
-            map.set(hashValue, queue);
-            size++;  // Increment the size of the map
+            table.set(hashValue, queue);
+        } else if (queue instanceof TreeBucket) {
+            // Long chains are searched through their tree index
+            TreeBucket<V> tree = (TreeBucket<V>) queue;
+            GenericList<V>.Node<V> node = tree.find(key, hashCode);
+            if (node != null) {
+                node.data = value;  // Update the value if the key is found
+                return;
+            }
+            tree.add(key, value, hashCode);
         } else {
             // If a queue exists, check if the key already exists in the queue
-            GenericList<T>.Node<T> current = queue.getHead();
-            boolean found = false;
+            GenericList<V>.Node<V> current = queue.getHead();
             while (current != null) {
-                if (current.key != null && current.key.equals(key)) {
-                    // Update the value if the key is found
-                    current.data = value;
-                    found = true;
-                    break;
+                if (current.code == hashCode && keysEqual(key, current.key)) {
+                    current.data = value;  // Update the value if the key is found
+                    return;
                 }
                 current = current.next;
             }
-            if (!found) {
-                // If the key is not found, add a new node with the key, value, and hash code
-                queue.add(key, value, hashCode);
-                size++;  // Increment the size of the map
+            // If the key is not found, add a new node with the key, value, and hash code
+            queue.add(key, value, hashCode);
+            if (queue.getLength() >= TREEIFY_THRESHOLD) {
+                treeifyBucket(table, hashValue, queue);
             }
         }
+        if (++size > threshold) {
+            resize();  // Grow the table once it holds more entries than the load factor allows
+        }
     }
 
     /**
-     * Checks if the hash map contains the given key.
-     * 
-     * @param key The key to check for in the map.
-     * @return true if the key exists, false otherwise.
+     * Copies every key-value pair of another MyHashMap into this one.
+     * The table is grown once up front to fit both maps, and the source is walked bucket by
+     * bucket. If both maps hash keys the same way, the source's cached hash codes are reused
+     * instead of hashing every key again.
+     *
+     * @param other The map whose key-value pairs are to be added.
+     * @throws IllegalArgumentException if other is null.
      */
-    public boolean contains(String key) {
-        if (key == null) {
-            return false;
+    public void putAll(MyHashMap<? extends K, ? extends V> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Map cannot be null.");
+        }
+        if (other == this || other.size == 0) {
+            return;
+        }
+        presize(size + other.size);
+        other.finishResize();
+        boolean sameHash = other.strategy == strategy;
+        for (GenericQueue<? extends V> queue : other.map) {
+            if (queue == null) {
+                continue;
+            }
+            for (GenericList<? extends V>.Node<? extends V> node = queue.getHead(); node != null; node = node.next) {
+                @SuppressWarnings("unchecked")
+                K key = (K) node.key;
+                putVal(key, sameHash ? node.code : hashOf(key), node.data);
+            }
+        }
+    }
+
+    /**
+     * Copies every key-value pair of a java.util.Map into this one.
+     * The table is grown once up front to fit both maps. Each key is hashed once, and the
+     * pairs are then inserted grouped by bucket, so that each bucket is visited in one pass.
+     *
+     * @param other The map whose key-value pairs are to be added.
+     * @throws IllegalArgumentException if other is null or contains a null key.
+     */
+    public void putAll(Map<? extends K, ? extends V> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Map cannot be null.");
+        }
+        int count = other.size();
+        if (count == 0) {
+            return;
+        }
+        presize(size + count);
+        Object[] keys = new Object[count];
+        Object[] values = new Object[count];
+        int[] codes = new int[count];
+        long[] order = new long[count];  // Bucket index in the high half, entry position in the low half
+        int mask = map.size() - 1;
+        int n = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : other.entrySet()) {
+            K key = entry.getKey();
+            if (key == null) {
+                throw new IllegalArgumentException("Key cannot be null.");
+            }
+            keys[n] = key;
+            values[n] = entry.getValue();
+            codes[n] = hashOf(key);
+            order[n] = ((long) (codes[n] & mask) << 32) | n;
+            n++;
+        }
+        Arrays.sort(order, 0, n);
+        for (int i = 0; i < n; i++) {
+            int position = (int) order[i];
+            @SuppressWarnings("unchecked")
+            K key = (K) keys[position];
+            @SuppressWarnings("unchecked")
+            V value = (V) values[position];
+            putVal(key, codes[position], value);
+        }
+    }
+
+    /**
+     * Grows the table so that it can hold the given number of entries without resizing.
+     *
+     * @param expectedSize The number of entries the map is expected to hold.
+     */
+    private void presize(int expectedSize) {
+        if (expectedSize <= threshold) {
+            return;
         }
-        int hashCode = key.hashCode();
-        int hashValue = hashCode & 9;
-        GenericQueue<T> queue = map.get(hashValue);
+        if (size == 0) {
+            // Nothing to move: allocate the final table directly
+            int capacity = tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, (long) Math.ceil(expectedSize / (double) loadFactor)));
+            map = newTable(capacity);
+            dropOldTable();  // An empty map has nothing left to migrate
+            threshold = thresholdFor(capacity);
+            resetFilter();
+            return;
+        }
+        while (expectedSize > threshold && map.size() < MAXIMUM_CAPACITY) {
+            resize();
+        }
+    }
+
+    /**
+     * Converts a long chain into a TreeBucket. While the table is still small, most long
+     * chains are caused by the table itself rather than by colliding keys, so the table is
+     * doubled instead.
+     */
+    private void treeifyBucket(ArrayList<GenericQueue<V>> table, int index, GenericQueue<V> queue) {
+        if (map.size() < MIN_TREEIFY_CAPACITY) {
+            resize();
+        } else {
+            table.set(index, TreeBucket.treeify(queue, strategy));
+        }
+    }
+
+    /**
+     * Doubles the number of buckets and moves every entry into the new table.
+     * Because the capacity is a power of two, each old bucket splits into exactly two new
+     * buckets (same index, or index + old capacity), and the existing nodes are relinked
+     * rather than copied. A split TreeBucket stays a tree only if its half is still long.
+     *
+     * In incremental mode the new table is only allocated here; the old buckets are moved a
+     * few at a time by later operations (see migrateStep).
+     */
+    private void resize() {
+        if (oldMap != null) {
+            migrate(oldMap.size());  // Finish the previous incremental resize first
+        }
+        int oldCapacity = map.size();
+        if (oldCapacity >= MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+        if (metrics != null) {
+            metrics.resizeStarted();
+        }
+        int newCapacity = oldCapacity << 1;
+        ArrayList<GenericQueue<V>> newMap = newTable(newCapacity);
+        threshold = thresholdFor(newCapacity);
+        if (bloom != null) {
+            // The new filter is filled as buckets are split into the new table
+            oldBloom = incremental ? bloom : null;
+            bloom = new BloomFilter(threshold);
+        }
+        if (incremental) {
+            oldMap = map;
+            map = newMap;
+            migrated = 0;
+            // Move enough buckets per operation to finish well before the next resize is due
+            long room = Math.max(1L, (long) threshold - size);
+            migrationStep = (int) Math.max(MIN_MIGRATION_STEP, Math.min(oldCapacity, 2L * oldCapacity / room + 1));
+            return;
+        }
+        for (int i = 0; i < oldCapacity; i++) {
+            GenericQueue<V> queue = map.get(i);
+            if (queue != null) {
+                splitBucket(queue, i, oldCapacity, newMap);
+            }
+        }
+        map = newMap;
+        if (metrics != null) {
+            metrics.resizeFinished(oldCapacity, newCapacity);
+        }
+    }
+
+    // Relinks the nodes of old bucket i into the two new buckets it splits into
+    private void splitBucket(GenericQueue<V> queue, int i, int oldCapacity, ArrayList<GenericQueue<V>> newMap) {
+        GenericQueue<V> low = null;   // Entries that stay at index i
+        GenericQueue<V> high = null;  // Entries that move to index i + oldCapacity
+        GenericList<V>.Node<V> current = queue.getHead();
+        while (current != null) {
+            GenericList<V>.Node<V> next = current.next;
+            if (bloom != null) {
+                bloom.add(current.code);
+            }
+            if ((current.code & oldCapacity) == 0) {
+                if (low == null) {
+                    low = new GenericQueue<>();
+                }
+                low.linkLast(current);
+            } else {
+                if (high == null) {
+                    high = new GenericQueue<>();
+                }
+                high.linkLast(current);
+            }
+            current = next;
+        }
+        if (queue instanceof TreeBucket) {
+            low = retreeify(low);
+            high = retreeify(high);
+        }
+        newMap.set(i, low);
+        newMap.set(i + oldCapacity, high);
+    }
+
+    // Moves the next few old buckets into the new table if an incremental resize is in progress
+    private void migrateStep() {
+        if (oldMap != null) {
+            migrate(migrationStep);
+        }
+    }
+
+    // Moves up to count old buckets into the new table, ending the resize once all are moved
+    private void migrate(int count) {
+        ArrayList<GenericQueue<V>> old = oldMap;
+        int oldCapacity = old.size();
+        int end = (int) Math.min(oldCapacity, (long) migrated + count);
+        while (migrated < end) {
+            GenericQueue<V> queue = old.get(migrated);
+            if (queue != null) {
+                old.set(migrated, null);
+                splitBucket(queue, migrated, oldCapacity, map);
+            }
+            migrated++;
+        }
+        if (migrated == oldCapacity) {
+            oldMap = null;
+            oldBloom = null;
+            migrated = 0;
+            if (metrics != null) {
+                metrics.resizeFinished(oldCapacity, map.size());
+            }
+        }
+    }
+
+    // Ends an incremental resize in progress without moving anything; used once the map is empty
+    private void dropOldTable() {
+        if (oldMap != null) {
+            int oldCapacity = oldMap.size();
+            oldMap = null;
+            oldBloom = null;
+            migrated = 0;
+            if (metrics != null) {
+                metrics.resizeFinished(oldCapacity, map.size());
+            }
+        }
+    }
+
+    // Completes an incremental resize in progress, so that the whole map is in one table
+    private void finishResize() {
+        if (oldMap != null) {
+            migrate(oldMap.size());
+        }
+    }
+
+    /**
+     * Returns the table holding the bucket for a hash code. During an incremental resize,
+     * an old bucket that has not been moved yet still holds every key that maps to it.
+     */
+    private ArrayList<GenericQueue<V>> tableFor(int hashCode) {
+        ArrayList<GenericQueue<V>> old = oldMap;
+        if (old != null && (hashCode & (old.size() - 1)) >= migrated) {
+            return old;
+        }
+        return map;
+    }
+
+    /**
+     * Turns incremental resizing on or off. When it is on, growing the table allocates the
+     * new table right away but moves the old buckets a few at a time, during the following
+     * put and remove calls, so that no single call pays for the whole rehash. Lookups (get,
+     * contains, replace) never move buckets: until the move is complete they look each key
+     * up in whichever table holds its bucket, so they leave the map's structure unchanged.
+     * Iterators, streams and save first complete any move in progress.
+     * Turning the mode off completes the move immediately.
+     *
+     * @param incremental true to spread resizes over later operations.
+     */
+    public void setIncrementalResize(boolean incremental) {
+        this.incremental = incremental;
+        if (!incremental) {
+            finishResize();
+        }
+    }
+
+    /**
+     * Checks whether resizes are spread over later operations.
+     *
+     * @return true if incremental resizing is on.
+     */
+    public boolean isIncrementalResize() {
+        return incremental;
+    }
+
+    /**
+     * Checks whether an incremental resize is in progress.
+     *
+     * @return true if some entries are still in the old table.
+     */
+    public boolean isResizing() {
+        return oldMap != null;
+    }
+
+    /**
+     * Turns the Bloom filter in front of the table on or off. While it is on, every key's
+     * hash code is also recorded in a blocked Bloom filter (see BloomFilter), and get,
+     * contains, replace and remove check it first: most absent keys are then rejected after
+     * reading one cache line, without walking a bucket. The filter costs about 10 bits per
+     * entry and a few extra operations per put, and lookups of present keys read the filter
+     * as well as the bucket, so it pays off when most lookups miss. It is rebuilt whenever
+     * the table resizes; removed keys keep their bits until then. With metrics enabled, the
+     * keys rejected or let through by the filter are counted for every get, contains,
+     * replace and remove, and MapMetrics reports the measured false-positive rate.
+     *
+     * @param enabled true to build the filter from the current entries, false to drop it.
+     */
+    public void setBloomFilter(boolean enabled) {
+        if (!enabled) {
+            bloom = null;
+            oldBloom = null;
+            return;
+        }
+        finishResize();
+        bloom = new BloomFilter(threshold);
+        for (GenericQueue<V> queue : map) {
+            if (queue != null) {
+                for (GenericList<V>.Node<V> node = queue.getHead(); node != null; node = node.next) {
+                    bloom.add(node.code);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the Bloom filter is on.
+     *
+     * @return true if lookups are checked against a Bloom filter first.
+     */
+    public boolean hasBloomFilter() {
+        return bloom != null;
+    }
+
+    // Returns the Bloom filter of the given table (map or oldMap)
+    private BloomFilter filterFor(ArrayList<GenericQueue<V>> table) {
+        return table == map ? bloom : oldBloom;
+    }
+
+    // Empties the Bloom filter, if it is on, resizing it for the current threshold
+    private void resetFilter() {
+        if (bloom != null) {
+            bloom = new BloomFilter(threshold);
+            oldBloom = null;
+        }
+    }
+
+    // Returns the Bloom filter of the current table, or null if it is off (read by MapMetrics)
+    BloomFilter filter() {
+        return bloom;
+    }
+
+    // Rebuilds the tree for one half of a split TreeBucket if that half is still long
+    private GenericQueue<V> retreeify(GenericQueue<V> half) {
+        if (half == null || half.getLength() <= UNTREEIFY_THRESHOLD) {
+            return half;
+        }
+        return TreeBucket.treeify(half, strategy);
+    }
+
+    // Finds the node holding the given key, or returns null if the key is not in the map
+    private GenericList<V>.Node<V> findNode(K key) {
+        int hashCode = hashOf(key);
+        ArrayList<GenericQueue<V>> table = tableFor(hashCode);
+        if (bloom != null && !filterFor(table).mightContain(hashCode)) {
+            if (metrics != null) {
+                metrics.recordFilterRejection();
+            }
+            return null;  // Certainly absent: the bucket is never read
+        }
+        GenericList<V>.Node<V> node = findInBucket(table.get(hashCode & (table.size() - 1)), key, hashCode);
+        if (node == null) {
+            recordFilterFalsePositive();
+        }
+        return node;
+    }
+
+    // Counts an absent key the Bloom filter let through, if the filter and metrics are on
+    private void recordFilterFalsePositive() {
+        if (bloom != null && metrics != null) {
+            metrics.recordFilterFalsePositive();
+        }
+    }
 
+    // Searches one bucket for the node holding the given key, or returns null
+    private GenericList<V>.Node<V> findInBucket(GenericQueue<V> queue, K key, int hashCode) {
         if (queue == null) {
-            return false;  // Return false if no queue exists at the index
+            return null;  // Return null if no queue exists at the index
+        }
+        if (queue instanceof TreeBucket) {
+            return ((TreeBucket<V>) queue).find(key, hashCode);
         }
-        // Traverse the queue to check if the key exists
-        GenericList<T>.Node<T> current = queue.getHead();
+        // Traverse the queue, rejecting nodes by their cached hash before comparing keys
+        GenericList<V>.Node<V> current = queue.getHead();
         while (current != null) {
-            if (current.key != null && current.key.equals(key)) {
-                return true;  // Return true if the key is found
+            if (current.code == hashCode && keysEqual(key, current.key)) {
+                return current;
             }
             current = current.next;
         }
-        return false;  // Return false if the key is not found
+        return null;
+    }
+
+    /**
+     * Appends an entry whose key is known not to be in the map, without searching its bucket.
+     * Used to restore snapshots, whose hash codes were cached by a map hashing the same way.
+     *
+     * @param key The key, not already present.
+     * @param hashCode The spread hash code of the key.
+     * @param value The value to be stored.
+     */
+    void appendHashed(K key, int hashCode, V value) {
+        ArrayList<GenericQueue<V>> table = tableFor(hashCode);
+        if (bloom != null) {
+            filterFor(table).add(hashCode);
+        }
+        int index = hashCode & (table.size() - 1);
+        GenericQueue<V> queue = table.get(index);
+        if (queue == null) {
+            table.set(index, new GenericQueue<>(key, value, hashCode));
+        } else {
+            queue.add(key, value, hashCode);
+            if (!(queue instanceof TreeBucket) && queue.getLength() >= TREEIFY_THRESHOLD
+                    && map.size() >= MIN_TREEIFY_CAPACITY) {
+                table.set(index, TreeBucket.treeify(queue, strategy));
+            }
+        }
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    // Returns the bucket at the given table index, or null if it is empty
+    GenericQueue<V> bucketAt(int index) {
+        return map.get(index);
+    }
+
+    // Returns the old table of an incremental resize in progress, or null (read by MapMetrics)
+    ArrayList<GenericQueue<V>> oldTable() {
+        return oldMap;
+    }
+
+    // Returns the load factor the map was created with
+    float loadFactor() {
+        return loadFactor;
+    }
+
+    // Checks whether the map hashes keys with a HashingStrategy instead of their own hashCode
+    boolean hasStrategy() {
+        return strategy != null;
+    }
+
+    // Returns the map's HashingStrategy, or null if keys use their own hashCode and equals
+    HashingStrategy<? super K> strategy() {
+        return strategy;
+    }
+
+    /**
+     * Creates an immutable, read-optimized copy of the map for data that is no longer
+     * modified. The copy keeps its entries in flat arrays, reports the measured worst-case
+     * probes per lookup, and can be read by many threads without synchronization; see FrozenHashMap.
+     * Later changes to this map do not affect the copy.
+     *
+     * @return A FrozenHashMap holding the current entries.
+     */
+    public FrozenHashMap<K, V> freeze() {
+        finishResize();
+        return new FrozenHashMap<>(this);
+    }
+
+    /**
+     * Saves the map to a binary snapshot file that load can restore without rehashing.
+     * The file keeps the bucket table layout and cached hash codes; see MappedSnapshot.
+     *
+     * @param path The file to write; it is replaced if it exists.
+     * @param keyCodec Encodes the keys.
+     * @param valueCodec Encodes the values.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if an argument is null.
+     * @throws IllegalStateException if the snapshot would be larger than 2 GB.
+     */
+    public void save(Path path, ValueCodec<? super K> keyCodec, ValueCodec<? super V> valueCodec) throws IOException {
+        finishResize();
+        MappedSnapshot.write(this, path, keyCodec, valueCodec);
+    }
+
+    /**
+     * Restores a map saved with save. The table is created at its final size and every entry
+     * is appended straight onto its bucket using the saved hash code.
+     * A snapshot of a map that used a HashingStrategy is restored with the keys' own hashCode
+     * and equals, since strategies are not saved. Otherwise the saved hash codes are trusted,
+     * so keys must have a hashCode that is stable across JVMs (String, Integer, Long and the
+     * like); see MappedSnapshot.
+     *
+     * @param path The snapshot file.
+     * @param keyCodec Decodes the keys; must match the codec used to save.
+     * @param valueCodec Decodes the values; must match the codec used to save.
+     * @return A new map holding the snapshot's entries.
+     * @throws IOException if the file cannot be read or is not a valid snapshot.
+     * @throws IllegalArgumentException if an argument is null.
+     */
+    public static <K, V> MyHashMap<K, V> load(Path path, ValueCodec<K> keyCodec, ValueCodec<V> valueCodec)
+            throws IOException {
+        return MappedSnapshot.open(path, keyCodec, valueCodec).toMap();
+    }
+
+    // Returns the bucket the given key maps to (used by tests to inspect treeification)
+    GenericQueue<V> bucketOf(K key) {
+        ArrayList<GenericQueue<V>> table = tableFor(hashOf(key));
+        return table.get(hashOf(key) & (table.size() - 1));
+    }
+
+    /**
+     * Checks if the hash map contains the given key.
+     *
+     * @param key The key to check for in the map.
+     * @return true if the key exists, false otherwise.
+     */
+    public boolean contains(K key) {
+        if (key == null) {
+            return false;
+        }
+        GenericList<V>.Node<V> node = findNode(key);
+        if (metrics != null) {
+            recordLookup(node != null);
+        }
+        return node != null;
     }
 
     /**
      * Retrieves the value associated with the given key.
-     * 
+     *
      * @param key The key to retrieve the value for.
      * @return The value associated with the key, or null if the key does not exist.
      */
-    public T get(String key) {
+    public V get(K key) {
         if (key == null) {
             return null;
         }
-        int hashCode = key.hashCode();
-        int hashValue = hashCode & 9;
-        GenericQueue<T> queue = map.get(hashValue);
+        GenericList<V>.Node<V> node = findNode(key);
+        if (metrics != null) {
+            recordLookup(node != null);
+        }
+        return node == null ? null : node.data;
+    }
+
+    // Counts a lookup in the map's metrics
+    private void recordLookup(boolean hit) {
+        if (hit) {
+            metrics.recordHit();
+        } else {
+            metrics.recordMiss();
+        }
+    }
 
+    /**
+     * Removes the key-value pair for the given key, if the key exists.
+     * A TreeBucket that shrinks to UNTREEIFY_THRESHOLD entries goes back to a plain chain.
+     *
+     * @param key The key whose key-value pair is to be removed.
+     * @return The value that was associated with the key, or null if the key did not exist.
+     */
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        migrateStep();
+        int hashCode = hashOf(key);
+        ArrayList<GenericQueue<V>> table = tableFor(hashCode);
+        if (bloom != null && !filterFor(table).mightContain(hashCode)) {
+            if (metrics != null) {
+                metrics.recordFilterRejection();
+            }
+            return null;  // Certainly absent
+        }
+        int index = hashCode & (table.size() - 1);
+        GenericQueue<V> queue = table.get(index);
         if (queue == null) {
+            recordFilterFalsePositive();
             return null;  // Return null if no queue exists at the index
         }
-        // Traverse the queue to find the value associated with the key
-        GenericList<T>.Node<T> current = queue.getHead();
-        while (current != null) {
-            if (current.key != null && current.key.equals(key)) {
-                return current.data;  // Return the value if the key is found
+        GenericList<V>.Node<V> node;
+        if (queue instanceof TreeBucket) {
+            node = ((TreeBucket<V>) queue).find(key, hashCode);
+        } else {
+            node = queue.getHead();
+            while (node != null && !(node.code == hashCode && keysEqual(key, node.key))) {
+                node = node.next;
             }
-            current = current.next;
         }
-        return null;  // Return null if the key is not found
+        if (node == null) {
+            recordFilterFalsePositive();
+            return null;  // Return null if the key is not found
+        }
+        unlinkNode(table, index, queue, node);
+        return node.data;
+    }
+
+    /**
+     * Removes a node that is known to be in the map. Used by the iterators' remove method.
+     *
+     * @param node The node to remove.
+     */
+    void removeNode(GenericList<V>.Node<V> node) {
+        ArrayList<GenericQueue<V>> table = tableFor(node.code);
+        int index = node.code & (table.size() - 1);
+        GenericQueue<V> queue = table.get(index);
+        // A node already removed by other means is no longer linked, unless it was the head
+        if (queue != null && (node.prev != null || queue.getHead() == node)) {
+            unlinkNode(table, index, queue, node);
+        }
+    }
+
+    // Unlinks node from the bucket at index, dropping empty buckets and untreeifying short trees
+    private void unlinkNode(ArrayList<GenericQueue<V>> table, int index, GenericQueue<V> queue, GenericList<V>.Node<V> node) {
+        queue.unlink(node);
+        size--;
+        if (queue.getLength() == 0) {
+            table.set(index, null);
+        } else if (queue instanceof TreeBucket && queue.getLength() <= UNTREEIFY_THRESHOLD) {
+            table.set(index, ((TreeBucket<V>) queue).untreeify());
+        }
+    }
+
+    /**
+     * Removes every key-value pair from the hash map. The number of buckets is kept, so a map
+     * that is refilled to the same size does not have to grow again.
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Collections.fill(map, null);
+        dropOldTable();
+        size = 0;
+        resetFilter();
     }
 
     /**
      * Returns the number of key-value pairs stored in the hash map.
-     * 
+     *
      * @return The size of the hash map.
      */
     public int size() {
@@ -141,51 +914,271 @@ public class MyHashMap<T> implements Iterable<T> {
 
     /**
      * Checks if the hash map is empty (contains no key-value pairs).
-     * 
+     *
      * @return true if the map is empty, false otherwise.
      */
     public boolean isEmpty() {
         return size == 0;
     }
 
+    /**
+     * Returns the current number of buckets in the table.
+     *
+     * @return The bucket count, always a power of two.
+     */
+    public int capacity() {
+        return map.size();
+    }
+
     /**
      * Replaces the value for the given key, if the key exists.
-     * 
+     *
      * @param key The key whose associated value is to be replaced.
      * @param value The new value to be associated with the key.
      * @return The previous value associated with the key, or null if the key did not exist.
      */
-    public T replace(String key, T value) {
+    public V replace(K key, V value) {
         if (key == null) {
             return null;
         }
-        int hashCode = key.hashCode();
-        int hashValue = hashCode & 9;
-        GenericQueue<T> queue = map.get(hashValue);
+        GenericList<V>.Node<V> node = findNode(key);
+        if (node == null) {
+            return null;  // Return null if the key is not found
+        }
+        V oldValue = node.data;
+        node.data = value;  // Replace the old value with the new value
+        return oldValue;    // Return the old value
+    }
 
-        if (queue == null) {
-            return null;  // Return null if no queue exists at the index
+    /**
+     * Starts collecting metrics for this map: lookup hits and misses, resize count and time,
+     * and on-demand table figures such as the chain-length histogram. If metrics are already
+     * enabled, the existing metrics are returned.
+     *
+     * @param name The name identifying the map in JMX and JFR.
+     * @return The map's metrics.
+     * @throws IllegalArgumentException if the name is null.
+     */
+    public MapMetrics enableMetrics(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null.");
         }
-        // Traverse the queue to replace the value associated with the key
-        GenericList<T>.Node<T> current = queue.getHead();
-        while (current != null) {
-            if (current.key != null && current.key.equals(key)) {
-                T oldValue = current.data;
-                current.data = value;  // Replace the old value with the new value
-                return oldValue;       // Return the old value
-            }
-            current = current.next;
+        if (metrics == null) {
+            metrics = new MapMetrics(name, this);
         }
-        return null;  // Return null if the key is not found
+        return metrics;
+    }
+
+    /**
+     * Starts collecting metrics for this map under a name made from its identity hash code.
+     *
+     * @return The map's metrics.
+     */
+    public MapMetrics enableMetrics() {
+        return enableMetrics("MyHashMap@" + Integer.toHexString(System.identityHashCode(this)));
+    }
+
+    /**
+     * Stops collecting metrics, unregistering them from JMX and JFR.
+     */
+    public void disableMetrics() {
+        if (metrics != null) {
+            metrics.close();
+            metrics = null;
+        }
+    }
+
+    /**
+     * Returns the map's metrics.
+     *
+     * @return The metrics, or null if they are not enabled.
+     */
+    public MapMetrics metrics() {
+        return metrics;
     }
 
     /**
      * Returns an iterator to iterate over the values stored in the hash map.
-     * 
+     *
      * @return An iterator for the hash map.
      */
     @Override
-    public Iterator<T> iterator() {
-        return new HMIterator<>(map);  // Return an HMIterator to iterate over the map
+    public Iterator<V> iterator() {
+        finishResize();
+        return new HMIterator<>(map, this);  // Return an HMIterator to iterate over the map
+    }
+
+    /**
+     * Returns a Spliterator over the values stored in the hash map.
+     * It splits the table by bucket range; values may be null or repeated.
+     *
+     * @return A spliterator for the hash map's values.
+     */
+    @Override
+    public Spliterator<V> spliterator() {
+        finishResize();
+        return new ValueSpliterator(map, 0, map.size(), size, true);
+    }
+
+    /**
+     * Returns a sequential stream over the values stored in the hash map.
+     *
+     * @return A stream of the hash map's values.
+     */
+    public Stream<V> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream over the values stored in the hash map.
+     * The map must not be modified while the stream is running.
+     *
+     * @return A parallel stream of the hash map's values.
+     */
+    public Stream<V> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a Set view of the keys in the hash map. The set is backed by the map, so
+     * removing a key from the set (or through its iterator) removes it from the map.
+     * Keys cannot be added through the set.
+     *
+     * @return A set view of the keys.
+     */
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    /**
+     * Returns the key-value pairs of the hash map for use in a for-each loop.
+     * Each entry is the map's own node for the pair, so iterating allocates nothing per
+     * element. Entries keep showing their pair after the iterator advances and follow the
+     * Map.Entry equals and hashCode contract. setValue writes through to the map, and the
+     * iterator's remove method removes the current pair.
+     *
+     * @return An Iterable over the key-value pairs.
+     */
+    public Iterable<Map.Entry<K, V>> entries() {
+        return () -> {
+            finishResize();
+            return new EntryIterator(map, this);
+        };
+    }
+
+    // Set view of the keys, backed by the map
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return MyHashMap.this.contains((K) o);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (o == null) {
+                return false;
+            }
+            GenericList<V>.Node<V> node = findNode((K) o);
+            if (node == null) {
+                return false;
+            }
+            removeNode(node);  // Unlink the node already found instead of searching again
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            finishResize();
+            return new KeyIterator(map, MyHashMap.this);
+        }
+
+        @Override
+        public Spliterator<K> spliterator() {
+            finishResize();
+            return new KeySpliterator(map, 0, map.size(), size, true);
+        }
+    }
+
+    // Splits the values by bucket range
+    private final class ValueSpliterator extends HashSpliterator<V, V> {
+        ValueSpliterator(ArrayList<GenericQueue<V>> table, int origin, int fence, int estimate, boolean sized) {
+            super(table, origin, fence, estimate, sized);
+        }
+
+        @Override
+        V element(GenericList<V>.Node<V> node) {
+            return node.data;
+        }
+
+        @Override
+        HashSpliterator<V, V> newSpliterator(int origin, int fence, int estimate) {
+            return new ValueSpliterator(table, origin, fence, estimate, false);
+        }
+
+        @Override
+        int elementCharacteristics() {
+            return 0;  // Values may be null and may repeat
+        }
+    }
+
+    // Splits the keys by bucket range
+    private final class KeySpliterator extends HashSpliterator<V, K> {
+        KeySpliterator(ArrayList<GenericQueue<V>> table, int origin, int fence, int estimate, boolean sized) {
+            super(table, origin, fence, estimate, sized);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        K element(GenericList<V>.Node<V> node) {
+            return (K) node.key;
+        }
+
+        @Override
+        HashSpliterator<V, K> newSpliterator(int origin, int fence, int estimate) {
+            return new KeySpliterator(table, origin, fence, estimate, false);
+        }
+
+        @Override
+        int elementCharacteristics() {
+            return DISTINCT | NONNULL;  // Keys are unique and never null
+        }
+    }
+
+    // Iterates over the keys stored in the nodes
+    private final class KeyIterator extends HashIterator<V, K> {
+        KeyIterator(ArrayList<GenericQueue<V>> table, MyHashMap<K, V> owner) {
+            super(table, owner);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        K element(GenericList<V>.Node<V> node) {
+            return (K) node.key;
+        }
+    }
+
+    // Iterates over the key-value pairs, returning each node as its own entry
+    private final class EntryIterator extends HashIterator<V, Map.Entry<K, V>> {
+        EntryIterator(ArrayList<GenericQueue<V>> table, MyHashMap<K, V> owner) {
+            super(table, owner);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Map.Entry<K, V> element(GenericList<V>.Node<V> node) {
+            return (Map.Entry<K, V>) (Map.Entry<?, V>) node;  // Node keys are stored as Object but are always K
+        }
     }
 }
@@ -0,0 +1,64 @@
+// OHMIterator.java
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * OHMIterator class provides an implementation of the Iterator interface
+ * to iterate over the values stored in an OpenHashMap.
+ * This iterator scans the slot arrays in order and skips empty slots.
+ */
+public class OHMIterator<T> implements Iterator<T> {
+    // Key array of the map; a null key marks an empty slot
+    private final String[] keys;
+    // Value array of the map
+    private final Object[] values;
+    // Index of the next occupied slot, or keys.length if there is none
+    private int index;
+
+    /**
+     * Constructor initializes the iterator with the slot arrays to iterate over.
+     *
+     * @param keys The key array of the OpenHashMap.
+     * @param values The value array of the OpenHashMap.
+     */
+    public OHMIterator(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.index = 0;
+        advance();  // Move to the first occupied slot
+    }
+
+    // Moves index forward to the next occupied slot
+    private void advance() {
+        while (index < keys.length && keys[index] == null) {
+            index++;
+        }
+    }
+
+    /**
+     * Checks if there is another value in the map to iterate over.
+     *
+     * @return true if there is a next element, false otherwise.
+     */
+    @Override
+    public boolean hasNext() {
+        return index < keys.length;
+    }
+
+    /**
+     * Returns the next value in the map and advances the iterator.
+     *
+     * @return The next value in the map.
+     * @throws NoSuchElementException if there are no more elements to iterate over.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more elements to iterate.");
+        }
+        T value = (T) values[index++];
+        advance();
+        return value;
+    }
+}
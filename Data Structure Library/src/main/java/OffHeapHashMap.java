@@ -0,0 +1,456 @@
+// OffHeapHashMap.java
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * OffHeapHashMap class is a String-keyed hash map that keeps its keys and values outside the
+ * Java heap, with the same put/get/contains/replace/remove/size/isEmpty/iterator operations
+ * as MyHashMap.
+ *
+ * Each entry is written as one record into a direct ByteBuffer (the slab):
+ *   [int hash][int key length][int value length][UTF-8 key bytes][encoded value bytes]
+ * A value length of -1 stands for a null value. The on-heap part of the map is just two
+ * int arrays of open-addressed slots (record offset + 1, with 0 for an empty slot, and the
+ * cached hash), so the garbage collector has no per-entry objects to trace. Values are
+ * turned into bytes by a ValueCodec and decoded again on every get.
+ *
+ * Updating a value writes it in place when the new encoding is not longer than the old one;
+ * otherwise a new record is appended and the old one becomes garbage. When the slab fills up,
+ * only the live records are copied into the new slab, so garbage is reclaimed as it grows.
+ * The slab is a single ByteBuffer, so the total size of the records is limited to 2 GB.
+ *
+ * Keys must be valid UTF-16: a key with an unpaired surrogate has no UTF-8 encoding, and
+ * every method given one throws an IllegalArgumentException rather than storing or looking
+ * up a lossy substitute that another key could share (see Utf8).
+ */
+public class OffHeapHashMap<V> implements Iterable<V> {
+    // Number of bytes in a record header (hash, key length, value length)
+    static final int HEADER = 12;
+    // Slab size used when no initial size is given
+    static final int DEFAULT_SLAB_BYTES = 1 << 16;
+    // Largest slab that can be allocated
+    static final int MAXIMUM_SLAB_BYTES = Integer.MAX_VALUE - 8;
+    // Value length recorded for a null value
+    private static final int NULL_LENGTH = -1;
+
+    // Converts values to and from bytes
+    private final ValueCodec<V> codec;
+    // Direct buffer holding every record
+    private ByteBuffer slab;
+    // Number of slab bytes written so far (the next record goes here)
+    private int used;
+    // Number of slab bytes belonging to replaced or removed records
+    private int garbage;
+    // Offset + 1 of each slot's record, or 0 for an empty slot
+    private int[] offsets;
+    // Hash codes of the slots' keys, compared before the key bytes
+    private int[] hashes;
+    // Number of key-value pairs stored in the map
+    private int size;
+    // Number of entries at which the index doubles
+    private int threshold;
+
+    /**
+     * Constructor initializes an empty map with the default index and slab sizes.
+     *
+     * @param codec The codec used to store values.
+     */
+    public OffHeapHashMap(ValueCodec<V> codec) {
+        this(OpenHashMap.DEFAULT_CAPACITY, DEFAULT_SLAB_BYTES, codec);
+    }
+
+    /**
+     * Constructor initializes an empty map.
+     *
+     * @param initialCapacity The requested number of index slots, rounded up to a power of two.
+     * @param slabBytes The initial size of the off-heap slab in bytes; it doubles when full.
+     * @param codec The codec used to store values.
+     * @throws IllegalArgumentException if a size is negative or the codec is null.
+     */
+    public OffHeapHashMap(int initialCapacity, int slabBytes, ValueCodec<V> codec) {
+        if (initialCapacity < 0 || slabBytes < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec cannot be null.");
+        }
+        this.codec = codec;
+        this.slab = ByteBuffer.allocateDirect(Math.max(HEADER, slabBytes));
+        allocateIndex(Math.max(2, MyHashMap.tableSizeFor(initialCapacity)));
+    }
+
+    // Creates an empty index with the given number of slots and updates the threshold
+    private void allocateIndex(int capacity) {
+        offsets = new int[capacity];
+        hashes = new int[capacity];
+        threshold = Math.min((int) (capacity * OpenHashMap.DEFAULT_LOAD_FACTOR), capacity - 1);
+    }
+
+    // Record fields, read at absolute slab offsets
+    private int keyLength(int record) {
+        return slab.getInt(record + 4);
+    }
+
+    private int valueLength(int record) {
+        return slab.getInt(record + 8);
+    }
+
+    // Total bytes taken by a record
+    private int recordSize(int record) {
+        return HEADER + keyLength(record) + Math.max(0, valueLength(record));
+    }
+
+    /**
+     * Returns the slot holding the given key, or the bitwise complement of the empty slot
+     * where it would be inserted if the key is not present.
+     */
+    private int findSlot(CharSequence key, int hashCode) {
+        int mask = offsets.length - 1;
+        int index = hashCode & mask;
+        int stored;
+        while ((stored = offsets[index]) != 0) {
+            int record = stored - 1;
+            if (hashes[index] == hashCode && Utf8.equals(key, slab, record + HEADER, keyLength(record))) {
+                return index;
+            }
+            index = (index + 1) & mask;  // Linear probing: try the next slot
+        }
+        return ~index;
+    }
+
+    /**
+     * Makes sure the slab has room for extra more bytes. A full slab is copied into a new one
+     * without its garbage, doubled as needed so live records fill at most half of it.
+     */
+    private void ensureRoom(int extra) {
+        if ((long) used + extra <= slab.capacity()) {
+            return;
+        }
+        long needed = (long) used - garbage + extra;
+        if (needed > MAXIMUM_SLAB_BYTES) {
+            throw new IllegalStateException("OffHeapHashMap is full.");
+        }
+        long capacity = slab.capacity();
+        while (capacity < needed * 2 && capacity < MAXIMUM_SLAB_BYTES) {
+            capacity = Math.min(MAXIMUM_SLAB_BYTES, capacity * 2);
+        }
+        relocate((int) Math.max(capacity, needed));
+    }
+
+    /**
+     * Copies every live record into a new slab of the given size, dropping garbage, and
+     * points the index at the new offsets.
+     */
+    private void relocate(int capacity) {
+        ByteBuffer fresh = ByteBuffer.allocateDirect(capacity);
+        int position = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] == 0) {
+                continue;
+            }
+            int record = offsets[i] - 1;
+            int length = recordSize(record);
+            copy(slab, record, fresh, position, length);
+            offsets[i] = position + 1;
+            position += length;
+        }
+        slab = fresh;
+        used = position;
+        garbage = 0;
+    }
+
+    // Size in bytes of a value's encoding (0 for null)
+    private int encodedSize(V value) {
+        return value == null ? 0 : codec.size(value);
+    }
+
+    // Appends a new record and returns its offset
+    private int appendRecord(CharSequence key, int keyLength, int hashCode, V value, int valueSize) {
+        ensureRoom(HEADER + keyLength + valueSize);
+        int record = used;
+        slab.putInt(record, hashCode);
+        slab.putInt(record + 4, keyLength);
+        Utf8.encode(key, slab, record + HEADER);
+        writeValue(record, keyLength, value, valueSize);
+        used += HEADER + keyLength + valueSize;
+        return record;
+    }
+
+    // Writes a value (and its length) into a record whose value area is large enough
+    private void writeValue(int record, int keyLength, V value, int valueSize) {
+        slab.putInt(record + 8, value == null ? NULL_LENGTH : valueSize);
+        if (value != null) {
+            codec.write(value, slab, record + HEADER + keyLength);
+        }
+    }
+
+    // Decodes the value of a record
+    private V readValue(int record) {
+        int length = valueLength(record);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        return codec.read(slab, record + HEADER + keyLength(record), length);
+    }
+
+    // Stores a new value for the key in the given slot, in place if it fits
+    private void updateValue(int slot, V value) {
+        int record = offsets[slot] - 1;
+        int keyLength = keyLength(record);
+        int valueSize = encodedSize(value);
+        if (valueSize <= Math.max(0, valueLength(record))) {
+            garbage += Math.max(0, valueLength(record)) - valueSize;  // Unused tail of the old value
+            writeValue(record, keyLength, value, valueSize);
+            return;
+        }
+        // Too long for the old record: write a new one and abandon the old one
+        int oldSize = recordSize(record);
+        ensureRoom(HEADER + keyLength + valueSize);
+        record = offsets[slot] - 1;  // ensureRoom may have moved the record
+        int fresh = used;
+        copy(slab, record, slab, fresh, HEADER + keyLength);  // Copy the header and key bytes
+        writeValue(fresh, keyLength, value, valueSize);
+        used += HEADER + keyLength + valueSize;
+        offsets[slot] = fresh + 1;
+        garbage += oldSize;
+    }
+
+    // Copies length bytes between absolute offsets with one bulk transfer
+    private static void copy(ByteBuffer from, int fromOffset, ByteBuffer to, int toOffset, int length) {
+        ByteBuffer source = from.duplicate();
+        source.limit(fromOffset + length).position(fromOffset);
+        ByteBuffer target = to.duplicate();
+        target.position(toOffset);
+        target.put(source);
+    }
+
+    /**
+     * Adds or updates a key-value pair in the map.
+     *
+     * @param key The key associated with the value.
+     * @param value The value to be stored (may be null).
+     * @throws IllegalArgumentException if the key is null or contains an unpaired surrogate.
+     * @throws IllegalStateException if the slab cannot grow any further.
+     */
+    public void put(String key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+        int hashCode = Utf8.hash(key);
+        int slot = findSlot(key, hashCode);
+        if (slot >= 0) {
+            updateValue(slot, value);  // Update the value if the key is found
+            return;
+        }
+        int record = appendRecord(key, Utf8.encodedLength(key), hashCode, value, encodedSize(value));
+        slot = ~slot;  // Growing the slab moves records but never the index slots
+        offsets[slot] = record + 1;
+        hashes[slot] = hashCode;
+        if (++size > threshold) {
+            resizeIndex();
+        }
+    }
+
+    // Doubles the number of index slots, reusing the cached hash codes
+    private void resizeIndex() {
+        if (offsets.length >= MyHashMap.MAXIMUM_CAPACITY) {
+            if (size >= offsets.length - 1) {
+                throw new IllegalStateException("OffHeapHashMap is full.");
+            }
+            threshold = offsets.length - 1;
+            return;
+        }
+        int[] oldOffsets = offsets;
+        int[] oldHashes = hashes;
+        allocateIndex(oldOffsets.length << 1);
+        int mask = offsets.length - 1;
+        for (int i = 0; i < oldOffsets.length; i++) {
+            if (oldOffsets[i] == 0) {
+                continue;
+            }
+            int index = oldHashes[i] & mask;
+            while (offsets[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            offsets[index] = oldOffsets[i];
+            hashes[index] = oldHashes[i];
+        }
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key to check for in the map.
+     * @return true if the key exists, false otherwise.
+     */
+    public boolean contains(String key) {
+        if (key == null) {
+            return false;
+        }
+        return findSlot(key, Utf8.hash(key)) >= 0;
+    }
+
+    /**
+     * Retrieves the value associated with the given key, decoding it from the slab.
+     *
+     * @param key The key to retrieve the value for.
+     * @return The value associated with the key, or null if the key does not exist.
+     */
+    public V get(String key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, Utf8.hash(key));
+        return slot >= 0 ? readValue(offsets[slot] - 1) : null;
+    }
+
+    /**
+     * Replaces the value for the given key, if the key exists.
+     *
+     * @param key The key whose associated value is to be replaced.
+     * @param value The new value to be associated with the key.
+     * @return The previous value associated with the key, or null if the key did not exist.
+     */
+    public V replace(String key, V value) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, Utf8.hash(key));
+        if (slot < 0) {
+            return null;  // Return null if the key is not found
+        }
+        V oldValue = readValue(offsets[slot] - 1);
+        updateValue(slot, value);
+        return oldValue;
+    }
+
+    /**
+     * Removes the key-value pair for the given key, if the key exists.
+     * Later entries of the same probe run are shifted back, so no tombstones are needed.
+     *
+     * @param key The key whose key-value pair is to be removed.
+     * @return The value that was associated with the key, or null if the key did not exist.
+     */
+    public V remove(String key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, Utf8.hash(key));
+        if (slot < 0) {
+            return null;
+        }
+        int record = offsets[slot] - 1;
+        V oldValue = readValue(record);
+        garbage += recordSize(record);
+        // Backward-shift deletion: move later entries of the run into the gap when allowed
+        int mask = offsets.length - 1;
+        int gap = slot;
+        int index = (slot + 1) & mask;
+        while (offsets[index] != 0) {
+            int home = hashes[index] & mask;
+            // The entry may fill the gap only if its home slot is not between the gap and itself
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                offsets[gap] = offsets[index];
+                hashes[gap] = hashes[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        offsets[gap] = 0;
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Removes every key-value pair. The slab and index are kept for reuse.
+     */
+    public void clear() {
+        Arrays.fill(offsets, 0);
+        used = 0;
+        garbage = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in the map.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty (contains no key-value pairs).
+     *
+     * @return true if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the current number of slots in the index.
+     *
+     * @return The slot count, always a power of two.
+     */
+    public int capacity() {
+        return offsets.length;
+    }
+
+    /**
+     * Returns the number of off-heap bytes reserved for the slab.
+     *
+     * @return The slab capacity in bytes.
+     */
+    public int offHeapBytes() {
+        return slab.capacity();
+    }
+
+    /**
+     * Returns the number of slab bytes taken by live records.
+     *
+     * @return The bytes in use, excluding garbage.
+     */
+    public int liveBytes() {
+        return used - garbage;
+    }
+
+    /**
+     * Returns an iterator over the values stored in the map, decoding each one as it is
+     * reached. The map must not be modified during iteration.
+     *
+     * @return An iterator for the map.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private int index = nextSlot(0);
+
+            // Returns the first occupied slot at or after from
+            private int nextSlot(int from) {
+                while (from < offsets.length && offsets[from] == 0) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < offsets.length;
+            }
+
+            @Override
+            public V next() {
+                if (index >= offsets.length) {
+                    throw new NoSuchElementException("No more elements to iterate.");
+                }
+                V value = readValue(offsets[index] - 1);
+                index = nextSlot(index + 1);
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,248 @@
+// OpenHashMap.java
+import java.util.Iterator;
+
+/**
+ * OpenHashMap class is an open-addressing alternative to MyHashMap with the same
+ * put/get/contains/replace/size/isEmpty/iterator surface.
+ * Instead of a GenericQueue of nodes per bucket, entries are stored directly in three
+ * parallel arrays (keys, values and cached hash codes). Collisions are resolved with
+ * linear probing, so a lookup scans neighbouring slots of the same arrays rather than
+ * following node references, and no object is allocated per entry.
+ */
+public class OpenHashMap<T> implements Iterable<T> {
+    // Number of slots used when no initial capacity is given
+    static final int DEFAULT_CAPACITY = 16;
+    // Largest number of slots the table can grow to (must be a power of two)
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+    // Ratio of entries to slots used when no load factor is given
+    static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    // Keys of the stored entries; a null key marks an empty slot
+    private String[] keys;
+    // Values of the stored entries, at the same index as their key
+    private Object[] values;
+    // Spread hash codes of the stored keys, compared before calling equals
+    private int[] hashes;
+    // Number of key-value pairs stored in the map
+    private int size;
+    // Ratio of entries to slots at which the table is resized
+    private final float loadFactor;
+    // Number of entries at which the next resize happens (capacity * loadFactor)
+    private int threshold;
+
+    /**
+     * Constructor initializes an empty map with the default capacity and load factor.
+     */
+    public OpenHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor initializes an empty map with room for the given number of slots.
+     *
+     * @param initialCapacity The requested number of slots, rounded up to a power of two.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public OpenHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor initializes an empty map with the given capacity and load factor.
+     *
+     * @param initialCapacity The requested number of slots, rounded up to a power of two.
+     * @param loadFactor The ratio of entries to slots at which the table doubles (0 to 1, exclusive).
+     * @throws IllegalArgumentException if the capacity is negative or the load factor is out of range.
+     */
+    public OpenHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative.");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1.");
+        }
+        this.loadFactor = loadFactor;
+        allocate(Math.max(2, MyHashMap.tableSizeFor(initialCapacity)));
+        size = 0;
+    }
+
+    /**
+     * Constructor initializes the map with the default capacity and a first key-value pair.
+     *
+     * @param key The key of the first key-value pair.
+     * @param value The value associated with the key.
+     */
+    public OpenHashMap(String key, T value) {
+        this();
+        put(key, value);  // Add the first key-value pair
+    }
+
+    // Creates empty arrays with the given number of slots and updates the threshold
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        // Always keep at least one slot free so probing for a missing key terminates
+        threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    /**
+     * Returns the slot holding the given key, or the bitwise complement of the empty slot
+     * where it would be inserted if the key is not present.
+     */
+    private int findSlot(String key, int hashCode) {
+        int mask = keys.length - 1;
+        int index = hashCode & mask;
+        String current;
+        while ((current = keys[index]) != null) {
+            if (hashes[index] == hashCode && current.equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;  // Linear probing: try the next slot
+        }
+        return ~index;
+    }
+
+    /**
+     * Adds or updates a key-value pair in the map.
+     *
+     * @param key The key associated with the value.
+     * @param value The value to be stored.
+     * @throws IllegalArgumentException if the key is null.
+     */
+    public void put(String key, T value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+        int hashCode = MyHashMap.hash(key);
+        int slot = findSlot(key, hashCode);
+        if (slot >= 0) {
+            values[slot] = value;  // Update the value if the key is found
+            return;
+        }
+        slot = ~slot;
+        keys[slot] = key;
+        values[slot] = value;
+        hashes[slot] = hashCode;
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every entry into the new arrays.
+     * Cached hash codes are reused, so no key is hashed or compared again.
+     */
+    private void resize() {
+        if (keys.length >= MAXIMUM_CAPACITY) {
+            if (size >= keys.length - 1) {
+                throw new IllegalStateException("OpenHashMap is full.");
+            }
+            threshold = keys.length - 1;
+            return;
+        }
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int index = oldHashes[i] & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+            hashes[index] = oldHashes[i];
+        }
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key to check for in the map.
+     * @return true if the key exists, false otherwise.
+     */
+    public boolean contains(String key) {
+        if (key == null) {
+            return false;
+        }
+        return findSlot(key, MyHashMap.hash(key)) >= 0;
+    }
+
+    /**
+     * Retrieves the value associated with the given key.
+     *
+     * @param key The key to retrieve the value for.
+     * @return The value associated with the key, or null if the key does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(String key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, MyHashMap.hash(key));
+        return slot >= 0 ? (T) values[slot] : null;
+    }
+
+    /**
+     * Replaces the value for the given key, if the key exists.
+     *
+     * @param key The key whose associated value is to be replaced.
+     * @param value The new value to be associated with the key.
+     * @return The previous value associated with the key, or null if the key did not exist.
+     */
+    @SuppressWarnings("unchecked")
+    public T replace(String key, T value) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, MyHashMap.hash(key));
+        if (slot < 0) {
+            return null;  // Return null if the key is not found
+        }
+        T oldValue = (T) values[slot];
+        values[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in the map.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty (contains no key-value pairs).
+     *
+     * @return true if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the current number of slots in the table.
+     *
+     * @return The slot count, always a power of two.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns an iterator to iterate over the values stored in the map.
+     *
+     * @return An iterator for the map.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new OHMIterator<>(keys, values);
+    }
+}
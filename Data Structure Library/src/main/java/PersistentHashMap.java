@@ -0,0 +1,515 @@
+// PersistentHashMap.java
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * PersistentHashMap class is an immutable hash map where every update returns a new version
+ * of the map and leaves the old one unchanged. It is a hash array mapped trie (HAMT): each
+ * level of the trie is indexed by five bits of the key's spread hash code, and each node
+ * stores only the children that exist, found through a 32-bit bitmap.
+ *
+ * An update copies only the nodes on the path from the root to the changed key (at most
+ * seven, each at most 32 slots) and shares every other node with the previous version. A
+ * snapshot is therefore just a reference to the current version, and readers holding an
+ * old version never see later changes and never block writers. Because versions are
+ * immutable, they can be shared between threads without synchronization once published
+ * (for example through a volatile field or an AtomicReference).
+ *
+ * Keys whose full hash codes are equal are kept together in a collision node and compared
+ * with equals. Keys use their own hashCode and equals methods.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public final class PersistentHashMap<K, V> implements Iterable<V> {
+    // Number of hash bits consumed by each level of the trie
+    static final int BITS = 5;
+    // Mask selecting one level's bits of the hash code
+    static final int LEVEL_MASK = (1 << BITS) - 1;
+
+    // Map with no entries, shared by every empty version
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    // Root of the trie, or null if the map is empty
+    private final Node<K, V> root;
+    // Number of key-value pairs in this version
+    private final int size;
+
+    // Constructor used to wrap a new root after an update
+    private PersistentHashMap(Node<K, V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     * @return A map with no entries.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Creates a persistent map holding the current entries of a MyHashMap.
+     * Keys are rehashed with their own hashCode, even if the source map uses a HashingStrategy.
+     *
+     * @param source The map to copy.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     * @return A persistent map with the same entries.
+     * @throws IllegalArgumentException if the source map is null.
+     */
+    public static <K, V> PersistentHashMap<K, V> copyOf(MyHashMap<K, V> source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Map cannot be null.");
+        }
+        PersistentHashMap<K, V> result = empty();
+        for (Map.Entry<K, V> entry : source.entries()) {
+            result = result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Returns a version of the map with the given key-value pair added. If the key already
+     * exists, the new version maps it to the new value.
+     *
+     * @param key The key to be added.
+     * @param value The value associated with the key.
+     * @return The new version, or this map if the key already maps to the same value.
+     * @throws IllegalArgumentException if the key is null.
+     */
+    public PersistentHashMap<K, V> put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+        Leaf<K, V> leaf = new Leaf<>(key, value, MyHashMap.hash(key));
+        if (root == null) {
+            return new PersistentHashMap<>(leaf, 1);
+        }
+        Change change = new Change();
+        Node<K, V> updated = root.put(leaf, 0, change);
+        if (updated == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(updated, change.added ? size + 1 : size);
+    }
+
+    /**
+     * Returns a version of the map with the value for the given key replaced, if the key
+     * exists. Unlike MyHashMap.replace, the old value is not returned; look it up with get
+     * first if it is needed.
+     *
+     * @param key The key whose associated value is to be replaced.
+     * @param value The new value to be associated with the key.
+     * @return The new version, or this map if the key does not exist.
+     */
+    public PersistentHashMap<K, V> replace(K key, V value) {
+        if (!contains(key)) {
+            return this;
+        }
+        return put(key, value);
+    }
+
+    /**
+     * Returns a version of the map without the given key.
+     *
+     * @param key The key to remove.
+     * @return The new version, or this map if the key does not exist.
+     */
+    public PersistentHashMap<K, V> remove(K key) {
+        if (key == null || root == null) {
+            return this;
+        }
+        Node<K, V> updated = root.remove(key, MyHashMap.hash(key), 0);
+        if (updated == root) {
+            return this;
+        }
+        return updated == null ? empty() : new PersistentHashMap<>(updated, size - 1);
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key to check.
+     * @return true if the key exists, false otherwise.
+     */
+    public boolean contains(K key) {
+        return findLeaf(key) != null;
+    }
+
+    /**
+     * Retrieves the value associated with the given key.
+     *
+     * @param key The key whose value is to be retrieved.
+     * @return The value associated with the key, or null if the key does not exist.
+     */
+    public V get(K key) {
+        Leaf<K, V> leaf = findLeaf(key);
+        return leaf == null ? null : leaf.value;
+    }
+
+    // Returns the leaf holding the given key, or null if it is not in the map
+    private Leaf<K, V> findLeaf(K key) {
+        if (key == null || root == null) {
+            return null;
+        }
+        return root.find(key, MyHashMap.hash(key), 0);
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty (contains no key-value pairs).
+     *
+     * @return true if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns an iterator over the values of this version of the map.
+     * Later versions do not affect it, and it does not support remove.
+     *
+     * @return An iterator for the map.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            // Nodes still to visit; the next one is on top
+            private final ArrayDeque<Node<K, V>> pending = new ArrayDeque<>();
+            // Next leaf to return, or null at the end
+            private Leaf<K, V> next;
+            // Leaves of the collision node being walked, or null
+            private Leaf<K, V>[] leaves;
+            // Position of the next leaf in leaves
+            private int leafIndex;
+
+            {
+                if (root != null) {
+                    pending.push(root);
+                }
+                advance();
+            }
+
+            // Finds the next leaf in depth-first order
+            private void advance() {
+                if (leaves != null && leafIndex < leaves.length) {
+                    next = leaves[leafIndex++];
+                    return;
+                }
+                leaves = null;
+                while (!pending.isEmpty()) {
+                    Node<K, V> node = pending.pop();
+                    if (node instanceof Leaf) {
+                        next = (Leaf<K, V>) node;
+                        return;
+                    }
+                    if (node instanceof CollisionNode) {
+                        leaves = ((CollisionNode<K, V>) node).leaves;
+                        leafIndex = 1;
+                        next = leaves[0];
+                        return;
+                    }
+                    Node<K, V>[] children = ((BitmapNode<K, V>) node).children;
+                    for (int i = children.length - 1; i >= 0; i--) {
+                        pending.push(children[i]);
+                    }
+                }
+                next = null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public V next() {
+                if (next == null) {
+                    throw new NoSuchElementException("No more elements to iterate.");
+                }
+                V value = next.value;
+                advance();
+                return value;
+            }
+        };
+    }
+
+    // Returns the index (0 to 31) of a hash code at the given level of the trie
+    private static int digit(int hash, int shift) {
+        return (hash >>> shift) & LEVEL_MASK;
+    }
+
+    // Creates an empty array of trie nodes (generic arrays can only be created raw)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <K, V> Node<K, V>[] newNodes(int length) {
+        return (Node<K, V>[]) new Node[length];
+    }
+
+    // Creates an empty array of leaves
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <K, V> Leaf<K, V>[] newLeaves(int length) {
+        return (Leaf<K, V>[]) new Leaf[length];
+    }
+
+    // Records whether an update added a new key rather than replacing a value
+    private static final class Change {
+        boolean added;
+    }
+
+    /**
+     * Node is a node of the trie. Nodes are never modified once built: put and remove
+     * return the same node if nothing changed, or a new node otherwise.
+     */
+    abstract static class Node<K, V> {
+        // Returns the leaf holding key, or null if it is not under this node
+        abstract Leaf<K, V> find(K key, int hash, int shift);
+
+        // Returns this node with leaf's key mapped to leaf's value
+        abstract Node<K, V> put(Leaf<K, V> leaf, int shift, Change change);
+
+        // Returns this node without key, or null if nothing is left
+        abstract Node<K, V> remove(K key, int hash, int shift);
+    }
+
+    /**
+     * Leaf holds one key-value pair. A leaf can sit at any level: it is stored as soon as
+     * its hash digits tell it apart from every other key under the same parent.
+     */
+    static final class Leaf<K, V> extends Node<K, V> {
+        // Key of the entry
+        final K key;
+        // Value of the entry
+        final V value;
+        // Spread hash code of the key
+        final int hash;
+
+        Leaf(K key, V value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+
+        // Checks whether this leaf holds the given key
+        boolean matches(K key, int hash) {
+            return this.hash == hash && this.key.equals(key);
+        }
+
+        @Override
+        Leaf<K, V> find(K key, int hash, int shift) {
+            return matches(key, hash) ? this : null;
+        }
+
+        @Override
+        Node<K, V> put(Leaf<K, V> leaf, int shift, Change change) {
+            if (matches(leaf.key, leaf.hash)) {
+                return value == leaf.value ? this : leaf;
+            }
+            change.added = true;
+            if (hash == leaf.hash) {
+                Leaf<K, V>[] pair = newLeaves(2);
+                pair[0] = this;
+                pair[1] = leaf;
+                return new CollisionNode<>(hash, pair);
+            }
+            return BitmapNode.merge(this, hash, leaf, shift);
+        }
+
+        @Override
+        Node<K, V> remove(K key, int hash, int shift) {
+            return matches(key, hash) ? null : this;
+        }
+    }
+
+    /**
+     * CollisionNode holds two or more leaves whose keys have the same full hash code.
+     */
+    static final class CollisionNode<K, V> extends Node<K, V> {
+        // Hash code shared by every leaf
+        final int hash;
+        // The colliding entries
+        final Leaf<K, V>[] leaves;
+
+        CollisionNode(int hash, Leaf<K, V>[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        // Returns the position of key among the leaves, or -1
+        private int indexOf(K key) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Leaf<K, V> find(K key, int hash, int shift) {
+            if (hash != this.hash) {
+                return null;
+            }
+            int index = indexOf(key);
+            return index < 0 ? null : leaves[index];
+        }
+
+        @Override
+        Node<K, V> put(Leaf<K, V> leaf, int shift, Change change) {
+            if (leaf.hash != hash) {
+                change.added = true;
+                return BitmapNode.merge(this, hash, leaf, shift);
+            }
+            int index = indexOf(leaf.key);
+            if (index >= 0) {
+                if (leaves[index].value == leaf.value) {
+                    return this;
+                }
+                Leaf<K, V>[] copy = leaves.clone();
+                copy[index] = leaf;
+                return new CollisionNode<>(hash, copy);
+            }
+            change.added = true;
+            Leaf<K, V>[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+            copy[leaves.length] = leaf;
+            return new CollisionNode<>(hash, copy);
+        }
+
+        @Override
+        Node<K, V> remove(K key, int hash, int shift) {
+            if (hash != this.hash) {
+                return this;
+            }
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            if (leaves.length == 2) {
+                return leaves[1 - index];  // A single leaf no longer needs a collision node
+            }
+            Leaf<K, V>[] copy = newLeaves(leaves.length - 1);
+            System.arraycopy(leaves, 0, copy, 0, index);
+            System.arraycopy(leaves, index + 1, copy, index, leaves.length - index - 1);
+            return new CollisionNode<>(hash, copy);
+        }
+    }
+
+    /**
+     * BitmapNode is an inner node of the trie. Bit d of the bitmap is set if some key's
+     * hash digit at this level is d, and the children array holds only the present
+     * children, in digit order, so child d is at the number of set bits below bit d.
+     */
+    static final class BitmapNode<K, V> extends Node<K, V> {
+        // Digits present at this level
+        final int bitmap;
+        // Child for each set bit, in digit order
+        final Node<K, V>[] children;
+
+        BitmapNode(int bitmap, Node<K, V>[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        /**
+         * Builds the smallest subtrie holding two nodes whose hash codes differ, starting at
+         * the given level: one BitmapNode per level where their digits are still equal.
+         */
+        static <K, V> Node<K, V> merge(Node<K, V> a, int hashA, Leaf<K, V> b, int shift) {
+            int digitA = digit(hashA, shift);
+            int digitB = digit(b.hash, shift);
+            if (digitA == digitB) {
+                Node<K, V>[] only = newNodes(1);
+                only[0] = merge(a, hashA, b, shift + BITS);
+                return new BitmapNode<>(1 << digitA, only);
+            }
+            Node<K, V>[] pair = newNodes(2);
+            pair[digitA < digitB ? 0 : 1] = a;
+            pair[digitA < digitB ? 1 : 0] = b;
+            return new BitmapNode<>((1 << digitA) | (1 << digitB), pair);
+        }
+
+        // Returns the position in children of the child for the given bit
+        private int indexOf(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Leaf<K, V> find(K key, int hash, int shift) {
+            int bit = 1 << digit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            return children[indexOf(bit)].find(key, hash, shift + BITS);
+        }
+
+        @Override
+        Node<K, V> put(Leaf<K, V> leaf, int shift, Change change) {
+            int bit = 1 << digit(leaf.hash, shift);
+            int index = indexOf(bit);
+            if ((bitmap & bit) == 0) {
+                change.added = true;
+                Node<K, V>[] copy = newNodes(children.length + 1);
+                System.arraycopy(children, 0, copy, 0, index);
+                copy[index] = leaf;
+                System.arraycopy(children, index, copy, index + 1, children.length - index);
+                return new BitmapNode<>(bitmap | bit, copy);
+            }
+            Node<K, V> child = children[index];
+            Node<K, V> updated = child.put(leaf, shift + BITS, change);
+            if (updated == child) {
+                return this;
+            }
+            Node<K, V>[] copy = children.clone();
+            copy[index] = updated;
+            return new BitmapNode<>(bitmap, copy);
+        }
+
+        @Override
+        Node<K, V> remove(K key, int hash, int shift) {
+            int bit = 1 << digit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = indexOf(bit);
+            Node<K, V> child = children[index];
+            Node<K, V> updated = child.remove(key, hash, shift + BITS);
+            if (updated == child) {
+                return this;
+            }
+            if (updated != null) {
+                if (children.length == 1 && !(updated instanceof BitmapNode)) {
+                    return updated;  // Pull a lone leaf or collision node up a level
+                }
+                Node<K, V>[] copy = children.clone();
+                copy[index] = updated;
+                return new BitmapNode<>(bitmap, copy);
+            }
+            if (children.length == 1) {
+                return null;
+            }
+            if (children.length == 2 && !(children[1 - index] instanceof BitmapNode)) {
+                return children[1 - index];  // The remaining leaf can move up a level
+            }
+            Node<K, V>[] copy = newNodes(children.length - 1);
+            System.arraycopy(children, 0, copy, 0, index);
+            System.arraycopy(children, index + 1, copy, index, children.length - index - 1);
+            return new BitmapNode<>(bitmap & ~bit, copy);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+// QueueMetrics.java
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * QueueMetrics class collects statistics about one GenericQueue. Metrics are off by default
+ * and are switched on with GenericQueue.enableMetrics; a queue without metrics pays only a
+ * null check when elements are added or removed.
+ *
+ * The enqueue and dequeue counters are LongAdders and the high-water mark is a
+ * LongAccumulator, so they are cheap to update and can be read from another thread, for
+ * example by JMX. Rates are averages since the metrics were enabled or last reset.
+ *
+ * The metrics can be published as an MXBean with register, and are reported to Java Flight
+ * Recorder as periodic statistics events (see MetricsEvents).
+ */
+public class QueueMetrics implements QueueMetricsMXBean {
+    // Name identifying the queue in JMX and JFR
+    private final String name;
+    // The queue being measured
+    private final GenericList<?> queue;
+    // Number of elements added
+    private final LongAdder enqueued = new LongAdder();
+    // Number of elements removed
+    private final LongAdder dequeued = new LongAdder();
+    // Largest depth seen
+    private final LongAccumulator highWaterMark = new LongAccumulator(Math::max, 0);
+    // Time the counters were started, for the rates
+    private volatile long startNanos = System.nanoTime();
+    // Name the MXBean is registered under, or null if it is not registered
+    private ObjectName objectName;
+
+    // Constructor used by GenericQueue.enableMetrics
+    QueueMetrics(String name, GenericList<?> queue) {
+        this.name = name;
+        this.queue = queue;
+        highWaterMark.accumulate(queue.getLength());
+        MetricsEvents.track(this);
+    }
+
+    // Counts elements added to the queue, given its depth afterwards
+    void recordEnqueue(int count, int depth) {
+        enqueued.add(count);
+        highWaterMark.accumulate(depth);
+    }
+
+    // Counts elements removed from the queue
+    void recordDequeue(int count) {
+        dequeued.add(count);
+    }
+
+    // Stops reporting to JFR and JMX; called when the queue's metrics are disabled
+    void close() {
+        MetricsEvents.untrack(this);
+        unregister();
+    }
+
+    // Returns the number of seconds since the counters were started (never zero)
+    private double elapsedSeconds() {
+        return Math.max(1, System.nanoTime() - startNanos) / 1e9;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getDepth() {
+        return queue.getLength();
+    }
+
+    @Override
+    public long getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    @Override
+    public long getEnqueueCount() {
+        return enqueued.sum();
+    }
+
+    @Override
+    public long getDequeueCount() {
+        return dequeued.sum();
+    }
+
+    @Override
+    public double getEnqueueRate() {
+        return enqueued.sum() / elapsedSeconds();
+    }
+
+    @Override
+    public double getDequeueRate() {
+        return dequeued.sum() / elapsedSeconds();
+    }
+
+    @Override
+    public void reset() {
+        enqueued.reset();
+        dequeued.reset();
+        highWaterMark.reset();
+        highWaterMark.accumulate(queue.getLength());
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Publishes the metrics on the platform MBean server as
+     * "DataStructureLibrary:type=GenericQueue,name=(name)". Calling it again has no effect.
+     *
+     * @return The name the MXBean is registered under.
+     * @throws IllegalStateException if another MXBean is already registered under that name.
+     */
+    public synchronized ObjectName register() {
+        if (objectName == null) {
+            try {
+                ObjectName target = new ObjectName("DataStructureLibrary:type=GenericQueue,name=" + ObjectName.quote(name));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, target);
+                objectName = target;
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot register metrics for " + name + ".", e);
+            }
+        }
+        return objectName;
+    }
+
+    /**
+     * Removes the MXBean published by register, if any.
+     */
+    public synchronized void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                // Already unregistered by someone else: nothing left to do
+            }
+            objectName = null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+// QueueMetricsMXBean.java
+
+/**
+ * QueueMetricsMXBean interface is the JMX view of a QueueMetrics object.
+ * QueueMetrics.register publishes it on the platform MBean server, where tools such as
+ * JConsole and VisualVM can read it.
+ */
+public interface QueueMetricsMXBean {
+    /**
+     * Returns the name the metrics were enabled with.
+     *
+     * @return The queue's name.
+     */
+    String getName();
+
+    /**
+     * Returns the number of elements currently in the queue.
+     *
+     * @return The depth of the queue.
+     */
+    int getDepth();
+
+    /**
+     * Returns the largest depth seen since the metrics were enabled or reset.
+     *
+     * @return The high-water mark.
+     */
+    long getHighWaterMark();
+
+    /**
+     * Returns the number of elements added since the metrics were enabled or reset.
+     *
+     * @return The enqueue count.
+     */
+    long getEnqueueCount();
+
+    /**
+     * Returns the number of elements removed since the metrics were enabled or reset.
+     *
+     * @return The dequeue count.
+     */
+    long getDequeueCount();
+
+    /**
+     * Returns the average number of elements added per second since the metrics were
+     * enabled or reset.
+     *
+     * @return The enqueue rate.
+     */
+    double getEnqueueRate();
+
+    /**
+     * Returns the average number of elements removed per second since the metrics were
+     * enabled or reset.
+     *
+     * @return The dequeue rate.
+     */
+    double getDequeueRate();
+
+    /**
+     * Sets every counter back to zero and restarts the rate clock.
+     */
+    void reset();
+}
@@ -1,46 +1,37 @@
 // ReverseGLLIterator.java
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Stack;
 
 /**
  * ReverseGLLIterator class provides an implementation of the Iterator interface
  * to iterate over a generic linked list in reverse order (tail to head).
- * This is achieved using a stack to store the elements in reverse.
+ * It follows each node's prev reference, so it starts immediately and uses no extra memory.
  */
 public class ReverseGLLIterator<T> implements Iterator<T> {
-    // Stack to hold the elements of the list in reverse order
-    private Stack<T> stack;
+    // Reference to the current node in the list being iterated over
+    private GenericList<T>.Node<T> current;
 
     /**
-     * Constructor initializes the iterator by traversing the linked list
-     * from head to tail and pushing each element onto the stack.
-     * This allows the iteration to occur in reverse order (tail to head).
+     * Constructor initializes the iterator with the tail of the list.
      * 
-     * @param head The head node of the linked list.
+     * @param tail The tail node of the list to start iterating from.
      */
-    public ReverseGLLIterator(GenericList<T>.Node<T> head) {
-        stack = new Stack<>();  // Initialize the stack
-        GenericList<T>.Node<T> current = head;
-        // Traverse the list from head to tail, pushing each element onto the stack
-        while (current != null) {
-            stack.push(current.data);
-            current = current.next;
-        }
+    public ReverseGLLIterator(GenericList<T>.Node<T> tail) {
+        this.current = tail;
     }
 
     /**
-     * Checks if there are more elements in the stack to iterate over.
+     * Checks if there is another element in the list.
      * 
      * @return true if there are more elements, false otherwise.
      */
     @Override
     public boolean hasNext() {
-        return !stack.isEmpty();  // Return true if the stack is not empty
+        return current != null;  // Returns true if the current node is not null
     }
 
     /**
-     * Returns the next element in the reverse iteration and removes it from the stack.
+     * Returns the next element in the reverse iteration and moves toward the head.
      * 
      * @return The next element in reverse order.
      * @throws NoSuchElementException if there are no more elements to iterate over.
@@ -51,6 +42,8 @@ public class ReverseGLLIterator<T> implements Iterator<T> {
             // Throw an exception if there are no more elements to iterate
             throw new NoSuchElementException("No more elements to iterate.");
         }
-        return stack.pop();  // Return the top element from the stack (reverse order)
+        T data = current.data;    // Retrieve the data from the current node
+        current = current.prev;   // Move to the previous node in the list
+        return data;              // Return the current node's data
     }
 }
@@ -0,0 +1,503 @@
+// StripedHashMap.java
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * StripedHashMap class is a thread-safe hash map with the same put/get/contains/replace
+ * operations as MyHashMap, for maps shared between threads.
+ * The table is split into independent stripes (segments), each with its own lock and its
+ * own power-of-two bucket array, so writers only contend when they hit the same stripe.
+ * Readers never lock: bucket chains are only ever changed by publishing a new head node
+ * or a new bucket array, and node keys and links are final, so get and contains see a
+ * consistent chain without synchronization. Values are volatile, so updates made by
+ * replace are visible to readers immediately.
+ * Null keys and null values are not allowed, since get uses null to report a missing key.
+ */
+public class StripedHashMap<T> implements Iterable<T> {
+    // Number of stripes used when no concurrency level is given
+    static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    // Largest number of stripes
+    static final int MAX_STRIPES = 1 << 16;
+    // Largest number of buckets a single stripe can grow to
+    static final int MAX_STRIPE_CAPACITY = 1 << 30;
+
+    // Independent stripes, each guarding part of the key space
+    private final Stripe<T>[] stripes;
+    // Number of low hash bits ignored when choosing a stripe
+    private final int stripeShift;
+    // Mask applied to the shifted hash to pick a stripe
+    private final int stripeMask;
+    // Number of key-value pairs, updated without a global lock
+    private final LongAdder size = new LongAdder();
+
+    private static final VarHandle BUCKETS = MethodHandles.arrayElementVarHandle(CNode[].class);
+
+    /**
+     * Node class for a stripe's bucket chains. Key, hash and next never change after the
+     * node is published, which is what lets readers walk a chain without locking.
+     */
+    static final class CNode<E> {
+        final String key;     // Key of the entry
+        final int code;       // Spread hash code of the key
+        volatile E data;      // Value of the entry
+        final CNode<E> next;  // Next node in the bucket chain
+
+        CNode(String key, int code, E data, CNode<E> next) {
+            this.key = key;
+            this.code = code;
+            this.data = data;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Stripe class holds one segment of the map. Writers lock it; readers only read
+     * the volatile bucket array and the immutable chains hanging off it.
+     */
+    @SuppressWarnings("serial")
+    static final class Stripe<E> extends ReentrantLock {
+        volatile CNode<E>[] buckets;  // Bucket array, replaced as a whole when the stripe grows
+        int count;                    // Entries in this stripe (guarded by the lock)
+        int threshold;                // Entry count at which the stripe grows (guarded by the lock)
+        final float loadFactor;       // Ratio of entries to buckets that triggers a resize
+
+        Stripe(int capacity, float loadFactor) {
+            this.loadFactor = loadFactor;
+            this.buckets = newBuckets(capacity);
+            this.threshold = (int) (capacity * loadFactor);
+        }
+
+        // Creates an empty bucket array (generic arrays can only be created raw)
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static <E> CNode<E>[] newBuckets(int capacity) {
+            return (CNode<E>[]) new CNode[capacity];
+        }
+
+        // Reads the head of a bucket with acquire semantics so its chain is fully visible
+        @SuppressWarnings("unchecked")
+        static <E> CNode<E> headAt(CNode<E>[] tab, int i) {
+            return (CNode<E>) BUCKETS.getAcquire(tab, i);
+        }
+
+        // Finds the node for the key without locking, or returns null
+        CNode<E> find(String key, int code) {
+            CNode<E>[] tab = buckets;
+            for (CNode<E> e = headAt(tab, code & (tab.length - 1)); e != null; e = e.next) {
+                if (e.code == code && e.key.equals(key)) {
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        // Finds the node for the key; the caller must hold the lock
+        CNode<E> findLocked(CNode<E>[] tab, String key, int code) {
+            for (CNode<E> e = tab[code & (tab.length - 1)]; e != null; e = e.next) {
+                if (e.code == code && e.key.equals(key)) {
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        // Publishes a new node at the head of its bucket; the caller must hold the lock
+        // and must already have checked that the key is absent
+        void insertLocked(String key, int code, E value) {
+            CNode<E>[] tab = buckets;
+            if (count + 1 > threshold && tab.length < MAX_STRIPE_CAPACITY) {
+                tab = rehash(tab);
+            }
+            int index = code & (tab.length - 1);
+            BUCKETS.setRelease(tab, index, new CNode<>(key, code, value, tab[index]));
+            count++;
+        }
+
+        /**
+         * Doubles the bucket array. Because node links are final, chains cannot be relinked
+         * in place; instead the longest run at the end of each chain that moves to the same
+         * new bucket is reused as is, and only the nodes in front of it are copied. The new
+         * array is published with a single volatile write, so readers see either the old or
+         * the new array, both complete.
+         */
+        CNode<E>[] rehash(CNode<E>[] oldTab) {
+            int oldCapacity = oldTab.length;
+            int newCapacity = oldCapacity << 1;
+            int mask = newCapacity - 1;
+            CNode<E>[] newTab = newBuckets(newCapacity);
+            for (int i = 0; i < oldCapacity; i++) {
+                CNode<E> head = oldTab[i];
+                if (head == null) {
+                    continue;
+                }
+                // Find the trailing run of nodes that all land in the same new bucket
+                CNode<E> lastRun = head;
+                int lastIndex = head.code & mask;
+                for (CNode<E> e = head.next; e != null; e = e.next) {
+                    int index = e.code & mask;
+                    if (index != lastIndex) {
+                        lastIndex = index;
+                        lastRun = e;
+                    }
+                }
+                newTab[lastIndex] = lastRun;
+                // Copy the nodes in front of the reusable run
+                for (CNode<E> e = head; e != lastRun; e = e.next) {
+                    int index = e.code & mask;
+                    newTab[index] = new CNode<>(e.key, e.code, e.data, newTab[index]);
+                }
+            }
+            buckets = newTab;
+            threshold = newCapacity >= MAX_STRIPE_CAPACITY ? Integer.MAX_VALUE : (int) (newCapacity * loadFactor);
+            return newTab;
+        }
+    }
+
+    /**
+     * Constructor initializes an empty map with the default capacity and concurrency level.
+     */
+    public StripedHashMap() {
+        this(MyHashMap.DEFAULT_CAPACITY, MyHashMap.DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructor initializes an empty map with room for the given number of entries.
+     *
+     * @param initialCapacity The total number of buckets to start with, across all stripes.
+     */
+    public StripedHashMap(int initialCapacity) {
+        this(initialCapacity, MyHashMap.DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructor initializes an empty map.
+     *
+     * @param initialCapacity The total number of buckets to start with, across all stripes.
+     * @param loadFactor The ratio of entries to buckets at which a stripe doubles.
+     * @param concurrencyLevel The expected number of concurrent writers; rounded up to a power
+     *                         of two to give the number of stripes.
+     * @throws IllegalArgumentException if any argument is out of range.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public StripedHashMap(int initialCapacity, float loadFactor, int concurrencyLevel) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative.");
+        }
+        if (!(loadFactor > 0)) {  // Also rejects NaN
+            throw new IllegalArgumentException("Load factor must be positive.");
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive.");
+        }
+        int stripeCount = MyHashMap.tableSizeFor(Math.min(concurrencyLevel, MAX_STRIPES));
+        int perStripe = MyHashMap.tableSizeFor(Math.max(2, (initialCapacity + stripeCount - 1) / stripeCount));
+        stripes = (Stripe<T>[]) new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(perStripe, loadFactor);
+        }
+        // The top bits pick the stripe and the low bits pick the bucket inside it
+        stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+        stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Constructor initializes the map with a first key-value pair.
+     *
+     * @param key The key of the first key-value pair.
+     * @param value The value associated with the key.
+     */
+    public StripedHashMap(String key, T value) {
+        this();
+        put(key, value);
+    }
+
+    /**
+     * Mixes all bits of the key's hash code. Both the high bits (stripe) and the low bits
+     * (bucket) are used, so a stronger mix than MyHashMap.hash is applied.
+     */
+    static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;  // Fibonacci multiplier spreads low bits upward
+        return h ^ (h >>> 16);
+    }
+
+    // Returns the stripe responsible for the given spread hash
+    private Stripe<T> stripeFor(int code) {
+        return stripes[(code >>> stripeShift) & stripeMask];
+    }
+
+    // Rejects null keys and values with the same exception MyHashMap uses
+    private static void checkNotNull(Object key, Object value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+    }
+
+    /**
+     * Adds or updates a key-value pair in the map.
+     *
+     * @param key The key associated with the value.
+     * @param value The value to be stored.
+     * @throws IllegalArgumentException if the key or value is null.
+     */
+    public void put(String key, T value) {
+        checkNotNull(key, value);
+        int code = hash(key);
+        Stripe<T> stripe = stripeFor(code);
+        stripe.lock();
+        try {
+            CNode<T> node = stripe.findLocked(stripe.buckets, key, code);
+            if (node != null) {
+                node.data = value;  // Update the value if the key is found
+            } else {
+                stripe.insertLocked(key, code, value);
+                size.increment();
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Adds the key-value pair only if the key is not already present, as one atomic step.
+     *
+     * @param key The key associated with the value.
+     * @param value The value to be stored.
+     * @return The existing value if the key was present (and nothing changed), or null if it was added.
+     * @throws IllegalArgumentException if the key or value is null.
+     */
+    public T putIfAbsent(String key, T value) {
+        checkNotNull(key, value);
+        int code = hash(key);
+        Stripe<T> stripe = stripeFor(code);
+        CNode<T> node = stripe.find(key, code);  // Lock-free fast path for present keys
+        if (node != null) {
+            return node.data;
+        }
+        stripe.lock();
+        try {
+            node = stripe.findLocked(stripe.buckets, key, code);
+            if (node != null) {
+                return node.data;
+            }
+            stripe.insertLocked(key, code, value);
+            size.increment();
+            return null;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Returns the value for the key, computing and adding it first if the key is absent.
+     * The mapping function is called at most once per absent key, while holding the key's
+     * stripe lock, so it should be short and must not modify this map.
+     *
+     * @param key The key to look up.
+     * @param mappingFunction Computes the value for an absent key; a null result adds nothing.
+     * @return The existing or computed value, or null if the function returned null.
+     * @throws IllegalArgumentException if the key or the function is null.
+     */
+    public T computeIfAbsent(String key, Function<? super String, ? extends T> mappingFunction) {
+        if (mappingFunction == null) {
+            throw new IllegalArgumentException("Mapping function cannot be null.");
+        }
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+        int code = hash(key);
+        Stripe<T> stripe = stripeFor(code);
+        CNode<T> node = stripe.find(key, code);  // Lock-free fast path for present keys
+        if (node != null) {
+            return node.data;
+        }
+        stripe.lock();
+        try {
+            node = stripe.findLocked(stripe.buckets, key, code);
+            if (node != null) {
+                return node.data;
+            }
+            T value = mappingFunction.apply(key);
+            if (value != null) {
+                stripe.insertLocked(key, code, value);
+                size.increment();
+            }
+            return value;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Checks if the map contains the given key. Never locks.
+     *
+     * @param key The key to check for in the map.
+     * @return true if the key exists, false otherwise.
+     */
+    public boolean contains(String key) {
+        if (key == null) {
+            return false;
+        }
+        int code = hash(key);
+        return stripeFor(code).find(key, code) != null;
+    }
+
+    /**
+     * Retrieves the value associated with the given key. Never locks.
+     *
+     * @param key The key to retrieve the value for.
+     * @return The value associated with the key, or null if the key does not exist.
+     */
+    public T get(String key) {
+        if (key == null) {
+            return null;
+        }
+        int code = hash(key);
+        CNode<T> node = stripeFor(code).find(key, code);
+        return node == null ? null : node.data;
+    }
+
+    /**
+     * Replaces the value for the given key, if the key exists.
+     *
+     * @param key The key whose associated value is to be replaced.
+     * @param value The new value to be associated with the key.
+     * @return The previous value associated with the key, or null if the key did not exist.
+     * @throws IllegalArgumentException if the value is null.
+     */
+    public T replace(String key, T value) {
+        if (key == null) {
+            return null;
+        }
+        checkNotNull(key, value);
+        int code = hash(key);
+        Stripe<T> stripe = stripeFor(code);
+        stripe.lock();
+        try {
+            CNode<T> node = stripe.findLocked(stripe.buckets, key, code);
+            if (node == null) {
+                return null;  // Return null if the key is not found
+            }
+            T oldValue = node.data;
+            node.data = value;
+            return oldValue;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Replaces the value for the given key only if it is currently mapped to the expected
+     * value (compared with equals), as one atomic step.
+     *
+     * @param key The key whose associated value is to be replaced.
+     * @param expected The value the key must currently have.
+     * @param value The new value to be associated with the key.
+     * @return true if the value was replaced, false otherwise.
+     * @throws IllegalArgumentException if the new value is null.
+     */
+    public boolean replace(String key, T expected, T value) {
+        if (key == null || expected == null) {
+            return false;
+        }
+        checkNotNull(key, value);
+        int code = hash(key);
+        Stripe<T> stripe = stripeFor(code);
+        stripe.lock();
+        try {
+            CNode<T> node = stripe.findLocked(stripe.buckets, key, code);
+            if (node == null || !expected.equals(node.data)) {
+                return false;
+            }
+            node.data = value;
+            return true;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in the map.
+     * The count is exact when no other thread is modifying the map.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        long n = size.sum();
+        return n <= 0 ? 0 : (n >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n);
+    }
+
+    /**
+     * Checks if the map is empty (contains no key-value pairs).
+     *
+     * @return true if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the values stored in the map.
+     * It never locks or throws ConcurrentModificationException, and may or may not
+     * reflect changes made after it was created.
+     *
+     * @return An iterator for the map.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    // Weakly consistent value iterator over every stripe's bucket array
+    private final class Itr implements Iterator<T> {
+        private int stripeIndex = 0;   // Stripe currently being scanned
+        private CNode<T>[] tab;        // Bucket array of that stripe, read once
+        private int bucketIndex = 0;   // Next bucket of tab to scan
+        private CNode<T> nextNode;     // Node holding the next value to return
+
+        Itr() {
+            tab = stripes[0].buckets;
+            advance();
+        }
+
+        // Moves nextNode to the next node in the current chain, bucket or stripe
+        private void advance() {
+            if (nextNode != null && (nextNode = nextNode.next) != null) {
+                return;
+            }
+            while (true) {
+                while (bucketIndex < tab.length) {
+                    if ((nextNode = Stripe.headAt(tab, bucketIndex++)) != null) {
+                        return;
+                    }
+                }
+                if (++stripeIndex >= stripes.length) {
+                    return;
+                }
+                tab = stripes[stripeIndex].buckets;
+                bucketIndex = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public T next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException("No more elements to iterate.");
+            }
+            T data = nextNode.data;
+            advance();
+            return data;
+        }
+    }
+}
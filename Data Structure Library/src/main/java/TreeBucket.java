@@ -0,0 +1,385 @@
+// TreeBucket.java
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * TreeBucket class is a MyHashMap bucket that keeps a balanced search tree over its entries.
+ * MyHashMap turns a bucket into a TreeBucket once its chain grows past a threshold, so that
+ * lookups stay logarithmic even when many keys share a bucket (or a full hash code).
+ *
+ * The entries are still linked as a normal GenericQueue chain in insertion order, which is
+ * what iterators and resizing walk. On top of that chain, an AVL tree of TreeNodes orders the
+ * entries by hash code, then by compareTo when the keys are mutually Comparable. Keys that
+ * tie on both are searched on both sides of the tie. When the map uses a HashingStrategy,
+ * compareTo may disagree with the strategy's equality, so entries are ordered by hash only.
+ * Whether a key is Comparable is worked out once per operation, not at every tree level.
+ *
+ * TreeBucket is internal to MyHashMap: keyless adds and draining would bypass the tree,
+ * so those GenericQueue operations are not supported.
+ */
+final class TreeBucket<T> extends GenericQueue<T> {
+    // Root of the tree index over the chain's nodes
+    private TreeNode<T> root;
+    // Strategy used to compare keys, or null to use the keys' own equals and compareTo
+    private final HashingStrategy<Object> strategy;
+    // Set by remove when the target node has been found and taken out of the tree
+    private boolean removed;
+
+    /**
+     * TreeNode class is one node of the tree index. It only points at an entry of the chain;
+     * the entry itself (key, data, code) is shared with the chain.
+     */
+    static final class TreeNode<T> {
+        final GenericList<T>.Node<T> entry;  // Chain node this tree node indexes
+        TreeNode<T> left;                    // Entries ordered before this one
+        TreeNode<T> right;                   // Entries ordered after this one
+        int height;                          // Height of the subtree rooted here (leaf = 1)
+
+        TreeNode(GenericList<T>.Node<T> entry) {
+            this.entry = entry;
+            this.height = 1;
+        }
+    }
+
+    // No-argument constructor for creating an empty tree bucket with natural key equality
+    TreeBucket() {
+        this(null);
+    }
+
+    /**
+     * Constructor for creating an empty tree bucket.
+     *
+     * @param strategy The strategy used to compare keys, or null for the keys' own equals.
+     */
+    @SuppressWarnings("unchecked")
+    TreeBucket(HashingStrategy<?> strategy) {
+        super();
+        this.strategy = (HashingStrategy<Object>) strategy;
+        root = null;
+    }
+
+    /**
+     * Builds a tree bucket holding the same nodes as the given chain, in the same order.
+     * The nodes are relinked, not copied, so the original queue must not be used afterwards.
+     *
+     * @param queue The bucket chain to convert.
+     * @param strategy The map's key strategy, or null for the keys' own equals.
+     * @return A tree bucket over the chain's nodes.
+     */
+    static <T> TreeBucket<T> treeify(GenericQueue<T> queue, HashingStrategy<?> strategy) {
+        TreeBucket<T> bucket = new TreeBucket<>(strategy);
+        GenericList<T>.Node<T> current = queue.getHead();
+        while (current != null) {
+            GenericList<T>.Node<T> next = current.next;
+            bucket.linkLast(current);
+            current = next;
+        }
+        return bucket;
+    }
+
+    /**
+     * Keyless elements cannot be ordered in the tree, so plain add is not supported.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void add(T data) {
+        throw new UnsupportedOperationException("Tree buckets only hold keyed entries.");
+    }
+
+    /**
+     * Keyless elements cannot be ordered in the tree, so bulk add is not supported either.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public int addAll(Iterable<? extends T> elements) {
+        throw new UnsupportedOperationException("Tree buckets only hold keyed entries.");
+    }
+
+    /**
+     * Draining would bypass the tree index, so it is not supported.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        throw new UnsupportedOperationException("Tree buckets are drained through MyHashMap.");
+    }
+
+    /**
+     * Adds a new keyed entry to the end of the chain and to the tree index.
+     *
+     * @param key The key associated with the node.
+     * @param data The data to be added.
+     * @param code The spread hash code of the key.
+     */
+    @Override
+    public void add(Object key, T data, int code) {
+        super.add(key, data, code);
+        root = insert(root, new TreeNode<>(this.getTail()), comparableClassOf(key));
+    }
+
+    /**
+     * Appends an existing node to the chain and indexes it in the tree.
+     *
+     * @param node The node to append; its links are reset.
+     */
+    @Override
+    void linkLast(Node<T> node) {
+        super.linkLast(node);
+        root = insert(root, new TreeNode<>(node), comparableClassOf(node.key));
+    }
+
+    /**
+     * Deletes and returns the first entry of the chain, removing it from the tree as well.
+     *
+     * @return The data of the first entry, or null if the bucket is empty.
+     */
+    @Override
+    public T delete() {
+        GenericList<T>.Node<T> head = this.getHead();
+        if (head == null) {
+            return null;
+        }
+        removed = false;
+        root = remove(root, head, comparableClassOf(head.key));
+        return super.delete();
+    }
+
+    /**
+     * Removes a node from the chain and from the tree index.
+     *
+     * @param node The node to remove.
+     */
+    @Override
+    void unlink(Node<T> node) {
+        removed = false;
+        root = remove(root, node, comparableClassOf(node.key));
+        super.unlink(node);
+    }
+
+    /**
+     * Converts this bucket back into a plain chain holding the same nodes, in the same order.
+     * MyHashMap does this once removals leave the bucket short.
+     *
+     * @return A GenericQueue over this bucket's nodes.
+     */
+    GenericQueue<T> untreeify() {
+        GenericQueue<T> queue = new GenericQueue<>();
+        GenericList<T>.Node<T> current = this.getHead();
+        while (current != null) {
+            GenericList<T>.Node<T> next = current.next;
+            queue.linkLast(current);
+            current = next;
+        }
+        return queue;
+    }
+
+    /**
+     * Finds the entry for the given key by walking the tree.
+     *
+     * @param key The key to look for.
+     * @param code The spread hash code of the key.
+     * @return The chain node holding the key, or null if it is not in this bucket.
+     */
+    GenericList<T>.Node<T> find(Object key, int code) {
+        return find(root, key, code, comparableClassOf(key));
+    }
+
+    // Returns the class compareTo can be used with for key, or null if keys are ordered by hash only
+    private Class<?> comparableClassOf(Object key) {
+        return strategy == null ? comparableClassFor(key) : null;
+    }
+
+    // Searches the subtree rooted at p; on a tie the right side is searched recursively
+    private GenericList<T>.Node<T> find(TreeNode<T> p, Object key, int code, Class<?> type) {
+        while (p != null) {
+            GenericList<T>.Node<T> e = p.entry;
+            if (e.code == code && (strategy == null ? key.equals(e.key) : strategy.equals(key, e.key))) {
+                return e;
+            }
+            int cmp = compareKeys(code, key, type, e.code, e.key);
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else {
+                // Same hash and no usable ordering: the key may be on either side
+                GenericList<T>.Node<T> found = find(p.right, key, code, type);
+                if (found != null) {
+                    return found;
+                }
+                p = p.left;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Orders two keys by hash code, then by compareTo if key2 is of the class type returned
+     * by comparableClassFor(key1). Returns 0 when neither decides the order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compareKeys(int code1, Object key1, Class<?> type, int code2, Object key2) {
+        if (code1 != code2) {
+            return code1 < code2 ? -1 : 1;
+        }
+        if (type == null || key2 == null || key2.getClass() != type) {
+            return 0;
+        }
+        return ((Comparable) key1).compareTo(key2);
+    }
+
+    /**
+     * Returns the class of x if it is of the form "class C implements Comparable of C",
+     * otherwise null, so compareTo is only called where it cannot throw ClassCastException.
+     */
+    static Class<?> comparableClassFor(Object x) {
+        if (x instanceof String) {
+            return String.class;  // Fast path for the most common key type
+        }
+        if (!(x instanceof Comparable)) {
+            return null;
+        }
+        Class<?> type = x.getClass();
+        for (Type implemented : type.getGenericInterfaces()) {
+            if (implemented instanceof ParameterizedType) {
+                ParameterizedType p = (ParameterizedType) implemented;
+                Type[] args = p.getActualTypeArguments();
+                if (p.getRawType() == Comparable.class && args.length == 1 && args[0] == type) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Total order used to place nodes: key order, then identity hash to break ties
+    // (type is the comparable class of a's key, or null)
+    private static int order(GenericList<?>.Node<?> a, Class<?> type, GenericList<?>.Node<?> b) {
+        int cmp = compareKeys(a.code, a.key, type, b.code, b.key);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Integer.compare(System.identityHashCode(a.key), System.identityHashCode(b.key));
+    }
+
+    // Inserts x into the subtree rooted at p and returns the rebalanced subtree
+    private TreeNode<T> insert(TreeNode<T> p, TreeNode<T> x, Class<?> type) {
+        if (p == null) {
+            return x;
+        }
+        if (order(x.entry, type, p.entry) < 0) {
+            p.left = insert(p.left, x, type);
+        } else {
+            p.right = insert(p.right, x, type);
+        }
+        return balance(p);
+    }
+
+    // Removes the tree node for target from the subtree rooted at p; sets removed when found
+    private TreeNode<T> remove(TreeNode<T> p, GenericList<T>.Node<T> target, Class<?> type) {
+        if (p == null) {
+            return null;
+        }
+        if (p.entry == target) {
+            removed = true;
+            return removeRoot(p);
+        }
+        int cmp = order(target, type, p.entry);
+        if (cmp < 0) {
+            p.left = remove(p.left, target, type);
+        } else if (cmp > 0) {
+            p.right = remove(p.right, target, type);
+        } else {
+            // Full tie: rotations may have moved the target to either side
+            p.left = remove(p.left, target, type);
+            if (!removed) {
+                p.right = remove(p.right, target, type);
+            }
+        }
+        return removed ? balance(p) : p;
+    }
+
+    // Removes p itself, replacing it with the smallest node of its right subtree
+    private static <T> TreeNode<T> removeRoot(TreeNode<T> p) {
+        if (p.left == null) {
+            return p.right;
+        }
+        if (p.right == null) {
+            return p.left;
+        }
+        TreeNode<T> successor = p.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        successor.right = removeMin(p.right);
+        successor.left = p.left;
+        return balance(successor);
+    }
+
+    // Removes the smallest node of the subtree rooted at p
+    private static <T> TreeNode<T> removeMin(TreeNode<T> p) {
+        if (p.left == null) {
+            return p.right;
+        }
+        p.left = removeMin(p.left);
+        return balance(p);
+    }
+
+    private static int height(TreeNode<?> p) {
+        return p == null ? 0 : p.height;
+    }
+
+    private static void updateHeight(TreeNode<?> p) {
+        p.height = Math.max(height(p.left), height(p.right)) + 1;
+    }
+
+    private static <T> TreeNode<T> rotateRight(TreeNode<T> p) {
+        TreeNode<T> l = p.left;
+        p.left = l.right;
+        l.right = p;
+        updateHeight(p);
+        updateHeight(l);
+        return l;
+    }
+
+    private static <T> TreeNode<T> rotateLeft(TreeNode<T> p) {
+        TreeNode<T> r = p.right;
+        p.right = r.left;
+        r.left = p;
+        updateHeight(p);
+        updateHeight(r);
+        return r;
+    }
+
+    // Restores the AVL property (subtree heights differ by at most one) at p
+    private static <T> TreeNode<T> balance(TreeNode<T> p) {
+        updateHeight(p);
+        int skew = height(p.left) - height(p.right);
+        if (skew > 1) {
+            if (height(p.left.left) < height(p.left.right)) {
+                p.left = rotateLeft(p.left);
+            }
+            return rotateRight(p);
+        }
+        if (skew < -1) {
+            if (height(p.right.right) < height(p.right.left)) {
+                p.right = rotateRight(p.right);
+            }
+            return rotateLeft(p);
+        }
+        return p;
+    }
+
+    /**
+     * Returns the height of the tree index, for checking that it stays balanced.
+     *
+     * @return The number of levels in the tree (0 when empty).
+     */
+    int treeHeight() {
+        return height(root);
+    }
+}
@@ -0,0 +1,220 @@
+// Utf8.java
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utf8 class holds the UTF-8 helpers shared by the maps that store keys as bytes.
+ * Every method works directly on a CharSequence or on bytes in a buffer, encoding one code
+ * point at a time, so keys can be measured, written, hashed and compared without first
+ * converting them to a byte[] or a String.
+ *
+ * A sequence with an unpaired surrogate has no UTF-8 encoding. String.getBytes(UTF_8)
+ * replaces such a surrogate with '?', which would turn distinct keys into the same bytes,
+ * so every method taking a CharSequence rejects it with an IllegalArgumentException.
+ */
+final class Utf8 {
+    // Starting value of the FNV-1a hash
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    // Multiplier of the FNV-1a hash
+    private static final int FNV_PRIME = 0x01000193;
+
+    private Utf8() {
+    }
+
+    // Returns the code point starting at index i, rejecting an unpaired surrogate
+    private static int codePointAt(CharSequence s, int i) {
+        char c = s.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            return Character.toCodePoint(c, s.charAt(i + 1));
+        }
+        if (Character.isSurrogate(c)) {
+            throw new IllegalArgumentException("Unpaired surrogate at index " + i + " cannot be encoded as UTF-8.");
+        }
+        return c;
+    }
+
+    // Number of chars a code point returned by codePointAt took up (2 for a surrogate pair, else 1)
+    private static int charsAt(int codePoint) {
+        return codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT ? 2 : 1;
+    }
+
+    // Number of UTF-8 bytes for a code point
+    private static int byteCount(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+
+    // Returns byte number k (0-based) of the UTF-8 encoding of a code point of length n
+    private static int byteOf(int codePoint, int n, int k) {
+        if (n == 1) {
+            return codePoint;
+        }
+        if (k == 0) {
+            int lead = n == 2 ? 0xc0 : (n == 3 ? 0xe0 : 0xf0);
+            return lead | (codePoint >>> (6 * (n - 1)));
+        }
+        return 0x80 | ((codePoint >>> (6 * (n - 1 - k))) & 0x3f);
+    }
+
+    /**
+     * Returns the number of bytes in the UTF-8 encoding of a sequence.
+     *
+     * @param s The characters to measure.
+     * @return The encoded length in bytes.
+     * @throws IllegalArgumentException if s contains an unpaired surrogate.
+     */
+    static int encodedLength(CharSequence s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); ) {
+            int cp = codePointAt(s, i);
+            length += byteCount(cp);
+            i += charsAt(cp);
+        }
+        return length;
+    }
+
+    /**
+     * Writes the UTF-8 encoding of a sequence into a buffer at the given index,
+     * without moving the buffer's position.
+     *
+     * @param s The characters to encode.
+     * @param target The buffer to write to.
+     * @param offset The index of the first byte to write.
+     * @return The number of bytes written.
+     * @throws IllegalArgumentException if s contains an unpaired surrogate.
+     */
+    static int encode(CharSequence s, ByteBuffer target, int offset) {
+        int p = offset;
+        for (int i = 0; i < s.length(); ) {
+            int cp = codePointAt(s, i);
+            int n = byteCount(cp);
+            for (int k = 0; k < n; k++) {
+                target.put(p++, (byte) byteOf(cp, n, k));
+            }
+            i += charsAt(cp);
+        }
+        return p - offset;
+    }
+
+    /**
+     * Hashes the UTF-8 encoding of a sequence (FNV-1a over the bytes).
+     * Gives the same result as hash(ByteBuffer, int, int) over the encoded bytes.
+     *
+     * @param s The characters to hash.
+     * @return The hash code.
+     * @throws IllegalArgumentException if s contains an unpaired surrogate.
+     */
+    static int hash(CharSequence s) {
+        int h = FNV_OFFSET;
+        for (int i = 0; i < s.length(); ) {
+            int cp = codePointAt(s, i);
+            int n = byteCount(cp);
+            for (int k = 0; k < n; k++) {
+                h = (h ^ (byteOf(cp, n, k) & 0xff)) * FNV_PRIME;
+            }
+            i += charsAt(cp);
+        }
+        return MyHashMap.spread(h);
+    }
+
+    /**
+     * Hashes a run of UTF-8 bytes in a buffer (FNV-1a over the bytes).
+     *
+     * @param source The buffer holding the bytes.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     * @return The hash code.
+     */
+    static int hash(ByteBuffer source, int offset, int length) {
+        int h = FNV_OFFSET;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ (source.get(i) & 0xff)) * FNV_PRIME;
+        }
+        return MyHashMap.spread(h);
+    }
+
+    /**
+     * Hashes a run of UTF-8 bytes in an array (FNV-1a over the bytes).
+     *
+     * @param source The array holding the bytes.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     * @return The hash code.
+     */
+    static int hash(byte[] source, int offset, int length) {
+        int h = FNV_OFFSET;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ (source[i] & 0xff)) * FNV_PRIME;
+        }
+        return MyHashMap.spread(h);
+    }
+
+    /**
+     * Checks whether a run of bytes in a buffer is the UTF-8 encoding of a sequence.
+     *
+     * @param s The characters to compare.
+     * @param source The buffer holding the bytes.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     * @return true if the bytes encode exactly the given characters.
+     * @throws IllegalArgumentException if s contains an unpaired surrogate.
+     */
+    static boolean equals(CharSequence s, ByteBuffer source, int offset, int length) {
+        int p = offset;
+        int end = offset + length;
+        for (int i = 0; i < s.length(); ) {
+            int cp = codePointAt(s, i);
+            int n = byteCount(cp);
+            if (p + n > end) {
+                return false;
+            }
+            for (int k = 0; k < n; k++) {
+                if (source.get(p++) != (byte) byteOf(cp, n, k)) {
+                    return false;
+                }
+            }
+            i += charsAt(cp);
+        }
+        return p == end;
+    }
+
+    /**
+     * Checks whether two runs of bytes are equal.
+     *
+     * @param a The array holding the first run.
+     * @param aOffset The index of the first byte of the first run.
+     * @param source The buffer holding the second run.
+     * @param offset The index of the first byte of the second run.
+     * @param length The number of bytes in each run.
+     * @return true if the runs hold the same bytes.
+     */
+    static boolean equals(byte[] a, int aOffset, ByteBuffer source, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] != source.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a run of UTF-8 bytes in a buffer into a String.
+     *
+     * @param source The buffer holding the bytes.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     * @return The decoded string.
+     */
+    static String decode(ByteBuffer source, int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer bulk = source.duplicate();  // Relative bulk get, without moving source's position
+        bulk.position(offset);
+        bulk.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
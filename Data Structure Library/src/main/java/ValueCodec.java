@@ -0,0 +1,118 @@
+// ValueCodec.java
+import java.nio.ByteBuffer;
+
+/**
+ * ValueCodec interface turns values into bytes and back, so that maps which keep their data
+ * outside the Java heap (such as OffHeapHashMap) can store any value type.
+ * Codecs read and write at absolute buffer indices and never move the buffer's position.
+ * Common codecs are provided as constants; null values are handled by the map, so codecs
+ * never see null.
+ *
+ * @param <V> The value type.
+ */
+public interface ValueCodec<V> {
+    /**
+     * Returns the number of bytes write will use for a value.
+     *
+     * @param value The value to measure (never null).
+     * @return The encoded size in bytes.
+     */
+    int size(V value);
+
+    /**
+     * Writes a value into a buffer. Exactly size(value) bytes are written.
+     *
+     * @param value The value to encode (never null).
+     * @param target The buffer to write to.
+     * @param offset The index of the first byte to write.
+     */
+    void write(V value, ByteBuffer target, int offset);
+
+    /**
+     * Reads a value back from a buffer.
+     *
+     * @param source The buffer to read from.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes written for the value.
+     * @return The decoded value.
+     */
+    V read(ByteBuffer source, int offset, int length);
+
+    /** Stores strings as UTF-8. */
+    ValueCodec<String> STRING = new ValueCodec<String>() {
+        @Override
+        public int size(String value) {
+            return Utf8.encodedLength(value);
+        }
+
+        @Override
+        public void write(String value, ByteBuffer target, int offset) {
+            Utf8.encode(value, target, offset);
+        }
+
+        @Override
+        public String read(ByteBuffer source, int offset, int length) {
+            return Utf8.decode(source, offset, length);
+        }
+    };
+
+    /** Stores integers as 4 bytes. */
+    ValueCodec<Integer> INTEGER = new ValueCodec<Integer>() {
+        @Override
+        public int size(Integer value) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(Integer value, ByteBuffer target, int offset) {
+            target.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer source, int offset, int length) {
+            return source.getInt(offset);
+        }
+    };
+
+    /** Stores longs as 8 bytes. */
+    ValueCodec<Long> LONG = new ValueCodec<Long>() {
+        @Override
+        public int size(Long value) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long value, ByteBuffer target, int offset) {
+            target.putLong(offset, value);
+        }
+
+        @Override
+        public Long read(ByteBuffer source, int offset, int length) {
+            return source.getLong(offset);
+        }
+    };
+
+    /** Stores byte arrays as they are. */
+    ValueCodec<byte[]> BYTES = new ValueCodec<byte[]>() {
+        @Override
+        public int size(byte[] value) {
+            return value.length;
+        }
+
+        @Override
+        public void write(byte[] value, ByteBuffer target, int offset) {
+            ByteBuffer bulk = target.duplicate();  // Relative bulk put, without moving target's position
+            bulk.position(offset);
+            bulk.put(value);
+        }
+
+        @Override
+        public byte[] read(ByteBuffer source, int offset, int length) {
+            byte[] value = new byte[length];
+            ByteBuffer bulk = source.duplicate();
+            bulk.position(offset);
+            bulk.get(value);
+            return value;
+        }
+    };
+}
@@ -0,0 +1,22 @@
+// Weigher.java
+
+/**
+ * Weigher interface computes how much of a BoundedCache's capacity an entry uses.
+ * A cache created with a weigher is bounded by the total weight of its entries instead of
+ * by their number, which suits values of very different sizes (for example byte arrays).
+ * The weight of an entry is computed when it is stored and is not recomputed afterwards.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+    /**
+     * Returns the weight of an entry.
+     *
+     * @param key The key of the entry (never null).
+     * @param value The value of the entry.
+     * @return The weight of the entry; must not be negative.
+     */
+    int weigh(K key, V value);
+}
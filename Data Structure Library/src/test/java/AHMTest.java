@@ -0,0 +1,96 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public class AHMTest {
+
+    @Test
+    public void testConstructor() {
+        ArenaHashMap<Integer> map = new ArenaHashMap<>();
+        assertTrue(map.isEmpty(), "Map should be empty after construction");
+        assertEquals(0, map.arenaBytes(), "No key bytes should be used yet");
+        assertThrows(IllegalArgumentException.class, () -> new ArenaHashMap<Integer>(-1, 16));
+        assertThrows(IllegalArgumentException.class, () -> new ArenaHashMap<Integer>(16, -1));
+    }
+
+    @Test
+    public void testPutGetReplace() {
+        ArenaHashMap<Integer> map = new ArenaHashMap<>();
+        map.put("key1", 1);
+        map.put("key2", 2);
+        map.put("key1", 10);
+        assertEquals(2, map.size(), "Updating a key should not add an entry");
+        assertEquals(Integer.valueOf(10), map.get("key1"), "get should return the updated value");
+        assertEquals(10, map.arenaBytes(), "Each short key should cost its bytes plus a one-byte prefix");
+        assertEquals(Integer.valueOf(2), map.replace("key2", 20), "replace should return the old value");
+        assertNull(map.replace("missing", 1), "replace should not add a missing key");
+        assertFalse(map.contains("missing"), "replace should not add a missing key");
+        assertNull(map.get((CharSequence) null), "A null key should return null");
+        assertThrows(IllegalArgumentException.class, () -> map.put((CharSequence) null, 1));
+    }
+
+    @Test
+    public void testCharSequenceAndByteKeys() {
+        ArenaHashMap<String> map = new ArenaHashMap<>();
+        map.put(new StringBuilder("héllo"), "chars");
+        byte[] buffer = "xx wörld yy".getBytes(StandardCharsets.UTF_8);
+        int length = "wörld".getBytes(StandardCharsets.UTF_8).length;
+        map.put(buffer, 3, length, "bytes");
+
+        byte[] hello = "héllo".getBytes(StandardCharsets.UTF_8);
+        assertEquals("chars", map.get(hello, 0, hello.length), "A key added as characters should be found by its bytes");
+        assertEquals("bytes", map.get("wörld"), "A key added as bytes should be found by its characters");
+        assertTrue(map.contains(buffer, 3, length), "The byte slice should be found");
+        assertFalse(map.contains(buffer, 3, length - 1), "A shorter slice is a different key");
+        assertFalse(map.contains("wörl"), "A prefix is a different key");
+        assertThrows(IllegalArgumentException.class, () -> map.get(buffer, 8, 10));
+        assertThrows(IllegalArgumentException.class, () -> map.contains(null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> map.put("bad \ud800", "x"), "Unpaired surrogates should be rejected");
+        assertNull(map.get("bad ?"), "A rejected key should not be stored under a substitute");
+    }
+
+    @Test
+    public void testGrowth() {
+        ArenaHashMap<Integer> map = new ArenaHashMap<>(2, 16);
+        StringBuilder longKey = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            longKey.append('k');
+        }
+        map.put(longKey, -1);
+        for (int i = 0; i < 10000; i++) {
+            map.put("key" + i, i);
+        }
+        assertEquals(10001, map.size(), "Every key should be stored");
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Integer.valueOf(i), map.get("key" + i), "Every key should survive the arena and slot growth");
+        }
+        assertEquals(Integer.valueOf(-1), map.get(longKey.toString()), "Keys with a two-byte length prefix should be found");
+        assertEquals(0, map.capacity() & (map.capacity() - 1), "Capacity should stay a power of two");
+    }
+
+    @Test
+    public void testIterators() {
+        ArenaHashMap<Integer> map = new ArenaHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+        Set<Integer> values = new HashSet<>();
+        Iterator<Integer> it = map.iterator();
+        while (it.hasNext()) {
+            values.add(it.next());
+        }
+        assertEquals(100, values.size(), "The iterator should return every value once");
+        assertThrows(NoSuchElementException.class, it::next);
+        Set<String> keys = new HashSet<>();
+        for (String key : map.keys()) {
+            keys.add(key);
+        }
+        assertEquals(100, keys.size(), "keys should return every key once");
+        assertTrue(keys.contains("key42"), "keys should decode the stored bytes");
+    }
+}
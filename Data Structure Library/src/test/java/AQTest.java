@@ -0,0 +1,129 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+
+public class AQTest {
+
+    @Test
+    public void testEnqueueDequeue() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>(10);
+        queue.enqueue(20);
+        queue.enqueue(30);
+        assertEquals(3, queue.getLength(), "Length should be 3 after three enqueues");
+        assertEquals(Integer.valueOf(10), queue.peek(), "Peek should return the front element");
+        assertEquals(Integer.valueOf(10), queue.dequeue(), "Dequeued element should be 10");
+        assertEquals(Integer.valueOf(20), queue.delete(), "Deleted element should be 20");
+        assertEquals(Integer.valueOf(30), queue.dequeue(), "Dequeued element should be 30");
+        assertNull(queue.dequeue(), "Dequeue on an empty queue should return null");
+        assertNull(queue.peek(), "Peek on an empty queue should return null");
+        assertNull(queue.getHead(), "An array-backed queue has no head node");
+    }
+
+    @Test
+    public void testWrapAroundAndGrowth() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>(4, false);
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        for (int round = 0; round < 10; round++) {
+            queue.enqueue(round);
+            queue.enqueue(round + 100);
+            queue.dequeue();  // Keeps the head index moving around the ring
+            expected.add(round);
+            expected.add(round + 100);
+            expected.poll();
+        }
+        for (int i = 0; i < 100; i++) {
+            queue.enqueue(i + 1000);  // Forces growth while the contents are wrapped
+            expected.add(i + 1000);
+        }
+        assertEquals(110, queue.getLength(), "Length should count every remaining element");
+        assertEquals(new ArrayList<>(expected), queue.dumpList(), "Elements should survive the growth in order");
+        assertEquals(Integer.valueOf(1099), queue.get(109), "Back element should be the last enqueued");
+        assertEquals(Integer.valueOf(1000), queue.set(10, -1), "Set should return the old element");
+        assertEquals(Integer.valueOf(-1), queue.get(10), "Set should store the new element");
+        assertNull(queue.get(110), "Getting element at invalid index should return null");
+        assertEquals(Integer.valueOf(1099), queue.peekLast(), "peekLast should return the back element");
+        assertEquals(Integer.valueOf(1099), queue.pollLast(), "pollLast should remove the back element");
+        assertEquals(Integer.valueOf(1098), queue.peekLast(), "The back should move to the previous element");
+        assertEquals(109, queue.getLength(), "pollLast should shrink the queue");
+    }
+
+    @Test
+    public void testBoundedMode() {
+        ArrayQueue<String> queue = new ArrayQueue<>(3, true);
+        assertTrue(queue.isBounded(), "Queue should report bounded mode");
+        assertEquals(3, queue.capacity(), "Bounded capacity should be exact");
+        assertTrue(queue.offer("a"));
+        assertTrue(queue.offer("b"));
+        assertTrue(queue.offer("c"));
+        assertFalse(queue.offer("d"), "Offer should fail on a full bounded queue");
+        assertThrows(IllegalStateException.class, () -> queue.add("d"));
+        assertEquals("a", queue.dequeue(), "Dequeued element should be 'a'");
+        assertTrue(queue.offer("d"), "Offer should succeed once there is room again");
+        assertEquals(Arrays.asList("b", "c", "d"), queue.dumpList(), "dumpList should return the elements in order");
+    }
+
+    @Test
+    public void testIterators() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>(2, false);
+        queue.add(10);
+        queue.add(20);
+        queue.dequeue();
+        queue.add(30);
+        queue.add(40);  // Wraps around the end of the ring buffer
+        ArrayList<Integer> forward = new ArrayList<>();
+        for (Integer item : queue) {
+            forward.add(item);
+        }
+        assertEquals(Arrays.asList(20, 30, 40), forward, "Iterator should go from front to back");
+        Iterator<Integer> reverse = queue.descendingIterator();
+        assertEquals(Integer.valueOf(40), reverse.next(), "Descending iterator should start at the back");
+        assertEquals(Integer.valueOf(30), reverse.next());
+        assertEquals(Integer.valueOf(20), reverse.next());
+        assertFalse(reverse.hasNext(), "Descending iterator should end at the front");
+    }
+
+    @Test
+    public void testPrint() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>();
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+        queue.print();
+        queue.add(10);
+        queue.add(20);
+        queue.print();
+        System.setOut(originalOut);
+        String lineSep = System.lineSeparator();
+        assertEquals("Empty List" + lineSep + "10" + lineSep + "20" + lineSep, outContent.toString(),
+                "Print output should match expected");
+    }
+
+    @Test
+    public void testStreams() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>(8, false);
+        ArrayList<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            queue.enqueue(i);
+        }
+        for (int i = 0; i < 4; i++) {
+            queue.dequeue();  // Moves the head so the contents wrap around the ring
+        }
+        for (int i = 6; i < 1000; i++) {
+            queue.enqueue(i);
+        }
+        for (int i = 4; i < 1000; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, queue.stream().collect(Collectors.toList()), "stream should follow queue order");
+        assertEquals(expected, queue.parallelStream().collect(Collectors.toList()),
+                "A parallel stream should keep the queue order");
+        assertEquals(996, queue.spliterator().getExactSizeIfKnown(), "The spliterator should know its size");
+    }
+}
@@ -0,0 +1,190 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class BCTest {
+
+    @Test
+    public void testLruEviction() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        assertEquals(Integer.valueOf(1), cache.get("a"), "get should find a cached key");
+        cache.put("d", 4);  // "b" is now the least recently used entry
+        assertEquals(3, cache.size(), "The cache should stay within its bound");
+        assertFalse(cache.contains("b"), "The least recently used entry should be evicted");
+        assertTrue(cache.contains("a"), "A recently read entry should survive");
+        assertTrue(cache.contains("d"), "The new entry should be cached");
+        assertEquals(1, cache.evictionCount(), "One eviction should be counted");
+    }
+
+    @Test
+    public void testUpdateRefreshesEntry() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("a", 10);  // Updating "a" makes "b" the least recently used entry
+        cache.put("c", 3);
+        assertEquals(Integer.valueOf(10), cache.get("a"), "put should update the value in place");
+        assertNull(cache.get("b"), "The entry that was not refreshed should be evicted");
+        assertEquals(2, cache.size(), "An update should not add an entry");
+    }
+
+    @Test
+    public void testStatistics() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+        cache.put("a", 1);
+        cache.get("a");
+        cache.get("a");
+        cache.get("missing");
+        assertEquals(2, cache.hitCount(), "Hits should be counted");
+        assertEquals(1, cache.missCount(), "Misses should be counted");
+        assertEquals(2.0 / 3.0, cache.hitRate(), 1e-9, "The hit rate should be hits over requests");
+        cache.contains("missing");
+        assertEquals(1, cache.missCount(), "contains should not count as a lookup");
+    }
+
+    @Test
+    public void testWeightBound() {
+        BoundedCache<String, byte[]> cache = new BoundedCache<>(100, (key, value) -> value.length, BoundedCache.Policy.LRU);
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[40]);
+        assertEquals(80, cache.weightedSize(), "Weighted size should add up entry weights");
+        cache.put("c", new byte[40]);
+        assertFalse(cache.contains("a"), "The oldest entry should be evicted to fit the weight bound");
+        assertEquals(80, cache.weightedSize(), "Weighted size should stay within the bound");
+        cache.put("b", new byte[10]);
+        assertEquals(50, cache.weightedSize(), "An update should replace the entry's weight");
+        cache.put("huge", new byte[500]);
+        assertFalse(cache.contains("huge"), "An entry heavier than the cache should not be stored");
+        assertEquals(2, cache.size(), "Rejecting an oversized entry should not evict others");
+        assertThrows(IllegalArgumentException.class,
+                () -> new BoundedCache<String, byte[]>(100, (key, value) -> -1, BoundedCache.Policy.LRU).put("x", null));
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, BoundedCache.Policy.TINY_LFU);
+        for (int i = 0; i < 5; i++) {
+            cache.put("key" + i, i);
+        }
+        assertEquals(Integer.valueOf(3), cache.remove("key3"), "remove should return the old value");
+        assertNull(cache.remove("key3"), "Removing a missing key should return null");
+        assertEquals(4, cache.size(), "remove should shrink the cache");
+        Set<Integer> values = new HashSet<>();
+        for (Integer value : cache) {
+            values.add(value);
+        }
+        assertEquals(Set.of(0, 1, 2, 4), values, "The iterator should visit every cached value");
+        cache.clear();
+        assertEquals(0, cache.size(), "clear should remove every entry");
+        assertEquals(0, cache.weightedSize(), "clear should reset the weight");
+        cache.put("again", 1);
+        assertEquals(Integer.valueOf(1), cache.get("again"), "A cleared cache should accept new entries");
+    }
+
+    @Test
+    public void testTinyLfuResistsScans() {
+        BoundedCache<String, Integer> lru = new BoundedCache<>(100, BoundedCache.Policy.LRU);
+        BoundedCache<String, Integer> tinyLfu = new BoundedCache<>(100, BoundedCache.Policy.TINY_LFU);
+        for (BoundedCache<String, Integer> cache : Arrays.asList(lru, tinyLfu)) {
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 50; i++) {
+                    if (cache.get("hot" + i) == null) {
+                        cache.put("hot" + i, i);
+                    }
+                }
+            }
+            for (int i = 0; i < 1000; i++) {
+                cache.put("scan" + i, i);  // One-off keys that are never read again
+            }
+            assertTrue(cache.size() <= 100, "The cache should stay within its bound");
+        }
+        int lruHot = 0;
+        int tinyLfuHot = 0;
+        for (int i = 0; i < 50; i++) {
+            lruHot += lru.contains("hot" + i) ? 1 : 0;
+            tinyLfuHot += tinyLfu.contains("hot" + i) ? 1 : 0;
+        }
+        assertEquals(0, lruHot, "A long scan should flush every popular entry from an LRU cache");
+        assertTrue(tinyLfuHot >= 45, "TinyLFU should keep the popular entries through a scan, kept " + tinyLfuHot);
+    }
+
+    @Test
+    public void testFrequencySketch() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("popular");
+        }
+        sketch.increment("rare");
+        assertEquals(15, sketch.frequency("popular"), "Counters should saturate at 15");
+        assertTrue(sketch.frequency("rare") >= 1, "A recorded key should have a frequency");
+        assertTrue(sketch.frequency("popular") > sketch.frequency("rare"), "Frequencies should be ordered");
+        for (int i = 0; i < 10000; i++) {
+            sketch.increment("filler" + i);  // Enough increments to trigger halving
+        }
+        assertTrue(sketch.frequency("popular") < 15, "Periodic halving should age old counts");
+    }
+
+    @Test
+    public void testFrequencySketchGrows() {
+        FrequencySketch sketch = new FrequencySketch(0);
+        int initial = sketch.capacity();
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("popular");
+        }
+        sketch.ensureCapacity(initial / 2);
+        assertEquals(initial, sketch.capacity(), "A sketch should never shrink");
+        sketch.ensureCapacity(initial * 8L);
+        assertEquals(initial * 8, sketch.capacity(), "The sketch should grow to the entry count");
+        assertTrue(sketch.frequency("popular") >= 5, "Growing should keep the estimates");
+    }
+
+    @Test
+    public void testTinyLfuCountsUpdatesAndGrowsWeightedSketch() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(100, BoundedCache.Policy.TINY_LFU);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.put("hot" + i, round);  // Popular keys that are only ever written
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            cache.put("scan" + i, i);
+        }
+        int kept = 0;
+        for (int i = 0; i < 50; i++) {
+            kept += cache.contains("hot" + i) ? 1 : 0;
+        }
+        assertTrue(kept >= 45, "Repeated puts should count as requests, kept " + kept);
+
+        Weigher<Integer, byte[]> bytes = (key, value) -> value.length;
+        BoundedCache<Integer, byte[]> weighted = new BoundedCache<>(1 << 20, bytes, BoundedCache.Policy.TINY_LFU);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 5000; i++) {
+                if (weighted.get(i) == null) {
+                    weighted.put(i, new byte[16]);
+                }
+            }
+        }
+        for (int i = 0; i < 50000; i++) {
+            weighted.put(-1 - i, new byte[16]);
+        }
+        int weightedKept = 0;
+        for (int i = 0; i < 5000; i++) {
+            weightedKept += weighted.contains(i) ? 1 : 0;
+        }
+        assertTrue(weightedKept >= 4500, "A weighted cache's sketch should grow with its entries, kept " + weightedKept);
+        assertTrue(weighted.weightedSize() <= weighted.maximumWeight(), "The cache should stay within its bound");
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<String, Integer>(0));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<String, Integer>(10, null));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<String, Integer>(10).put(null, 1));
+    }
+}
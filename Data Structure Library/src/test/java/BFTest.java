@@ -0,0 +1,34 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BFTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10000);
+        for (int i = 0; i < 10000; i++) {
+            filter.add(MyHashMap.hash("key" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain(MyHashMap.hash("key" + i)), "Every added key should be reported as present");
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10000);
+        assertEquals(0.0, filter.fill(), "A new filter should have no bits set");
+        for (int i = 0; i < 10000; i++) {
+            filter.add(MyHashMap.hash("key" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain(MyHashMap.hash("miss" + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 3000, "A full filter should reject almost every absent key, was " + falsePositives);
+        assertTrue(filter.fill() > 0.3 && filter.fill() < 0.6, "A full filter should be about half set");
+        assertEquals(0, filter.sizeInBytes() % 64, "The filter should be made of 64-byte blocks");
+    }
+}
@@ -0,0 +1,139 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BGQTest {
+
+    @Test
+    public void testOfferPoll() {
+        BlockingGenericQueue<Integer> queue = new BlockingGenericQueue<>(2);
+        assertTrue(queue.offer(10), "offer should succeed while there is room");
+        queue.enqueue(20);
+        assertFalse(queue.offer(30), "offer should fail on a full queue");
+        assertThrows(IllegalStateException.class, () -> queue.enqueue(30));
+        assertEquals(0, queue.remainingCapacity(), "A full queue should have no remaining capacity");
+        assertEquals(Integer.valueOf(10), queue.peek(), "peek should return the front element");
+        assertEquals(Integer.valueOf(10), queue.poll(), "poll should remove the front element");
+        assertEquals(Integer.valueOf(20), queue.dequeue(), "dequeue should remove the next element");
+        assertNull(queue.poll(), "poll on an empty queue should return null");
+        assertTrue(queue.isEmpty(), "Queue should be empty after removing every element");
+        assertThrows(IllegalArgumentException.class, () -> queue.offer(null));
+        assertThrows(IllegalArgumentException.class, () -> new BlockingGenericQueue<Integer>(0));
+    }
+
+    @Test
+    public void testTimeouts() throws InterruptedException {
+        BlockingGenericQueue<Integer> queue = new BlockingGenericQueue<>(1);
+        long start = System.nanoTime();
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS), "poll should give up after the timeout");
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20), "poll should wait for the timeout");
+        assertTrue(queue.offer(1, 20, TimeUnit.MILLISECONDS), "offer should succeed at once when there is room");
+        assertFalse(queue.offer(2, 20, TimeUnit.MILLISECONDS), "offer should give up on a full queue");
+        assertEquals(Integer.valueOf(1), queue.poll(20, TimeUnit.MILLISECONDS), "poll should return an available element");
+    }
+
+    @Test
+    public void testPutWaitsForRoom() throws InterruptedException {
+        BlockingGenericQueue<Integer> queue = new BlockingGenericQueue<>(1);
+        queue.put(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(2);  // Blocks until the consumer takes the first element
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(20);
+        assertTrue(producer.isAlive(), "put should wait while the queue is full");
+        assertEquals(Integer.valueOf(1), queue.take(), "take should return the first element");
+        producer.join(5000);
+        assertFalse(producer.isAlive(), "put should finish once there is room");
+        assertEquals(Integer.valueOf(2), queue.take(), "take should return the element put after waiting");
+    }
+
+    @Test
+    public void testTakeIsInterruptible() throws InterruptedException {
+        BlockingGenericQueue<Integer> queue = new BlockingGenericQueue<>();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread consumer = new Thread(() -> {
+            try {
+                queue.take();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        consumer.start();
+        consumer.interrupt();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "A waiting take should respond to interrupts");
+    }
+
+    @Test
+    public void testDrainTo() throws InterruptedException {
+        BlockingGenericQueue<Integer> queue = new BlockingGenericQueue<>(5);
+        for (int i = 0; i < 5; i++) {
+            queue.put(i);
+        }
+        ArrayList<Integer> drained = new ArrayList<>();
+        assertEquals(3, queue.drainTo(drained, 3), "drainTo should stop at maxElements");
+        assertEquals(Arrays.asList(0, 1, 2), drained, "drainTo should transfer from the front");
+        assertEquals(3, queue.remainingCapacity(), "Drained elements should free capacity");
+        queue.put(5);
+        Iterator<Integer> snapshot = queue.iterator();
+        assertEquals(Integer.valueOf(3), snapshot.next(), "The iterator should start at the front");
+        assertEquals(3, queue.drainTo(drained), "drainTo without a limit should take everything");
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), drained, "Every element should be transferred in order");
+        assertTrue(queue.isEmpty(), "A drained queue should be empty");
+        assertEquals(0, queue.drainTo(drained, 10, 10, TimeUnit.MILLISECONDS),
+                "A timed drain of an empty queue should give up after the timeout");
+        queue.put(6);
+        assertEquals(1, queue.drainTo(drained, 10, 1, TimeUnit.SECONDS), "A timed drain should take what is available");
+        assertThrows(IllegalArgumentException.class, () -> queue.drainTo(null));
+    }
+
+    @Test
+    public void testManyProducersAndConsumers() throws InterruptedException {
+        BlockingGenericQueue<Integer> queue = new BlockingGenericQueue<>(16);
+        int threads = 200;  // Many more threads than cores, most of them blocked at any time
+        int perThread = 500;
+        AtomicLong sum = new AtomicLong();
+        ArrayList<Thread> all = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int base = t * perThread;
+            all.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        queue.put(base + i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            all.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        sum.addAndGet(queue.take());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (Thread thread : all) {
+            thread.start();
+        }
+        for (Thread thread : all) {
+            thread.join(30000);
+            assertFalse(thread.isAlive(), "Every producer and consumer should finish");
+        }
+        long n = (long) threads * perThread;
+        assertEquals(n * (n - 1) / 2, sum.get(), "Every element should be taken exactly once");
+        assertTrue(queue.isEmpty(), "The queue should be empty at the end");
+    }
+}
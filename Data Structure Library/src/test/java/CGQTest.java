@@ -0,0 +1,112 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CGQTest {
+
+    @Test
+    public void testEnqueueDequeue() {
+        ConcurrentGenericQueue<Integer> queue = new ConcurrentGenericQueue<>(10);
+        queue.enqueue(20);
+        queue.add(30);
+        assertEquals(3, queue.getLength(), "Length should be 3 after three enqueues");
+        assertEquals(Integer.valueOf(10), queue.peek(), "Peek should return the front element");
+        assertEquals(Integer.valueOf(10), queue.dequeue(), "Dequeued element should be 10");
+        assertEquals(Integer.valueOf(20), queue.delete(), "Dequeued element should be 20");
+        assertEquals(Integer.valueOf(30), queue.dequeue(), "Dequeued element should be 30");
+        assertNull(queue.dequeue(), "Dequeue on an empty queue should return null");
+        assertTrue(queue.isEmpty(), "Queue should be empty after removing every element");
+        assertEquals(0, queue.getLength(), "Length should be 0 after removing every element");
+    }
+
+    @Test
+    public void testNullRejected() {
+        ConcurrentGenericQueue<String> queue = new ConcurrentGenericQueue<>();
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(null));
+        assertNull(queue.peek(), "Peek on an empty queue should return null");
+    }
+
+    @Test
+    public void testIterator() {
+        ConcurrentGenericQueue<Integer> queue = new ConcurrentGenericQueue<>(10);
+        queue.enqueue(20);
+        queue.enqueue(30);
+        Iterator<Integer> iterator = queue.iterator();
+        queue.dequeue();  // Iterator is weakly consistent and must survive concurrent removals
+        ArrayList<Integer> collected = new ArrayList<>();
+        while (iterator.hasNext()) {
+            collected.add(iterator.next());
+        }
+        assertTrue(collected.containsAll(Arrays.asList(20, 30)), "Iterator should reach the remaining elements");
+        ArrayList<Integer> remaining = new ArrayList<>();
+        for (Integer item : queue) {
+            remaining.add(item);
+        }
+        assertEquals(Arrays.asList(20, 30), remaining, "forEach loop should collect the elements in order");
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumers() throws InterruptedException {
+        final int producers = 4;
+        final int consumers = 4;
+        final int perProducer = 20000;
+        ConcurrentGenericQueue<Integer> queue = new ConcurrentGenericQueue<>();
+        int[] seen = new int[producers * perProducer];
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < perProducer; i++) {
+                    queue.enqueue(base + i);
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                int[] lastFromProducer = new int[producers];
+                Arrays.fill(lastFromProducer, -1);
+                while (consumed.get() < seen.length) {
+                    Integer item = queue.dequeue();
+                    if (item == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    int producer = item / perProducer;
+                    assertTrue(item > lastFromProducer[producer], "Elements from one producer should stay in FIFO order");
+                    lastFromProducer[producer] = item;
+                    synchronized (seen) {
+                        seen[item]++;
+                    }
+                    consumed.incrementAndGet();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread t : threads) {
+            t.join(30000);
+        }
+        for (int i = 0; i < seen.length; i++) {
+            assertEquals(1, seen[i], "Every element should be dequeued exactly once");
+        }
+        assertTrue(queue.isEmpty(), "Queue should be empty once everything is consumed");
+        assertEquals(0, queue.getLength(), "Length estimate should settle at 0");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
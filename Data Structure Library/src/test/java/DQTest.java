@@ -0,0 +1,166 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DQTest {
+
+    @TempDir
+    Path dir;
+
+    // Returns the segment files in the queue directory, sorted by name
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.seg")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    @Test
+    public void testFifoOrder() throws IOException {
+        try (DurableQueue<String> queue = new DurableQueue<>(dir, ValueCodec.STRING)) {
+            assertTrue(queue.isEmpty(), "A new queue should be empty");
+            assertNull(queue.dequeue(), "Dequeue on an empty queue should return null");
+            queue.enqueue("first");
+            queue.enqueue("");
+            queue.enqueue("third");
+            assertEquals(3, queue.getLength(), "Length should count every element");
+            assertEquals("first", queue.peek(), "Peek should return the front element");
+            assertEquals("first", queue.dequeue(), "Elements should come out in FIFO order");
+            assertEquals("", queue.dequeue(), "Empty elements should be kept");
+            assertEquals("third", queue.dequeue(), "Elements should come out in FIFO order");
+            assertTrue(queue.isEmpty(), "Queue should be empty after dequeuing everything");
+            assertThrows(IllegalArgumentException.class, () -> queue.enqueue(null));
+        }
+    }
+
+    @Test
+    public void testReopenRestoresPendingElements() throws IOException {
+        try (DurableQueue<Integer> queue = new DurableQueue<>(dir, ValueCodec.INTEGER, 256, 0)) {
+            for (int i = 0; i < 100; i++) {
+                queue.enqueue(i);
+            }
+            for (int i = 0; i < 40; i++) {
+                assertEquals(Integer.valueOf(i), queue.dequeue(), "Elements should come out in order");
+            }
+        }
+        try (DurableQueue<Integer> queue = new DurableQueue<>(dir, ValueCodec.INTEGER, 256, 0)) {
+            assertEquals(60, queue.getLength(), "Only the elements not dequeued should be restored");
+            for (int i = 40; i < 70; i++) {
+                assertEquals(Integer.valueOf(i), queue.dequeue(), "Restored elements should keep their order");
+            }
+            queue.enqueue(1000);
+        }
+        try (DurableQueue<Integer> queue = new DurableQueue<>(dir, ValueCodec.INTEGER, 256, 0)) {
+            assertEquals(31, queue.getLength(), "Appends after a restart should be restored too");
+            for (int i = 70; i < 100; i++) {
+                assertEquals(Integer.valueOf(i), queue.dequeue(), "Restored elements should keep their order");
+            }
+            assertEquals(Integer.valueOf(1000), queue.dequeue(), "The last append should come out last");
+            assertTrue(queue.isEmpty(), "Queue should be empty after dequeuing everything");
+        }
+    }
+
+    @Test
+    public void testSegmentsAreRecycled() throws IOException {
+        try (DurableQueue<Integer> queue = new DurableQueue<>(dir, ValueCodec.INTEGER, 128, 16)) {
+            for (int round = 0; round < 50; round++) {
+                for (int i = 0; i < 20; i++) {
+                    queue.enqueue(round * 20 + i);
+                }
+                for (int i = 0; i < 20; i++) {
+                    assertEquals(Integer.valueOf(round * 20 + i), queue.dequeue(), "Elements should come out in order");
+                }
+            }
+            assertTrue(queue.segmentCount() <= 2, "Consumed segments should be released");
+            assertTrue(segmentFiles().size() <= 5, "Consumed segment files should be reused or deleted");
+        }
+    }
+
+    @Test
+    public void testConsumedSegmentsKeptUntilSync() throws IOException {
+        try (DurableQueue<Integer> queue = new DurableQueue<>(dir, ValueCodec.INTEGER, 128, 0)) {
+            for (int i = 0; i < 100; i++) {
+                queue.enqueue(i);
+            }
+            queue.sync();
+            List<Path> written = segmentFiles();
+            for (int i = 0; i < 90; i++) {
+                assertEquals(Integer.valueOf(i), queue.dequeue(), "Elements should come out in order");
+            }
+            assertTrue(queue.segmentCount() < written.size(), "Dequeuing should move past whole segments");
+            assertEquals(written, segmentFiles(), "Consumed segments should stay untouched before the checkpoint is forced");
+            for (int i = 100; i < 130; i++) {
+                queue.enqueue(i);
+            }
+            assertTrue(segmentFiles().containsAll(written), "New segments should not reuse files consumed since the last sync");
+            queue.sync();
+            assertTrue(segmentFiles().size() <= queue.segmentCount() + 2, "Sync should recycle the consumed segments");
+        }
+    }
+
+    @Test
+    public void testRolloverAfterSyncIsDurable() throws IOException {
+        // The writer is never closed, so the reader starts from what the syncs left, as after a crash
+        DurableQueue<Integer> writer = new DurableQueue<>(dir, ValueCodec.INTEGER, 128, 0);
+        int perSegment = (128 - DurableQueue.SEGMENT_HEADER) / (DurableQueue.RECORD_HEADER + Integer.BYTES);
+        for (int i = 0; i < perSegment; i++) {
+            writer.enqueue(i);
+        }
+        writer.sync();
+        writer.enqueue(perSegment);  // Rolls over with nothing unsynced
+        writer.sync();
+        assertEquals(2, writer.segmentCount(), "The last enqueue should have started a new segment");
+        try (DurableQueue<Integer> reader = new DurableQueue<>(dir, ValueCodec.INTEGER, 128, 0)) {
+            assertEquals(perSegment + 1, reader.getLength(), "Every synced element should be recovered");
+            for (int i = 0; i <= perSegment; i++) {
+                assertEquals(Integer.valueOf(i), reader.dequeue(), "Recovered elements should keep their order");
+            }
+        }
+    }
+
+    @Test
+    public void testTornRecordEndsQueue() throws IOException {
+        try (DurableQueue<String> queue = new DurableQueue<>(dir, ValueCodec.STRING, 4096, 1)) {
+            queue.enqueue("kept-1");
+            queue.enqueue("kept-2");
+            queue.enqueue("torn");
+        }
+        // Corrupt the payload of the last record, as if the crash happened mid-write
+        Path segment = segmentFiles().get(0);
+        int tornPayload = DurableQueue.SEGMENT_HEADER + 2 * (DurableQueue.RECORD_HEADER + 6) + DurableQueue.RECORD_HEADER;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), tornPayload);
+        }
+        try (DurableQueue<String> queue = new DurableQueue<>(dir, ValueCodec.STRING, 4096, 1)) {
+            assertEquals(2, queue.getLength(), "Recovery should stop at the torn record");
+            queue.enqueue("after");
+            assertEquals("kept-1", queue.dequeue(), "Valid records should be restored");
+            assertEquals("kept-2", queue.dequeue(), "Valid records should be restored");
+            assertEquals("after", queue.dequeue(), "New records should replace the torn one");
+            assertNull(queue.dequeue(), "Nothing should follow the new record");
+        }
+    }
+
+    @Test
+    public void testArgumentsAndClose() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new DurableQueue<>(dir, null));
+        assertThrows(IllegalArgumentException.class, () -> new DurableQueue<>(dir, ValueCodec.STRING, 8, 0));
+        DurableQueue<byte[]> queue = new DurableQueue<>(dir, ValueCodec.BYTES, 64, 0);
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(new byte[100]));
+        queue.close();
+        queue.close();
+        assertThrows(IllegalStateException.class, () -> queue.enqueue(new byte[1]));
+    }
+}
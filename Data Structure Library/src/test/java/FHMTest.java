@@ -0,0 +1,151 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class FHMTest {
+
+    @Test
+    public void testFreeze() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            map.put("key" + i, i);
+        }
+        FrozenHashMap<String, Integer> frozen = map.freeze();
+        assertEquals(10000, frozen.size(), "The frozen map should hold every entry");
+        assertFalse(frozen.isEmpty(), "The frozen map should not be empty");
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Integer.valueOf(i), frozen.get("key" + i), "Every key should be found");
+        }
+        assertNull(frozen.get("missing"), "An absent key should return null");
+        assertFalse(frozen.contains("missing"), "An absent key should not be contained");
+        assertNull(frozen.get(null), "A null key should return null");
+        assertTrue(frozen.maxProbes() <= FrozenHashMap.TARGET_PROBES, "Well-spread keys should stay within the probe target");
+        assertEquals(0, frozen.capacity() & (frozen.capacity() - 1), "The bucket count should be a power of two");
+
+        map.put("key0", -1);
+        map.remove("key1");
+        assertEquals(Integer.valueOf(0), frozen.get("key0"), "Changes to the source should not affect the copy");
+        assertTrue(frozen.contains("key1"), "Removing from the source should not affect the copy");
+    }
+
+    @Test
+    public void testEmpty() {
+        FrozenHashMap<String, Integer> frozen = new MyHashMap<String, Integer>().freeze();
+        assertTrue(frozen.isEmpty(), "Freezing an empty map should give an empty map");
+        assertNull(frozen.get("key"), "An empty map should find nothing");
+        assertFalse(frozen.iterator().hasNext(), "An empty map should iterate nothing");
+    }
+
+    @Test
+    public void testIterator() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            map.put(i, i * 2);
+        }
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Integer> it = map.freeze().iterator();
+        while (it.hasNext()) {
+            seen.add(it.next());
+        }
+        assertEquals(500, seen.size(), "The iterator should return every value once");
+        NoSuchElementException e = assertThrows(NoSuchElementException.class, it::next);
+        assertEquals("No more elements to iterate.", e.getMessage(), "The exception should match the other iterators");
+        assertThrows(UnsupportedOperationException.class, it::remove);
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < 6; b++) {
+                sb.append((i & (1 << b)) == 0 ? "Aa" : "BB");
+            }
+            keys.add(sb.toString());
+            map.put(sb.toString(), i);
+        }
+        FrozenHashMap<String, Integer> frozen = map.freeze();
+        assertEquals(64, frozen.maxProbes(), "Keys with equal hash codes should share one bucket");
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(Integer.valueOf(i), frozen.get(keys.get(i)), "Colliding keys should be found");
+        }
+        assertFalse(frozen.contains("C#AaAaAaAaAa"), "A colliding key that was never added should be missing");
+    }
+
+    @Test
+    public void testHashingStrategy() {
+        HashingStrategy<String> ignoreCase = new HashingStrategy<String>() {
+            @Override
+            public int hashCode(String key) {
+                return key.toLowerCase().hashCode();
+            }
+
+            @Override
+            public boolean equals(String a, String b) {
+                return a.equalsIgnoreCase(b);
+            }
+        };
+        MyHashMap<String, Integer> map = new MyHashMap<>(ignoreCase);
+        for (int i = 0; i < 100; i++) {
+            map.put("Key" + i, i);
+        }
+        FrozenHashMap<String, Integer> frozen = map.freeze();
+        assertEquals(Integer.valueOf(42), frozen.get("KEY42"), "Lookups should use the source map's strategy");
+        assertTrue(frozen.contains("key7"), "contains should use the source map's strategy");
+    }
+
+    @Test
+    public void testFreezeDuringIncrementalResize() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(16);
+        map.setIncrementalResize(true);
+        int i = 0;
+        while (!map.isResizing()) {
+            map.put(i, i);
+            i++;
+        }
+        FrozenHashMap<Integer, Integer> frozen = map.freeze();
+        assertEquals(i, frozen.size(), "Freezing should see entries still in the old table");
+        for (int k = 0; k < i; k++) {
+            assertEquals(Integer.valueOf(k), frozen.get(k), "Every key should be found");
+        }
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            map.put("key" + i, i);
+        }
+        FrozenHashMap<String, Integer> frozen = map.freeze();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(pool.submit(() -> {
+                    int found = 0;
+                    for (int i = 0; i < 20000; i++) {
+                        if (Integer.valueOf(i).equals(frozen.get("key" + i))) {
+                            found++;
+                        }
+                    }
+                    return found;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(20000, result.get(), "Every reader should find every key");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
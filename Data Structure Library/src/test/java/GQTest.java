@@ -3,9 +3,12 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 public class GQTest {
 
@@ -149,4 +152,207 @@ public class GQTest {
         ArrayList<Integer> expected = new ArrayList<>(Arrays.asList(10, 20, 30));
         assertEquals(expected, collected, "forEach loop should collect all elements in order");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPeekLastPollLast() {
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        assertNull(queue.peekLast(), "peekLast on an empty queue should return null");
+        assertNull(queue.pollLast(), "pollLast on an empty queue should return null");
+        queue.add(10);
+        queue.add(20);
+        queue.add(30);
+        assertEquals(Integer.valueOf(30), queue.peekLast(), "peekLast should return the back element");
+        assertEquals(3, queue.getLength(), "peekLast should not remove the element");
+        assertEquals(Integer.valueOf(30), queue.pollLast(), "pollLast should remove the back element");
+        assertEquals(Integer.valueOf(20), queue.getTail().data, "The tail should move back");
+        assertNull(queue.getTail().next, "The new tail should have no next node");
+        assertEquals(Integer.valueOf(10), queue.dequeue(), "The front should be unaffected");
+        assertEquals(Integer.valueOf(20), queue.pollLast(), "pollLast should remove the last element");
+        assertNull(queue.getHead(), "Head should be null after removing every element");
+        assertNull(queue.getTail(), "Tail should be null after removing every element");
+        queue.add(40);
+        assertEquals(Integer.valueOf(40), queue.peekLast(), "A drained queue should accept new elements");
+    }
+
+    @Test
+    public void testDescendingIteratorAfterRemovals() {
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        for (int i = 0; i < 10; i++) {
+            queue.add(i);
+        }
+        queue.dequeue();
+        queue.pollLast();
+        queue.add(10);
+        ArrayList<Integer> reversed = new ArrayList<>();
+        Iterator<Integer> iterator = queue.descendingIterator();
+        while (iterator.hasNext()) {
+            reversed.add(iterator.next());
+        }
+        assertEquals(Arrays.asList(10, 8, 7, 6, 5, 4, 3, 2, 1), reversed, "Reverse iteration should follow the prev links");
+        assertNull(queue.getHead().prev, "The head should have no previous node");
+    }
+
+    @Test
+    public void testGetSetFromBothEnds() {
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        for (int i = 0; i < 11; i++) {
+            queue.add(i);
+        }
+        for (int i = 0; i < 11; i++) {
+            assertEquals(Integer.valueOf(i), queue.get(i), "get should find every position");
+        }
+        assertEquals(Integer.valueOf(9), queue.set(9, 90), "set near the back should return the old element");
+        assertEquals(Integer.valueOf(90), queue.get(9), "set near the back should store the new element");
+    }
+
+    @Test
+    public void testIndexedMode() {
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        queue.setIndexed(true);
+        assertTrue(queue.isIndexed(), "The queue should report indexed mode");
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        for (int round = 0; round < 200; round++) {
+            queue.enqueue(round);
+            queue.enqueue(round + 1000);
+            expected.add(round);
+            expected.add(round + 1000);
+            if (round % 3 == 0) {
+                queue.dequeue();
+                expected.poll();
+            }
+            if (round % 5 == 0) {
+                queue.pollLast();
+                expected.pollLast();
+            }
+            ArrayList<Integer> model = new ArrayList<>(expected);
+            for (int position = 0; position < model.size(); position += 7) {
+                assertEquals(model.get(position), queue.get(position), "Indexed get should match the model");
+            }
+        }
+        ArrayList<Integer> model = new ArrayList<>(expected);
+        for (int i = 0; i < model.size(); i++) {
+            assertEquals(model.get(i), queue.set(i, -i), "Indexed set should return the old element");
+        }
+        assertEquals(Integer.valueOf(-5), queue.get(5), "Indexed set should store the new element");
+        assertEquals(model.size(), queue.dumpList().size(), "Indexing should not change the chain");
+        assertNull(queue.get(model.size()), "Getting element at invalid index should return null");
+        queue.setIndexed(false);
+        assertEquals(Integer.valueOf(-7), queue.get(7), "Turning indexed mode off should keep the elements");
+    }
+
+    @Test
+    public void testIndexRebuiltAfterMiddleRemoval() {
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        queue.setIndexed(true);
+        for (int i = 0; i < 10; i++) {
+            queue.add(i);
+        }
+        assertEquals(Integer.valueOf(5), queue.get(5), "The index should be built on first access");
+        GenericList<Integer>.Node<Integer> middle = queue.getHead().next.next;  // Element 2
+        queue.unlink(middle);
+        assertEquals(Integer.valueOf(3), queue.get(2), "A middle removal should shift later positions");
+        assertEquals(Integer.valueOf(9), queue.get(8), "The rebuilt index should cover the whole queue");
+        queue.add(10);
+        assertEquals(Integer.valueOf(10), queue.get(9), "Appends after a rebuild should be indexed");
+    }
+
+    @Test
+    public void testStreams() {
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        for (int i = 0; i < 10000; i++) {
+            queue.add(i);
+        }
+        assertEquals(49995000L, queue.stream().mapToLong(Integer::longValue).sum(), "stream should visit every element");
+        assertEquals(49995000L, queue.parallelStream().mapToLong(Integer::longValue).sum(),
+                "parallelStream should visit every element exactly once");
+        assertEquals(queue.dumpList(), queue.parallelStream().collect(Collectors.toList()),
+                "A parallel stream should keep the list order");
+    }
+
+    @Test
+    public void testSpliteratorSplits() {
+        for (boolean indexed : new boolean[] {false, true}) {
+            GenericQueue<Integer> queue = new GenericQueue<>();
+            queue.setIndexed(indexed);
+            for (int i = 0; i < 11; i++) {
+                queue.add(i);
+            }
+            Spliterator<Integer> suffix = queue.spliterator();
+            assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED),
+                    "A list spliterator should be ordered and sized");
+            Spliterator<Integer> prefix = suffix.trySplit();
+            assertEquals(5, prefix.getExactSizeIfKnown(), "The prefix should hold the first half");
+            assertEquals(6, suffix.getExactSizeIfKnown(), "The suffix should hold the rest");
+            ArrayList<Integer> collected = new ArrayList<>();
+            prefix.forEachRemaining(collected::add);
+            suffix.forEachRemaining(collected::add);
+            assertEquals(queue.dumpList(), collected, "The halves should cover the list in order");
+        }
+    }
+
+    @Test
+    public void testAddAll() {
+        GenericQueue<Integer> queue = new GenericQueue<>(1);
+        assertEquals(3, queue.addAll(Arrays.asList(2, 3, 4)), "addAll should report how many elements it added");
+        assertEquals(0, queue.addAll(new ArrayList<>()), "Adding nothing should leave the queue alone");
+        assertEquals(Arrays.asList(1, 2, 3, 4), queue.dumpList(), "addAll should append in order");
+        assertEquals(Integer.valueOf(4), queue.peekLast(), "The tail should be the last added element");
+        Iterator<Integer> reverse = queue.descendingIterator();
+        assertEquals(Integer.valueOf(4), reverse.next(), "Added nodes should be linked backward too");
+        assertEquals(Integer.valueOf(3), reverse.next(), "Added nodes should be linked backward too");
+        GenericQueue<Integer> empty = new GenericQueue<>();
+        empty.addAll(queue);
+        assertEquals(4, empty.getLength(), "addAll into an empty queue should set the head and tail");
+        assertEquals(Integer.valueOf(1), empty.dequeue(), "The head should be the first added element");
+        assertThrows(IllegalArgumentException.class, () -> queue.addAll(queue));
+    }
+
+    @Test
+    public void testDrainTo() {
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        queue.setIndexed(true);
+        for (int i = 0; i < 10; i++) {
+            queue.add(i);
+        }
+        assertEquals(Integer.valueOf(0), queue.get(0), "Build the index before draining");
+        ArrayList<Integer> drained = new ArrayList<>();
+        assertEquals(4, queue.drainTo(drained, 4), "drainTo should stop at maxElements");
+        assertEquals(Arrays.asList(0, 1, 2, 3), drained, "drainTo should transfer from the front");
+        assertEquals(6, queue.getLength(), "Drained elements should leave the queue");
+        assertNull(queue.getHead().prev, "The new head should have nothing before it");
+        assertEquals(Integer.valueOf(4), queue.get(0), "The index should follow the new head");
+        assertEquals(Integer.valueOf(9), queue.get(5), "The index should still reach the tail");
+        queue.addAll(Arrays.asList(10, 11));
+        assertEquals(Integer.valueOf(11), queue.get(7), "Bulk-added elements should be indexed");
+        assertEquals(8, queue.drainTo(drained), "drainTo without a limit should take everything");
+        assertNull(queue.getHead(), "A drained queue should have no head");
+        assertNull(queue.getTail(), "A drained queue should have no tail");
+        assertEquals(0, queue.drainTo(drained, 5), "Draining an empty queue should transfer nothing");
+        assertEquals(12, drained.size(), "Every element should have been transferred once");
+    }
+
+    @Test
+    public void testMetrics() {
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        assertNull(queue.metrics(), "Metrics should be off by default");
+        QueueMetrics metrics = queue.enableMetrics("test-queue");
+        for (int i = 0; i < 10; i++) {
+            queue.enqueue(i);
+        }
+        queue.addAll(Arrays.asList(10, 11, 12));
+        queue.dequeue();
+        queue.pollLast();
+        queue.drainTo(new ArrayList<>(), 5);
+        assertEquals(13, metrics.getEnqueueCount(), "Single and bulk adds should be counted");
+        assertEquals(7, metrics.getDequeueCount(), "Single and bulk removals should be counted");
+        assertEquals(6, metrics.getDepth(), "Depth should be the queue's length");
+        assertEquals(13, metrics.getHighWaterMark(), "High-water mark should be the largest depth");
+        assertTrue(metrics.getEnqueueRate() > 0, "Enqueue rate should be positive");
+        metrics.reset();
+        assertEquals(0, metrics.getEnqueueCount(), "Reset should clear the counters");
+        assertEquals(6, metrics.getHighWaterMark(), "Reset should restart the high-water mark at the depth");
+        queue.disableMetrics();
+        queue.enqueue(99);
+        assertEquals(0, metrics.getEnqueueCount(), "Disabled metrics should stop counting");
+    }
+}
@@ -1,22 +1,38 @@
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 public class HMTest {
 
     @Test
     public void testConstructor() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         assertEquals(1, map.size(), "Size should be 1 after initialization");
         assertEquals("value1", map.get("key1"), "Value for 'key1' should be 'value1'");
     }
 
     @Test
     public void testPut() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.put("key2", "value2");
         assertEquals(2, map.size(), "Size should be 2 after put");
         assertEquals("value2", map.get("key2"), "Value for 'key2' should be 'value2'");
@@ -24,7 +40,7 @@ public class HMTest {
 
     @Test
     public void testContains() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.put("key2", "value2");
         assertTrue(map.contains("key1"), "Map should contain 'key1'");
         assertTrue(map.contains("key2"), "Map should contain 'key2'");
@@ -33,7 +49,7 @@ public class HMTest {
 
     @Test
     public void testGet() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.put("key2", "value2");
         assertEquals("value1", map.get("key1"), "Value for 'key1' should be 'value1'");
         assertEquals("value2", map.get("key2"), "Value for 'key2' should be 'value2'");
@@ -42,7 +58,7 @@ public class HMTest {
 
     @Test
     public void testReplace() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.put("key2", "value2");
         String oldValue = map.replace("key1", "newValue1");
         assertEquals("value1", oldValue, "Old value should be 'value1'");
@@ -52,7 +68,7 @@ public class HMTest {
 
     @Test
     public void testIsEmpty() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         assertFalse(map.isEmpty(), "Map should not be empty after initialization");
         map.replace("key1", null);
         assertFalse(map.isEmpty(), "Map should not be empty even if value is null");
@@ -60,7 +76,7 @@ public class HMTest {
 
     @Test
     public void testIterator() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.put("key2", "value2");
         map.put("key3", "value3");
         Iterator<String> iterator = map.iterator();
@@ -75,7 +91,7 @@ public class HMTest {
 
     @Test
     public void testHMIterator() {
-        MyHashMap<String> map = new MyHashMap<>("keyA", "valueA");
+        MyHashMap<String, String> map = new MyHashMap<>("keyA", "valueA");
         map.put("keyB", "valueB");
         map.put("keyC", "valueC");
         Iterator<String> iterator = map.iterator();
@@ -93,7 +109,7 @@ public class HMTest {
 
     @Test
     public void testCollision() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         String key1 = "Aa";
         String key2 = "BB";
         map.put(key1, "valueAa");
@@ -105,7 +121,7 @@ public class HMTest {
 
     @Test
     public void testForEachLoop() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.put("key2", "value2");
         map.put("key3", "value3");
         ArrayList<String> collected = new ArrayList<>();
@@ -116,4 +132,632 @@ public class HMTest {
         assertEquals(expected.size(), collected.size(), "forEach loop should collect all elements.");
         assertTrue(collected.containsAll(expected), "forEach loop should collect all expected elements.");
     }
+
+    @Test
+    public void testResizeKeepsEntries() {
+        MyHashMap<String, String> map = new MyHashMap<>();
+        assertEquals(16, map.capacity(), "Default capacity should be 16 buckets");
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, "value" + i);
+        }
+        assertEquals(1000, map.size(), "Map size should be 1000 after 1000 distinct puts");
+        assertTrue(map.capacity() >= 1000 / 0.75, "Table should have grown past the load factor");
+        assertEquals(0, map.capacity() & (map.capacity() - 1), "Capacity should stay a power of two");
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value" + i, map.get("key" + i), "Every key should survive the resizes");
+        }
+    }
+
+    @Test
+    public void testInitialCapacity() {
+        MyHashMap<String, String> map = new MyHashMap<>(100, 0.5f);
+        assertEquals(128, map.capacity(), "Capacity should round up to the next power of two");
+        assertTrue(map.isEmpty(), "Map should be empty after construction");
+        assertThrows(IllegalArgumentException.class, () -> new MyHashMap<String, String>(-1));
+        assertThrows(IllegalArgumentException.class, () -> new MyHashMap<String, String>(16, 0f));
+    }
+
+    // Builds 2^blocks distinct keys that all share one hash code ("Aa" and "BB" hash alike)
+    private static ArrayList<String> collidingKeys(int blocks) {
+        ArrayList<String> keys = new ArrayList<>();
+        for (int i = 0; i < (1 << blocks); i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < blocks; b++) {
+                sb.append((i & (1 << b)) == 0 ? "Aa" : "BB");
+            }
+            keys.add(sb.toString());
+        }
+        return keys;
+    }
+
+    @Test
+    public void testTreeifiedBucket() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        ArrayList<String> keys = collidingKeys(12);
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+        map.put("unrelated", -1);
+        assertEquals(keys.size() + 1, map.size(), "Every colliding key should be stored");
+        assertTrue(map.bucketOf(keys.get(0)) instanceof TreeBucket, "A long chain should be treeified");
+        TreeBucket<Integer> bucket = (TreeBucket<Integer>) map.bucketOf(keys.get(0));
+        assertTrue(bucket.treeHeight() <= 2 * 12, "The tree should stay balanced");
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(Integer.valueOf(i), map.get(keys.get(i)), "Every colliding key should be found");
+        }
+        assertEquals(Integer.valueOf(0), map.replace(keys.get(0), 100), "Replace should find treeified keys");
+        String absent = "C#" + keys.get(0).substring(2);  // "C#" hashes like "Aa"
+        assertEquals(keys.get(0).hashCode(), absent.hashCode(), "The absent key should collide with the stored keys");
+        assertFalse(map.contains(absent), "A colliding key that was never added should be missing");
+        int count = 0;
+        for (Integer ignored : map) {
+            count++;
+        }
+        assertEquals(keys.size() + 1, count, "Iterator should still walk every entry of a tree bucket");
+    }
+
+    @Test
+    public void testTreeBucketDelete() {
+        TreeBucket<Integer> bucket = new TreeBucket<>();
+        ArrayList<String> keys = collidingKeys(5);
+        for (int i = 0; i < keys.size(); i++) {
+            bucket.add(keys.get(i), i, keys.get(i).hashCode());
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), bucket.delete(), "delete should remove entries in insertion order");
+            assertNull(bucket.find(keys.get(i), keys.get(i).hashCode()), "A deleted entry should leave the tree");
+        }
+        assertEquals(Integer.valueOf(20), bucket.find(keys.get(20), keys.get(20).hashCode()).data,
+                "Remaining entries should still be found");
+        assertEquals(keys.size() - 10, bucket.getLength(), "Length should drop with each delete");
+        assertThrows(UnsupportedOperationException.class, () -> bucket.add(1));
+    }
+
+    // Composite key that is not Comparable; a constant hash forces every key into one tree
+    private static final class PointKey {
+        final int x;
+        final int y;
+        final boolean collide;
+
+        PointKey(int x, int y, boolean collide) {
+            this.x = x;
+            this.y = y;
+            this.collide = collide;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PointKey && ((PointKey) o).x == x && ((PointKey) o).y == y;
+        }
+
+        @Override
+        public int hashCode() {
+            return collide ? 42 : 31 * x + y;
+        }
+    }
+
+    @Test
+    public void testGenericKeys() {
+        MyHashMap<PointKey, String> map = new MyHashMap<>();
+        map.put(new PointKey(1, 2, false), "a");
+        map.put(new PointKey(2, 1, false), "b");
+        map.put(new PointKey(1, 2, false), "c");
+        assertEquals(2, map.size(), "Equal composite keys should map to one entry");
+        assertEquals("c", map.get(new PointKey(1, 2, false)), "Lookup should use the key's equals");
+        MyHashMap<Integer, Integer> numbers = new MyHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            numbers.put(i, i * i);
+        }
+        assertEquals(Integer.valueOf(998001), numbers.get(999), "Integer keys should work without conversion");
+    }
+
+    @Test
+    public void testNonComparableCollisions() {
+        MyHashMap<PointKey, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            map.put(new PointKey(i, -i, true), i);
+        }
+        assertTrue(map.bucketOf(new PointKey(0, 0, true)) instanceof TreeBucket, "A long chain should be treeified");
+        for (int i = 0; i < 200; i++) {
+            assertEquals(Integer.valueOf(i), map.get(new PointKey(i, -i, true)), "Tied keys should be found on either side");
+        }
+        assertFalse(map.contains(new PointKey(500, 0, true)), "A missing tied key should not be found");
+    }
+
+    @Test
+    public void testHashingStrategy() {
+        HashingStrategy<String> ignoreCase = new HashingStrategy<String>() {
+            @Override
+            public int hashCode(String key) {
+                return key.toLowerCase().hashCode();
+            }
+
+            @Override
+            public boolean equals(String a, String b) {
+                return a.equalsIgnoreCase(b);
+            }
+        };
+        MyHashMap<String, Integer> map = new MyHashMap<>(ignoreCase);
+        map.put("Key", 1);
+        map.put("KEY", 2);
+        assertEquals(1, map.size(), "Keys equal under the strategy should map to one entry");
+        assertEquals(Integer.valueOf(2), map.get("key"), "Lookup should use the strategy");
+        assertTrue(map.contains("kEy"), "contains should use the strategy");
+        for (int i = 0; i < 100; i++) {
+            map.put("Aa" + i, i);
+        }
+        assertEquals(Integer.valueOf(50), map.get("AA50"), "The strategy should survive resizes");
+    }
+
+    @Test
+    public void testRemove() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+        assertEquals(Integer.valueOf(42), map.remove("key42"), "remove should return the old value");
+        assertNull(map.remove("key42"), "Removing a missing key should return null");
+        assertNull(map.remove(null), "Removing a null key should return null");
+        assertFalse(map.contains("key42"), "A removed key should be gone");
+        assertEquals(99, map.size(), "Size should drop after remove");
+        for (int i = 0; i < 100; i += 2) {
+            map.remove("key" + i);
+        }
+        assertEquals(50, map.size(), "Size should count the remaining keys");
+        for (int i = 1; i < 100; i += 2) {
+            assertEquals(Integer.valueOf(i), map.get("key" + i), "Keys that were not removed should remain");
+        }
+        map.put("key0", 0);
+        assertEquals(Integer.valueOf(0), map.get("key0"), "A removed key can be added again");
+    }
+
+    @Test
+    public void testRemoveFromTreeBucket() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(64);
+        ArrayList<String> keys = collidingKeys(4);
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+        assertTrue(map.bucketOf(keys.get(0)) instanceof TreeBucket, "A long chain should be treeified");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), map.remove(keys.get(i)), "Tree entries should be removable");
+        }
+        assertFalse(map.bucketOf(keys.get(15)) instanceof TreeBucket, "A short tree should become a chain again");
+        for (int i = 10; i < keys.size(); i++) {
+            assertEquals(Integer.valueOf(i), map.get(keys.get(i)), "Remaining entries should still be found");
+        }
+        for (int i = 10; i < keys.size(); i++) {
+            map.remove(keys.get(i));
+        }
+        assertTrue(map.isEmpty(), "Removing every key should empty the map");
+        assertNull(map.bucketOf(keys.get(0)), "An empty bucket should be dropped");
+    }
+
+    @Test
+    public void testClear() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        int capacity = map.capacity();
+        map.clear();
+        assertTrue(map.isEmpty(), "clear should remove every entry");
+        assertFalse(map.contains("key1"), "Cleared keys should be gone");
+        assertFalse(map.iterator().hasNext(), "A cleared map should have nothing to iterate");
+        assertEquals(capacity, map.capacity(), "clear should keep the table");
+        map.put("key1", 1);
+        assertEquals(1, map.size(), "A cleared map should accept new entries");
+    }
+
+    @Test
+    public void testKeySetAndEntries() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        HashMap<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            map.put("key" + i, i);
+            expected.put("key" + i, i);
+        }
+        Set<String> keys = map.keySet();
+        assertEquals(expected.keySet(), keys, "keySet should hold every key");
+        assertTrue(keys.contains("key7"), "keySet should answer contains through the map");
+        assertTrue(keys.remove("key7"), "Removing a key from the set should succeed");
+        assertFalse(keys.remove("key7"), "Removing a missing key from the set should fail");
+        assertFalse(map.contains("key7"), "Removing from the key set should remove from the map");
+        expected.remove("key7");
+
+        HashMap<String, Integer> seen = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : map.entries()) {
+            seen.put(entry.getKey(), entry.getValue());
+            entry.setValue(entry.getValue() * 10);
+        }
+        assertEquals(expected, seen, "entries should visit every key-value pair");
+        assertEquals(Integer.valueOf(30), map.get("key3"), "setValue should write through to the map");
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(64);
+        ArrayList<String> colliding = collidingKeys(4);
+        for (int i = 0; i < colliding.size(); i++) {
+            map.put(colliding.get(i), i);
+        }
+        for (int i = 0; i < 40; i++) {
+            map.put("key" + i, i);
+        }
+        Iterator<Integer> it = map.iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(28, map.size(), "Iterator.remove should remove the even values");
+        for (Integer value : map) {
+            assertEquals(1, value % 2, "Only odd values should remain");
+        }
+        Iterator<String> keys = map.keySet().iterator();
+        while (keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        assertTrue(map.isEmpty(), "Removing every key through the iterator should empty the map");
+        Iterator<Integer> standalone = new HMIterator<>(new ArrayList<GenericQueue<Integer>>());
+        assertThrows(UnsupportedOperationException.class, standalone::remove);
+    }
+
+    @Test
+    public void testStreams() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        long expectedSum = 0;
+        for (int i = 0; i < 10000; i++) {
+            map.put("key" + i, i);
+            expectedSum += i;
+        }
+        assertEquals(expectedSum, map.stream().mapToLong(Integer::longValue).sum(), "stream should visit every value");
+        assertEquals(expectedSum, map.parallelStream().mapToLong(Integer::longValue).sum(),
+                "parallelStream should visit every value exactly once");
+        Set<String> keys = map.keySet().parallelStream().collect(Collectors.toSet());
+        assertEquals(10000, keys.size(), "Parallel key stream should visit every key");
+        assertTrue(keys.contains("key9999"), "Parallel key stream should include the last key");
+    }
+
+    @Test
+    public void testSpliteratorSplitsByBucket() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        Spliterator<Integer> values = map.spliterator();
+        assertEquals(1000, values.getExactSizeIfKnown(), "The whole-table spliterator should know its size");
+        assertFalse(values.hasCharacteristics(Spliterator.NONNULL), "Values may be null");
+        Spliterator<String> keys = map.keySet().spliterator();
+        assertTrue(keys.hasCharacteristics(Spliterator.DISTINCT | Spliterator.NONNULL), "Keys are distinct and non-null");
+        Spliterator<String> prefix = keys.trySplit();
+        assertNotNull(prefix, "A large table should split");
+        assertFalse(keys.hasCharacteristics(Spliterator.SIZED), "A split part only estimates its size");
+        Set<String> seen = new HashSet<>();
+        prefix.forEachRemaining(seen::add);
+        while (keys.tryAdvance(seen::add)) {
+            // Advance one element at a time through the second half
+        }
+        assertEquals(1000, seen.size(), "The two halves should cover every key once");
+    }
+
+    @Test
+    public void testPutAll() {
+        MyHashMap<String, Integer> source = new MyHashMap<>();
+        HashMap<String, Integer> jdk = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            source.put("key" + i, i);
+            jdk.put("jdk" + i, -i);
+        }
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        map.putAll(source);
+        assertEquals(1000, map.size(), "putAll should copy every pair of a MyHashMap");
+        assertEquals(2048, map.capacity(), "putAll should size the table once for the incoming pairs");
+        map.putAll(jdk);
+        assertEquals(2000, map.size(), "putAll should copy every pair of a java.util.Map");
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), map.get("key" + i), "Copied pairs should be found");
+            assertEquals(Integer.valueOf(-i), map.get("jdk" + i), "Copied pairs should be found");
+        }
+        map.putAll(source);
+        assertEquals(2000, map.size(), "putAll should update existing keys instead of duplicating them");
+        assertThrows(IllegalArgumentException.class, () -> map.putAll((Map<String, Integer>) null));
+        HashMap<String, Integer> withNull = new HashMap<>();
+        withNull.put(null, 1);
+        assertThrows(IllegalArgumentException.class, () -> map.putAll(withNull));
+    }
+
+    @Test
+    public void testPutAllAcrossStrategies() {
+        HashingStrategy<String> ignoreCase = new HashingStrategy<String>() {
+            @Override
+            public int hashCode(String key) {
+                return key.toLowerCase().hashCode();
+            }
+
+            @Override
+            public boolean equals(String a, String b) {
+                return a.equalsIgnoreCase(b);
+            }
+        };
+        MyHashMap<String, Integer> source = new MyHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            source.put("Key" + i, i);
+        }
+        MyHashMap<String, Integer> map = new MyHashMap<>(ignoreCase);
+        map.putAll(source);
+        assertEquals(Integer.valueOf(42), map.get("KEY42"), "Keys should be rehashed with the target's strategy");
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        MyHashMap<String, Integer> map = new MyHashMap<>(4);
+        assertNull(map.metrics(), "Metrics should be off by default");
+        MapMetrics metrics = map.enableMetrics("test-map");
+        assertSame(metrics, map.enableMetrics("other"), "Enabling twice should return the same metrics");
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+        map.get("key1");
+        map.contains("key2");
+        map.get("missing");
+        assertEquals(2, metrics.getHitCount(), "get and contains hits should be counted");
+        assertEquals(1, metrics.getMissCount(), "Misses should be counted");
+        assertEquals(2.0 / 3, metrics.getHitRate(), 1e-9, "Hit rate should be hits over lookups");
+        assertTrue(metrics.getResizeCount() >= 5, "Growing from 4 buckets should be counted as resizes");
+        assertTrue(metrics.getResizeTimeNanos() > 0, "Resize time should be measured");
+        assertEquals(100.0 / map.capacity(), metrics.getLoad(), 1e-9, "Load should be size over capacity");
+
+        long[] histogram = metrics.getChainLengthHistogram();
+        long buckets = 0;
+        long entries = 0;
+        for (int length = 0; length < histogram.length; length++) {
+            buckets += histogram[length];
+            entries += length * histogram[length];
+        }
+        assertEquals(map.capacity(), buckets, "Histogram should cover every bucket");
+        assertEquals(100, entries, "Histogram should cover every entry");
+        assertEquals(histogram.length - 1, metrics.getMaxChainLength(), "Histogram should end at the longest chain");
+
+        ObjectName name = metrics.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(100, server.getAttribute(name, "Size"), "JMX should expose the map's size");
+        assertEquals(2L, server.getAttribute(name, "HitCount"), "JMX should expose the counters");
+        metrics.reset();
+        assertEquals(0, metrics.getHitCount(), "Reset should clear the counters");
+        map.disableMetrics();
+        assertFalse(server.isRegistered(name), "Disabling metrics should unregister the MXBean");
+        assertNull(map.metrics(), "Metrics should be off after disabling");
+        map.get("key1");
+        assertEquals(0, metrics.getHitCount(), "Disabled metrics should stop counting");
+    }
+
+    @Test
+    public void testResizeEventsAreRecorded() throws Exception {
+        Path file = Files.createTempFile("metrics", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("datastructures.MapResize");
+            recording.start();
+            MyHashMap<Integer, Integer> map = new MyHashMap<>(2);
+            map.enableMetrics("recorded-map");
+            for (int i = 0; i < 64; i++) {
+                map.put(i, i);
+            }
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            long resizes = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("datastructures.MapResize"))
+                    .filter(e -> "recorded-map".equals(e.getString("map")))
+                    .count();
+            assertEquals(map.metrics().getResizeCount(), resizes, "Every resize should be recorded");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testIncrementalResize() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(4);
+        map.setIncrementalResize(true);
+        assertTrue(map.isIncrementalResize(), "Incremental mode should be on");
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(21);
+        boolean sawResize = false;
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(5000);
+            int op = random.nextInt(4);
+            if (op == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "remove should agree with HashMap");
+            } else if (op == 1) {
+                assertEquals(expected.get(key), map.get(key), "get should agree with HashMap");
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+            sawResize |= map.isResizing();
+            assertEquals(expected.size(), map.size(), "Size should agree with HashMap");
+        }
+        assertTrue(sawResize, "Growing the map should have started incremental resizes");
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()), "Every key should be found after the resizes");
+        }
+    }
+
+    @Test
+    public void testIncrementalResizeLookupsAndClear() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(64);
+        map.setIncrementalResize(true);
+        MapMetrics metrics = map.enableMetrics();
+        int i = 0;
+        while (!map.isResizing()) {
+            map.put("key" + i, i);
+            i++;
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int k = 0; k < i; k++) {
+                assertEquals(Integer.valueOf(k), map.get("key" + k), "Every key should be found during the resize");
+                assertTrue(map.contains("key" + k), "Every key should be contained during the resize");
+            }
+        }
+        assertTrue(map.isResizing(), "Lookups should not move any buckets");
+
+        map.clear();
+        assertFalse(map.isResizing(), "Clearing should end the resize in progress");
+        assertEquals(1, metrics.getResizeCount(), "The resize ended by clear should be counted");
+        assertNull(map.get("key0"), "A cleared map should find nothing");
+        map.disableMetrics();
+    }
+
+    @Test
+    public void testIncrementalResizeFinishesForIteration() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(64);
+        map.setIncrementalResize(true);
+        int i = 0;
+        while (!map.isResizing()) {
+            map.put("key" + i, i);
+            i++;
+        }
+        int count = i;
+        MapMetrics metrics = map.enableMetrics();
+        long[] histogram = metrics.getChainLengthHistogram();
+        long entries = 0;
+        for (int length = 0; length < histogram.length; length++) {
+            entries += length * histogram[length];
+        }
+        assertEquals(count, entries, "Histogram should count the entries still in the old table");
+        assertEquals(0, metrics.getResizeCount(), "A resize should only be counted once it is complete");
+
+        Set<String> keys = new HashSet<>();
+        for (String key : map.keySet()) {
+            keys.add(key);
+        }
+        assertFalse(map.isResizing(), "Iterating should complete the resize");
+        assertEquals(count, keys.size(), "Iteration should see every key");
+        assertEquals(1, metrics.getResizeCount(), "The completed resize should be counted");
+
+        while (!map.isResizing()) {
+            map.put("key" + i, i);
+            i++;
+        }
+        map.setIncrementalResize(false);
+        assertFalse(map.isResizing(), "Turning incremental mode off should complete the resize");
+        for (int k = 0; k < i; k++) {
+            assertEquals(Integer.valueOf(k), map.get("key" + k), "Every key should survive the resize");
+        }
+        map.disableMetrics();
+    }
+
+    @Test
+    public void testIncrementalResizeWithTreeBuckets() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(64);
+        map.setIncrementalResize(true);
+        ArrayList<String> keys = collidingKeys(6);
+        int i = 0;
+        while (!map.isResizing()) {
+            map.put("key" + i, i);
+            i++;
+        }
+        for (int k = 0; k < keys.size(); k++) {
+            map.put(keys.get(k), -k);
+        }
+        assertTrue(map.bucketOf(keys.get(0)) instanceof TreeBucket, "Colliding keys should be treeified during a resize");
+        for (int k = 0; k < keys.size(); k++) {
+            assertEquals(Integer.valueOf(-k), map.get(keys.get(k)), "Colliding keys should be found during a resize");
+        }
+        for (int k = 0; k < keys.size(); k += 2) {
+            assertEquals(Integer.valueOf(-k), map.remove(keys.get(k)), "Colliding keys should be removed during a resize");
+        }
+        map.setIncrementalResize(false);
+        assertEquals(i + keys.size() / 2, map.size(), "Size should count the remaining keys");
+        for (int k = 1; k < keys.size(); k += 2) {
+            assertEquals(Integer.valueOf(-k), map.get(keys.get(k)), "Remaining colliding keys should survive the resize");
+        }
+    }
+
+    @Test
+    public void testBloomFilter() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(4);
+        map.put("before", 0);
+        map.setBloomFilter(true);
+        assertTrue(map.hasBloomFilter(), "The Bloom filter should be on");
+        assertTrue(map.contains("before"), "Entries added before the filter should be found");
+        MapMetrics metrics = map.enableMetrics();
+        for (int i = 0; i < 5000; i++) {
+            map.put("key" + i, i);
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            assertEquals(Integer.valueOf(i), map.remove("key" + i), "Keys should be removable");
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), map.get("key" + i), "Present keys should be found and removed keys missed");
+        }
+        for (int i = 0; i < 20000; i++) {
+            assertFalse(map.contains("miss" + i), "Absent keys should not be found");
+        }
+        assertNull(map.replace("miss", 1), "replace should not find an absent key");
+        long rejected = metrics.getBloomFilterRejectionCount();
+        long passed = metrics.getBloomFilterFalsePositiveCount();
+        assertEquals(metrics.getMissCount(), rejected + passed - 1, "Every miss but the replace should be counted as rejected or let through");
+        assertTrue(metrics.getBloomFilterFalsePositiveRate() < 0.2, "Removed keys aside, most misses should be rejected");
+        assertTrue(metrics.getBloomFilterFill() > 0, "The filter's fill should be reported");
+        for (int i = 0; i < 1000; i++) {
+            assertNull(map.remove("miss" + i), "Removing an absent key should return null");
+        }
+        assertEquals(rejected + passed + 1000, metrics.getBloomFilterRejectionCount() + metrics.getBloomFilterFalsePositiveCount(),
+                "Removes of absent keys should be counted as rejected or let through");
+        map.clear();
+        assertFalse(map.contains("key1"), "A cleared map should find nothing");
+        map.setBloomFilter(false);
+        assertFalse(map.hasBloomFilter(), "The Bloom filter should be off");
+        assertEquals(0.0, metrics.getBloomFilterFill(), "A map without a filter should report no fill");
+        map.disableMetrics();
+    }
+
+    @Test
+    public void testBloomFilterWithIncrementalResize() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(4);
+        map.setIncrementalResize(true);
+        map.setBloomFilter(true);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(25);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(5000);
+            int op = random.nextInt(4);
+            if (op == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "remove should agree with HashMap");
+            } else if (op == 1) {
+                assertEquals(expected.get(key), map.get(key), "get should agree with HashMap");
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(expected.get(key), map.get(key), "The filter should never hide a present key");
+        }
+    }
+
+    @Test
+    public void testEntriesFollowMapEntryContract() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        map.put("key1", 1);
+        map.put("key2", 2);
+        List<Map.Entry<String, Integer>> kept = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : map.entries()) {
+            kept.add(entry);
+        }
+        assertNotEquals(kept.get(0).getKey(), kept.get(1).getKey(), "Entries should not change when the iterator advances");
+        Set<Map.Entry<String, Integer>> expected = new HashSet<>(Arrays.asList(Map.entry("key1", 1), Map.entry("key2", 2)));
+        assertEquals(expected, new HashSet<>(kept), "Entries should be equal to JDK entries with the same pair");
+        for (Map.Entry<String, Integer> entry : kept) {
+            assertEquals(Map.entry(entry.getKey(), entry.getValue()).hashCode(), entry.hashCode(), "hashCode should follow Map.Entry");
+        }
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : map.entries()) {
+            assertSame(kept.get(i++), entry, "Entries should be the map's nodes, not new objects");
+        }
+    }
 }
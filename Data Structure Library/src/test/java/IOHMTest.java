@@ -0,0 +1,40 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IOHMTest {
+
+    @Test
+    public void testPutGetReplace() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, "one");
+        map.put(0, "zero");
+        map.put(-7, "minus seven");
+        map.put(1, "uno");
+        assertEquals(3, map.size(), "Updating a key should not change the size");
+        assertEquals("uno", map.get(1), "Value for 1 should be updated");
+        assertEquals("zero", map.get(0), "Key 0 should be stored like any other key");
+        assertTrue(map.contains(-7), "Map should contain -7");
+        assertFalse(map.contains(2), "Map should not contain 2");
+        assertNull(map.get(2), "Value for a missing key should be null");
+        assertEquals("zero", map.replace(0, "nil"), "Replace should return the old value for key 0");
+        assertNull(map.replace(2, "two"), "Replacing non-existing key should return null");
+        assertFalse(map.contains(2), "Replace should not insert missing keys");
+    }
+
+    @Test
+    public void testResizeAndIterator() {
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>(2);
+        for (int i = 0; i < 10000; i++) {
+            map.put(i * 16, i);  // Keys that share their low bits
+        }
+        assertEquals(10000, map.size(), "Size should count every distinct key");
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Integer.valueOf(i), map.get(i * 16), "Every key should survive the resizes");
+        }
+        long sum = 0;
+        for (Integer value : map) {
+            sum += value;
+        }
+        assertEquals(10000L * 9999 / 2, sum, "Iterator should visit every value once, including key 0");
+    }
+}
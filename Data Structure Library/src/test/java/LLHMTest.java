@@ -0,0 +1,48 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+public class LLHMTest {
+
+    @Test
+    public void testPutGetReplace() {
+        LongLongHashMap map = new LongLongHashMap(16, 0.5f, -1L);
+        map.put(Long.MAX_VALUE, 1L);
+        map.put(0L, 2L);
+        map.put(42L, 3L);
+        assertEquals(3, map.size(), "Size should be 3 after three puts");
+        assertEquals(1L, map.get(Long.MAX_VALUE), "Value for Long.MAX_VALUE should be 1");
+        assertEquals(2L, map.get(0L), "Key 0 should be stored like any other key");
+        assertEquals(-1L, map.get(7L), "A missing key should return the no-entry value");
+        assertEquals(3L, map.replace(42L, 30L), "Replace should return the old value");
+        assertEquals(-1L, map.replace(7L, 70L), "Replacing non-existing key should return the no-entry value");
+        assertFalse(map.contains(7L), "Replace should not insert missing keys");
+        assertTrue(map.contains(0L), "Map should contain key 0");
+    }
+
+    @Test
+    public void testResizeAndIterator() {
+        LongLongHashMap map = new LongLongHashMap();
+        for (long i = 1; i <= 10000; i++) {
+            map.put(i << 32, i);  // Keys that differ only in their upper 32 bits
+        }
+        assertEquals(10000, map.size(), "Size should count every distinct key");
+        assertEquals(5000L, map.get(5000L << 32), "Keys should survive the resizes");
+        long sum = 0;
+        PrimitiveIterator.OfLong iterator = map.iterator();
+        while (iterator.hasNext()) {
+            sum += iterator.nextLong();
+        }
+        assertEquals(10000L * 10001 / 2, sum, "Iterator should visit every value once");
+        ArrayList<Long> boxed = new ArrayList<>();
+        LongLongHashMap small = new LongLongHashMap();
+        small.put(5L, 50L);
+        for (Long value : small) {
+            boxed.add(value);
+        }
+        assertEquals(Arrays.asList(50L), boxed, "forEach loop should see the stored value");
+    }
+}
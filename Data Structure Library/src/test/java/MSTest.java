@@ -0,0 +1,203 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MSTest {
+
+    @TempDir
+    Path dir;
+
+    // Integer codec that counts how many values it decodes
+    private static final class CountingCodec implements ValueCodec<Integer> {
+        int reads;
+
+        @Override
+        public int size(Integer value) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(Integer value, ByteBuffer target, int offset) {
+            target.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer source, int offset, int length) {
+            reads++;
+            return source.getInt(offset);
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            map.put("key" + i, i);
+        }
+        map.put("nothing", null);
+        Path file = dir.resolve("map.snapshot");
+        map.save(file, ValueCodec.STRING, ValueCodec.INTEGER);
+        assertFalse(Files.exists(dir.resolve("map.snapshot.tmp")), "The temporary file should be moved into place");
+
+        MyHashMap<String, Integer> loaded = MyHashMap.load(file, ValueCodec.STRING, ValueCodec.INTEGER);
+        assertEquals(map.size(), loaded.size(), "Loaded map should have the same size");
+        assertEquals(map.capacity(), loaded.capacity(), "Loaded map should keep the table size");
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(Integer.valueOf(i), loaded.get("key" + i), "Every entry should be restored");
+        }
+        assertTrue(loaded.contains("nothing"), "Keys with null values should be restored");
+        assertNull(loaded.get("nothing"), "Null values should be restored");
+        List<String> expected = new ArrayList<>(map.keySet());
+        assertEquals(expected, new ArrayList<>(loaded.keySet()), "Buckets should keep their chain order");
+        loaded.put("key0", -1);
+        loaded.put("extra", 1);
+        assertEquals(Integer.valueOf(-1), loaded.get("key0"), "Loaded map should support updates");
+        assertEquals(5002, loaded.size(), "Loaded map should support inserts");
+    }
+
+    @Test
+    public void testCollidingKeysAreTreeified() throws IOException {
+        MyHashMap<String, String> map = new MyHashMap<>(64);
+        String[] keys = {"AaAaAa", "AaAaBB", "AaBBAa", "AaBBBB", "BBAaAa", "BBAaBB", "BBBBAa", "BBBBBB"};
+        for (String key : keys) {
+            map.put(key, key.toLowerCase());
+        }
+        Path file = dir.resolve("tree.snapshot");
+        map.save(file, ValueCodec.STRING, ValueCodec.STRING);
+        MyHashMap<String, String> loaded = MyHashMap.load(file, ValueCodec.STRING, ValueCodec.STRING);
+        for (String key : keys) {
+            assertEquals(key.toLowerCase(), loaded.get(key), "Colliding keys should be restored");
+        }
+        assertTrue(loaded.bucketOf("AaAaAa") instanceof TreeBucket, "A long chain should be treeified on load");
+    }
+
+    @Test
+    public void testLazyOpen() throws IOException {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(1024);
+        for (int i = 0; i < 512; i++) {
+            map.put(i, i * i);
+        }
+        Path file = dir.resolve("lazy.snapshot");
+        map.save(file, ValueCodec.INTEGER, ValueCodec.INTEGER);
+
+        CountingCodec values = new CountingCodec();
+        MappedSnapshot<Integer, Integer> snapshot = MappedSnapshot.open(file, ValueCodec.INTEGER, values);
+        assertEquals(512, snapshot.size(), "Size should be read from the header");
+        assertEquals(0, values.reads, "Opening should not decode anything");
+        assertEquals(Integer.valueOf(49), snapshot.get(7), "Lookups should read through the file");
+        assertNull(snapshot.get(-5), "Missing keys should not be found");
+        assertTrue(values.reads <= 2, "Only the touched buckets should be decoded");
+        assertTrue(snapshot.loadedFraction() < 0.01, "Only the touched buckets should be decoded");
+        snapshot.get(7);
+        assertTrue(values.reads <= 2, "A decoded bucket should not be decoded again");
+
+        MyHashMap<Integer, Integer> full = snapshot.toMap();
+        assertEquals(512, values.reads, "toMap should decode each value exactly once");
+        assertEquals(1.0, snapshot.loadedFraction(), "Every bucket should be decoded");
+        assertEquals(512, full.size(), "toMap should hold every entry");
+        assertEquals(Integer.valueOf(511 * 511), full.get(511), "toMap should hold every entry");
+    }
+
+    @Test
+    public void testStrategyMapsAreRehashed() throws IOException {
+        HashingStrategy<String> ignoreCase = new HashingStrategy<String>() {
+            @Override
+            public int hashCode(String key) {
+                return key.toLowerCase().hashCode();
+            }
+
+            @Override
+            public boolean equals(String a, String b) {
+                return a.equalsIgnoreCase(b);
+            }
+        };
+        MyHashMap<String, Integer> map = new MyHashMap<>(ignoreCase);
+        for (int i = 0; i < 100; i++) {
+            map.put("Key" + i, i);
+        }
+        Path file = dir.resolve("strategy.snapshot");
+        map.save(file, ValueCodec.STRING, ValueCodec.INTEGER);
+        MappedSnapshot<String, Integer> snapshot = MappedSnapshot.open(file, ValueCodec.STRING, ValueCodec.INTEGER);
+        assertEquals(Integer.valueOf(42), snapshot.get("Key42"), "Keys should be found by their own hash");
+        assertNull(snapshot.get("KEY42"), "The strategy is not saved");
+    }
+
+    @Test
+    public void testInvalidFiles() throws IOException {
+        Path file = dir.resolve("garbage.snapshot");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> MyHashMap.load(file, ValueCodec.STRING, ValueCodec.STRING));
+        Files.write(file, new byte[3]);
+        assertThrows(IOException.class, () -> MyHashMap.load(file, ValueCodec.STRING, ValueCodec.STRING));
+        assertThrows(IllegalArgumentException.class, () -> MyHashMap.load(file, null, ValueCodec.STRING));
+
+        MyHashMap<String, String> empty = new MyHashMap<>();
+        Path emptyFile = dir.resolve("empty.snapshot");
+        empty.save(emptyFile, ValueCodec.STRING, ValueCodec.STRING);
+        assertTrue(MyHashMap.load(emptyFile, ValueCodec.STRING, ValueCodec.STRING).isEmpty(), "Empty maps should round-trip");
+    }
+    @Test
+    public void testCorruptDirectoryAndRecords() throws IOException {
+        MyHashMap<Integer, Integer> source = new MyHashMap<>(16);
+        for (int i = 0; i < 10; i++) {
+            source.put(i, i);
+        }
+        Path file = dir.resolve("corrupt.snapshot");
+        source.save(file, ValueCodec.INTEGER, ValueCodec.INTEGER);
+        byte[] valid = Files.readAllBytes(file);
+        int capacity = ByteBuffer.wrap(valid).getInt(16);
+        int records = MappedSnapshot.HEADER + 4 * (capacity + 1);
+
+        // A directory entry that goes backwards
+        byte[] bytes = valid.clone();
+        ByteBuffer.wrap(bytes).putInt(MappedSnapshot.HEADER + 4 * (capacity / 2), records - 4);
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> MappedSnapshot.open(file, ValueCodec.INTEGER, ValueCodec.INTEGER),
+                "A directory entry before the records area should be rejected");
+
+        // A first directory entry that does not start right after the directory
+        bytes = valid.clone();
+        ByteBuffer.wrap(bytes).putInt(MappedSnapshot.HEADER, records + 1);
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> MappedSnapshot.open(file, ValueCodec.INTEGER, ValueCodec.INTEGER),
+                "The first bucket should start right after the directory");
+
+        // A record whose key runs past the end of its bucket
+        bytes = valid.clone();
+        ByteBuffer.wrap(bytes).putInt(records + 4, 1000);
+        Files.write(file, bytes);
+        MappedSnapshot<Integer, Integer> overrun = MappedSnapshot.open(file, ValueCodec.INTEGER, ValueCodec.INTEGER);
+        assertThrows(IOException.class, overrun::toMap, "A record larger than its bucket should be rejected");
+        assertThrows(IOException.class, () -> MyHashMap.load(file, ValueCodec.INTEGER, ValueCodec.INTEGER));
+
+        // A value the codec cannot decode
+        Files.write(file, valid);
+        ValueCodec<Integer> failing = new ValueCodec<Integer>() {
+            @Override
+            public int size(Integer value) {
+                return Integer.BYTES;
+            }
+
+            @Override
+            public void write(Integer value, ByteBuffer target, int offset) {
+                target.putInt(offset, value);
+            }
+
+            @Override
+            public Integer read(ByteBuffer source, int offset, int length) {
+                throw new IllegalArgumentException("Bad value");
+            }
+        };
+        MappedSnapshot<Integer, Integer> undecodable = MappedSnapshot.open(file, ValueCodec.INTEGER, failing);
+        IOException e = assertThrows(IOException.class, () -> undecodable.get(3), "Decode failures should be reported as IOException");
+        assertTrue(e.getCause() instanceof IllegalArgumentException, "The codec's exception should be the cause");
+        assertEquals(0.0, undecodable.loadedFraction(), "A failed bucket should not count as decoded");
+    }
+}
@@ -0,0 +1,182 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class OHHMTest {
+
+    @Test
+    public void testConstructor() {
+        OffHeapHashMap<String> map = new OffHeapHashMap<>(ValueCodec.STRING);
+        assertTrue(map.isEmpty(), "Map should be empty after construction");
+        assertTrue(map.offHeapBytes() > 0, "The slab should be allocated up front");
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapHashMap<String>(null));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapHashMap<>(-1, 16, ValueCodec.STRING));
+    }
+
+    @Test
+    public void testPutGetContains() {
+        OffHeapHashMap<String> map = new OffHeapHashMap<>(ValueCodec.STRING);
+        map.put("key1", "value1");
+        map.put("key2", "value2");
+        map.put("key1", "updated");
+        assertEquals(2, map.size(), "Updating a key should not change the size");
+        assertEquals("updated", map.get("key1"), "Value for 'key1' should be updated");
+        assertTrue(map.contains("key2"), "Map should contain 'key2'");
+        assertFalse(map.contains("key3"), "Map should not contain 'key3'");
+        assertNull(map.get("key3"), "Value for 'key3' should be null");
+        assertNull(map.get(null), "A null key is never present");
+        assertThrows(IllegalArgumentException.class, () -> map.put(null, "x"));
+    }
+
+    @Test
+    public void testNullValues() {
+        OffHeapHashMap<Integer> map = new OffHeapHashMap<>(ValueCodec.INTEGER);
+        map.put("none", null);
+        assertTrue(map.contains("none"), "A key with a null value should be present");
+        assertNull(map.get("none"), "The null value should be stored");
+        map.put("none", 7);
+        assertEquals(Integer.valueOf(7), map.get("none"), "A null value should be replaceable");
+        assertEquals(Integer.valueOf(7), map.replace("none", null), "Replace should return the old value");
+        assertNull(map.get("none"), "Replace should store the null value");
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        OffHeapHashMap<String> map = new OffHeapHashMap<>(ValueCodec.STRING);
+        map.put("key1", "value1");
+        assertEquals("value1", map.replace("key1", "a much longer value than before"), "Old value should be returned");
+        assertEquals("a much longer value than before", map.get("key1"), "A longer value should be moved to a new record");
+        assertEquals("a much longer value than before", map.replace("key1", "short"), "Old value should be returned");
+        assertEquals("short", map.get("key1"), "A shorter value should be written in place");
+        assertNull(map.replace("key3", "value3"), "Replacing non-existing key should return null");
+        assertFalse(map.contains("key3"), "Replace should not insert missing keys");
+        assertEquals("short", map.remove("key1"), "Remove should return the old value");
+        assertNull(map.remove("key1"), "Removing a missing key should return null");
+        assertTrue(map.isEmpty(), "Map should be empty after removing its only key");
+    }
+
+    @Test
+    public void testGrowthAndRemoveAgainstModel() {
+        OffHeapHashMap<Long> map = new OffHeapHashMap<>(2, 16, ValueCodec.LONG);
+        Map<String, Long> model = new HashMap<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            String key = "key" + random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(model.remove(key), map.remove(key), "Remove should agree with HashMap");
+            } else {
+                long value = random.nextLong();
+                model.put(key, value);
+                map.put(key, value);
+            }
+        }
+        assertEquals(model.size(), map.size(), "Size should agree with HashMap");
+        for (Map.Entry<String, Long> entry : model.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()), "Every surviving key should be found");
+        }
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(model.containsKey("key" + i), map.contains("key" + i), "Removed keys should stay gone");
+        }
+    }
+
+    @Test
+    public void testGarbageIsReclaimed() {
+        OffHeapHashMap<String> map = new OffHeapHashMap<>(16, 1024, ValueCodec.STRING);
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            value.append('x');
+            map.put("only", value.toString());  // Each value is longer, so each put abandons a record
+        }
+        assertEquals(value.toString(), map.get("only"), "The last value should be kept");
+        assertEquals(OffHeapHashMap.HEADER + 4 + 2000, map.liveBytes(), "Only the live record should count");
+        assertTrue(map.offHeapBytes() < 16 * 2000, "Growing the slab should drop abandoned records");
+    }
+
+    @Test
+    public void testNonAsciiKeys() {
+        OffHeapHashMap<String> map = new OffHeapHashMap<>(ValueCodec.STRING);
+        String[] keys = {"café", "日本", "😀 smile", ""};
+        for (String key : keys) {
+            map.put(key, "v" + key.length());
+        }
+        for (String key : keys) {
+            assertEquals("v" + key.length(), map.get(key), "Key '" + key + "' should round-trip");
+        }
+        map.put("?", "question");
+        assertThrows(IllegalArgumentException.class, () -> map.put("\ud800", "bad"), "An unpaired high surrogate should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> map.put("x\udc00y", "bad"), "An unpaired low surrogate should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> map.get("\ud800"), "Lookups should reject unpaired surrogates too");
+        assertEquals("question", map.get("?"), "A rejected key should not replace the '?' key");
+        assertEquals(keys.length + 1, map.size(), "Rejected keys should not be stored");
+    }
+
+    @Test
+    public void testUtf8MatchesJdk() {
+        String[] samples = {"plain", "café", "日本語", "😀😁", "mix\u0080߿ࠀ"};
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (String s : samples) {
+            byte[] expected = s.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, Utf8.encodedLength(s), "Length should match the JDK encoder");
+            assertEquals(expected.length, Utf8.encode(s, buffer, 3), "Encode should report its length");
+            byte[] written = new byte[expected.length];
+            for (int i = 0; i < written.length; i++) {
+                written[i] = buffer.get(3 + i);
+            }
+            assertArrayEquals(expected, written, "Bytes should match the JDK encoder");
+            assertEquals(Utf8.hash(s), Utf8.hash(buffer, 3, expected.length), "Hashes should agree");
+            assertEquals(Utf8.hash(s), Utf8.hash(expected, 0, expected.length), "Hashes should agree");
+            assertTrue(Utf8.equals(s, buffer, 3, expected.length), "Encoded bytes should equal the string");
+            assertEquals(s, Utf8.decode(buffer, 3, expected.length), "Decode should round-trip");
+        }
+    }
+
+    @Test
+    public void testCodecs() {
+        OffHeapHashMap<byte[]> bytes = new OffHeapHashMap<>(ValueCodec.BYTES);
+        bytes.put("blob", new byte[] {1, 2, 3});
+        bytes.put("empty", new byte[0]);
+        assertArrayEquals(new byte[] {1, 2, 3}, bytes.get("blob"), "Byte arrays should round-trip");
+        assertEquals(0, bytes.get("empty").length, "Empty arrays should round-trip");
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        ValueCodec.BYTES.write(new byte[] {4, 5, 6}, buffer, 10);
+        assertArrayEquals(new byte[] {4, 5, 6}, ValueCodec.BYTES.read(buffer, 10, 3), "Bytes should be copied at the given offset");
+        assertEquals(0, buffer.position(), "Bulk copies should not move the buffer's position");
+        OffHeapHashMap<Long> longs = new OffHeapHashMap<>(ValueCodec.LONG);
+        longs.put("max", Long.MAX_VALUE);
+        longs.put("min", Long.MIN_VALUE);
+        assertEquals(Long.valueOf(Long.MAX_VALUE), longs.get("max"), "Longs should round-trip");
+        assertEquals(Long.valueOf(Long.MIN_VALUE), longs.get("min"), "Longs should round-trip");
+    }
+
+    @Test
+    public void testIteratorAndClear() {
+        OffHeapHashMap<Integer> map = new OffHeapHashMap<>(ValueCodec.INTEGER);
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+        List<Integer> values = new ArrayList<>();
+        for (Integer value : map) {
+            values.add(value);
+        }
+        Collections.sort(values);
+        Integer[] expected = new Integer[100];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = i;
+        }
+        assertEquals(Arrays.asList(expected), values, "Iterator should return every value once");
+        map.clear();
+        assertTrue(map.isEmpty(), "Map should be empty after clear");
+        assertFalse(map.iterator().hasNext(), "Iterator over an empty map should have no elements");
+        map.put("again", 1);
+        assertEquals(Integer.valueOf(1), map.get("again"), "Map should be usable after clear");
+    }
+}
@@ -0,0 +1,73 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+public class OHMTest {
+
+    @Test
+    public void testConstructor() {
+        OpenHashMap<String> map = new OpenHashMap<>("key1", "value1");
+        assertEquals(1, map.size(), "Size should be 1 after initialization");
+        assertEquals("value1", map.get("key1"), "Value for 'key1' should be 'value1'");
+        assertThrows(IllegalArgumentException.class, () -> new OpenHashMap<String>(16, 1f));
+    }
+
+    @Test
+    public void testPutGetContains() {
+        OpenHashMap<String> map = new OpenHashMap<>();
+        assertTrue(map.isEmpty(), "Map should be empty after construction");
+        map.put("key1", "value1");
+        map.put("key2", "value2");
+        map.put("key1", "updated");
+        assertEquals(2, map.size(), "Updating a key should not change the size");
+        assertEquals("updated", map.get("key1"), "Value for 'key1' should be updated");
+        assertTrue(map.contains("key2"), "Map should contain 'key2'");
+        assertFalse(map.contains("key3"), "Map should not contain 'key3'");
+        assertNull(map.get("key3"), "Value for 'key3' should be null");
+        assertThrows(IllegalArgumentException.class, () -> map.put(null, "x"));
+    }
+
+    @Test
+    public void testReplace() {
+        OpenHashMap<String> map = new OpenHashMap<>("key1", "value1");
+        assertEquals("value1", map.replace("key1", "newValue1"), "Old value should be 'value1'");
+        assertEquals("newValue1", map.get("key1"), "New value should be 'newValue1'");
+        assertNull(map.replace("key3", "value3"), "Replacing non-existing key should return null");
+        assertFalse(map.contains("key3"), "Replace should not insert missing keys");
+    }
+
+    @Test
+    public void testCollisionAndResize() {
+        OpenHashMap<Integer> map = new OpenHashMap<>(2);
+        map.put("Aa", -1);
+        map.put("BB", -2);  // Same hash code as "Aa"
+        for (int i = 0; i < 5000; i++) {
+            map.put("key" + i, i);
+        }
+        assertEquals(5002, map.size(), "Map size should count every distinct key");
+        assertEquals(Integer.valueOf(-1), map.get("Aa"), "Colliding key 'Aa' should survive resizes");
+        assertEquals(Integer.valueOf(-2), map.get("BB"), "Colliding key 'BB' should survive resizes");
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(Integer.valueOf(i), map.get("key" + i), "Every key should survive the resizes");
+        }
+    }
+
+    @Test
+    public void testIterator() {
+        OpenHashMap<String> map = new OpenHashMap<>("key1", "value1");
+        map.put("key2", "value2");
+        map.put("key3", "value3");
+        ArrayList<String> collected = new ArrayList<>();
+        for (String value : map) {
+            collected.add(value);
+        }
+        assertEquals(3, collected.size(), "Iterator should traverse all elements.");
+        assertTrue(collected.containsAll(Arrays.asList("value1", "value2", "value3")),
+                "Iterator should traverse all expected elements.");
+        Iterator<String> empty = new OpenHashMap<String>().iterator();
+        assertFalse(empty.hasNext(), "Iterator over an empty map should have no elements");
+    }
+}
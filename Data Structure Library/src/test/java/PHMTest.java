@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+public class PHMTest {
+
+    @Test
+    public void testEmpty() {
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+        assertTrue(map.isEmpty(), "The empty map should have no entries");
+        assertNull(map.get("key"), "The empty map should find nothing");
+        assertSame(map, map.remove("key"), "Removing from the empty map should return it unchanged");
+        assertFalse(map.iterator().hasNext(), "The empty map should iterate nothing");
+        assertThrows(IllegalArgumentException.class, () -> map.put(null, 1));
+    }
+
+    @Test
+    public void testVersionsAreIndependent() {
+        PersistentHashMap<String, Integer> v0 = PersistentHashMap.empty();
+        PersistentHashMap<String, Integer> v1 = v0.put("key1", 1);
+        PersistentHashMap<String, Integer> v2 = v1.put("key2", 2);
+        PersistentHashMap<String, Integer> v3 = v2.put("key1", 10);
+        PersistentHashMap<String, Integer> v4 = v3.remove("key2");
+        assertEquals(0, v0.size(), "Older versions should keep their size");
+        assertEquals(1, v1.size(), "Older versions should keep their size");
+        assertEquals(2, v2.size(), "Older versions should keep their size");
+        assertEquals(2, v3.size(), "Updating a key should not change the size");
+        assertEquals(1, v4.size(), "Removing a key should shrink the new version");
+        assertEquals(Integer.valueOf(1), v2.get("key1"), "Older versions should keep their values");
+        assertEquals(Integer.valueOf(10), v3.get("key1"), "The new version should see the update");
+        assertTrue(v3.contains("key2"), "Removing should not affect older versions");
+        assertFalse(v4.contains("key2"), "The new version should not contain the removed key");
+        assertSame(v3, v3.put("key1", v3.get("key1")), "Putting the same value should return the same version");
+        assertSame(v4, v4.replace("missing", 1), "Replacing an absent key should return the same version");
+        assertEquals(Integer.valueOf(5), v4.replace("key1", 5).get("key1"), "Replace should update an existing key");
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Random random = new Random(23);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        List<PersistentHashMap<Integer, Integer>> versions = new ArrayList<>();
+        List<Map<Integer, Integer>> snapshots = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+            assertEquals(expected.size(), map.size(), "Size should agree with HashMap");
+            if (i % 2000 == 0) {
+                versions.add(map);
+                snapshots.add(new HashMap<>(expected));
+            }
+        }
+        for (int k = 0; k < 3000; k++) {
+            assertEquals(expected.get(k), map.get(k), "get should agree with HashMap");
+        }
+        for (int v = 0; v < versions.size(); v++) {
+            for (Map.Entry<Integer, Integer> entry : snapshots.get(v).entrySet()) {
+                assertEquals(entry.getValue(), versions.get(v).get(entry.getKey()), "Old versions should be unchanged");
+            }
+            assertEquals(snapshots.get(v).size(), versions.get(v).size(), "Old versions should keep their size");
+        }
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < 4; b++) {
+                sb.append((i & (1 << b)) == 0 ? "Aa" : "BB");
+            }
+            keys.add(sb.toString());
+        }
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().put("other", -1);
+        for (int i = 0; i < keys.size(); i++) {
+            map = map.put(keys.get(i), i);
+        }
+        assertEquals(17, map.size(), "Every colliding key should be stored");
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(Integer.valueOf(i), map.get(keys.get(i)), "Colliding keys should be found");
+        }
+        assertFalse(map.contains("C#AaAaAa"), "A colliding key that was never added should be missing");
+        for (int i = 0; i < keys.size() - 1; i++) {
+            map = map.remove(keys.get(i));
+        }
+        assertEquals(2, map.size(), "Colliding keys should be removable");
+        assertEquals(Integer.valueOf(15), map.get(keys.get(15)), "The last colliding key should remain");
+        assertEquals(Integer.valueOf(-1), map.get("other"), "Unrelated keys should remain");
+    }
+
+    @Test
+    public void testIteratorAndCopyOf() {
+        MyHashMap<String, Integer> source = new MyHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            source.put("key" + i, i);
+        }
+        PersistentHashMap<String, Integer> map = PersistentHashMap.copyOf(source);
+        source.put("key0", -1);
+        assertEquals(Integer.valueOf(0), map.get("key0"), "The copy should not see later changes to the source");
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Integer> it = map.iterator();
+        while (it.hasNext()) {
+            seen.add(it.next());
+        }
+        assertEquals(1000, seen.size(), "The iterator should return every value once");
+        assertThrows(NoSuchElementException.class, it::next);
+        assertThrows(IllegalArgumentException.class, () -> PersistentHashMap.copyOf(null));
+    }
+}
@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SHMTest {
+
+    @Test
+    public void testPutGetContainsReplace() {
+        StripedHashMap<String> map = new StripedHashMap<>("key1", "value1");
+        map.put("key2", "value2");
+        assertEquals(2, map.size(), "Size should be 2 after two puts");
+        assertEquals("value1", map.get("key1"), "Value for 'key1' should be 'value1'");
+        assertTrue(map.contains("key2"), "Map should contain 'key2'");
+        assertFalse(map.contains("key3"), "Map should not contain 'key3'");
+        assertEquals("value1", map.replace("key1", "newValue1"), "Old value should be 'value1'");
+        assertNull(map.replace("key3", "value3"), "Replacing non-existing key should return null");
+        assertThrows(IllegalArgumentException.class, () -> map.put("key4", null));
+    }
+
+    @Test
+    public void testAtomicOperations() {
+        StripedHashMap<String> map = new StripedHashMap<>();
+        assertNull(map.putIfAbsent("key1", "value1"), "putIfAbsent should add a missing key");
+        assertEquals("value1", map.putIfAbsent("key1", "other"), "putIfAbsent should keep the existing value");
+        assertFalse(map.replace("key1", "wrong", "value2"), "replace should fail on an unexpected value");
+        assertTrue(map.replace("key1", "value1", "value2"), "replace should succeed on the expected value");
+        assertEquals("value2", map.get("key1"), "Value should be updated by the conditional replace");
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("computed", map.computeIfAbsent("key2", k -> { calls.incrementAndGet(); return "computed"; }));
+        assertEquals("computed", map.computeIfAbsent("key2", k -> { calls.incrementAndGet(); return "again"; }));
+        assertEquals(1, calls.get(), "Mapping function should run once for an absent key");
+        assertNull(map.computeIfAbsent("key3", k -> null), "A null result should not add the key");
+        assertFalse(map.contains("key3"), "A null result should not add the key");
+        assertEquals(2, map.size(), "Size should count key1 and key2");
+    }
+
+    @Test
+    public void testResizeAndIterator() {
+        StripedHashMap<Integer> map = new StripedHashMap<>(2, 0.75f, 4);
+        for (int i = 0; i < 10000; i++) {
+            map.put("key" + i, i);
+        }
+        assertEquals(10000, map.size(), "Size should count every distinct key");
+        long sum = 0;
+        int count = 0;
+        for (Integer value : map) {
+            sum += value;
+            count++;
+        }
+        assertEquals(10000, count, "Iterator should visit every value once");
+        assertEquals(10000L * 9999 / 2, sum, "Iterator should visit every value once");
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        StripedHashMap<Integer> map = new StripedHashMap<>();
+        final int threads = 8;
+        final int keys = 500;
+        final int rounds = 200;
+        ArrayList<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                for (int r = 0; r < rounds; r++) {
+                    for (int k = 0; k < keys; k++) {
+                        String key = "key" + k;
+                        map.putIfAbsent(key, 0);
+                        while (true) {
+                            Integer current = map.get(key);
+                            if (map.replace(key, current, current + 1)) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join(60000);
+        }
+        assertEquals(keys, map.size(), "Every key should be added exactly once");
+        for (int k = 0; k < keys; k++) {
+            assertEquals(Integer.valueOf(threads * rounds), map.get("key" + k), "No increment should be lost");
+        }
+    }
+}